@@ -0,0 +1,152 @@
+package com.exasol.errorreporting.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.exasol.errorreporting.ErrorMessagePrototype;
+import com.exasol.errorreporting.ExaError;
+
+/**
+ * Measures how the throughput of rendering error messages scales with the number of threads.
+ * <p>
+ * The runner renders messages from 1 up to N platform threads, doubling the thread count in each step, and then from
+ * many virtual threads if the JVM supports them. Every rendered message is checked, so that the runner also fails on
+ * wrong results under contention. Use it to spot contention regressions in caches and pools:
+ * </p>
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.exasol.errorreporting.benchmark.ConcurrencyScalingRunner [maxThreads] [secondsPerStep]
+ * </pre>
+ */
+public final class ConcurrencyScalingRunner {
+    private static final int DISTINCT_TEXTS = 2_048;
+    private static final int VIRTUAL_THREADS = 10_000;
+    private static final String[] TEXTS = new String[DISTINCT_TEXTS];
+    private static final ErrorMessagePrototype PROTOTYPE = ExaError.messageBuilder("E-ERJ-SCALE-1")
+            .message("Worker {{worker}} failed in step {{step}}.").mitigation("Restart {{worker}}.").freeze();
+
+    static {
+        for (int i = 0; i < DISTINCT_TEXTS; ++i) {
+            TEXTS[i] = "Text " + i + " for {{worker}} and {{value|u}}.";
+        }
+    }
+
+    private final long nanosPerStep;
+    private final LongAdder failures = new LongAdder();
+
+    private ConcurrencyScalingRunner(final long nanosPerStep) {
+        this.nanosPerStep = nanosPerStep;
+    }
+
+    /**
+     * Run the measurement.
+     *
+     * @param args optional maximum number of platform threads and optional duration of each step in seconds
+     * @throws Exception if the measurement fails
+     */
+    public static void main(final String[] args) throws Exception {
+        final int maxThreads = (args.length > 0) ? Integer.parseInt(args[0])
+                : Runtime.getRuntime().availableProcessors();
+        final long secondsPerStep = (args.length > 1) ? Long.parseLong(args[1]) : 3;
+        final ConcurrencyScalingRunner runner = new ConcurrencyScalingRunner(TimeUnit.SECONDS.toNanos(secondsPerStep));
+        // Warm-up, so that the first step is not measured with interpreted code.
+        runner.run(Executors.newFixedThreadPool(maxThreads), maxThreads);
+        System.out.println("threads     ops/s    speedup  efficiency");
+        double singleThreadThroughput = 0;
+        for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+            final double throughput = runner.run(executor, threads);
+            if (threads == 1) {
+                singleThreadThroughput = throughput;
+            }
+            final double speedup = throughput / singleThreadThroughput;
+            System.out.println(String.format(Locale.ROOT, "%7d %10.0f %9.2f %10.0f%%", threads, throughput, speedup,
+                    (100 * speedup) / threads));
+        }
+        final ExecutorService virtualExecutor = createVirtualThreadExecutor();
+        if (virtualExecutor == null) {
+            System.out.println("Virtual threads are not available in this JVM.");
+        } else {
+            final double throughput = runner.run(virtualExecutor, VIRTUAL_THREADS);
+            System.out.println(String.format(Locale.ROOT, "%d virtual threads: %.0f ops/s", VIRTUAL_THREADS,
+                    throughput));
+        }
+        final long failureCount = runner.failures.sum();
+        System.out.println("Wrong results: " + failureCount);
+        if (failureCount > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int nextThreadCount(final int threads, final int maxThreads) {
+        return ((threads < maxThreads) && ((threads * 2) > maxThreads)) ? maxThreads : (threads * 2);
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() throws ReflectiveOperationException {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final NoSuchMethodException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Render messages from a number of workers for the duration of one step.
+     *
+     * @return throughput in rendered messages per second
+     */
+    private double run(final ExecutorService executor, final int workers) throws InterruptedException {
+        final LongAdder operations = new LongAdder();
+        final CountDownLatch start = new CountDownLatch(1);
+        final long[] deadline = new long[1];
+        final List<Future<?>> futures = new ArrayList<>(workers);
+        for (int worker = 0; worker < workers; ++worker) {
+            final int workerNumber = worker;
+            futures.add(executor.submit(() -> {
+                start.await();
+                operations.add(work(workerNumber, deadline[0]));
+                return null;
+            }));
+        }
+        final long startTime = System.nanoTime();
+        deadline[0] = startTime + this.nanosPerStep;
+        start.countDown();
+        for (final Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (final ExecutionException exception) {
+                this.failures.increment();
+                exception.printStackTrace();
+            }
+        }
+        final long elapsed = System.nanoTime() - startTime;
+        executor.shutdown();
+        return (operations.sum() * 1e9) / elapsed;
+    }
+
+    private long work(final int worker, final long deadline) {
+        long operations = 0;
+        int step = 0;
+        while (System.nanoTime() < deadline) {
+            final int textIndex = (worker + step) % DISTINCT_TEXTS;
+            check(ExaError.messageBuilder("E-ERJ-SCALE-2").message(TEXTS[textIndex], worker, step).toString(),
+                    "E-ERJ-SCALE-2: Text " + textIndex + " for " + worker + " and " + step + ".");
+            check(PROTOTYPE.with(worker, step),
+                    "E-ERJ-SCALE-1: Worker " + worker + " failed in step " + step + ". Restart " + worker + ".");
+            operations += 2;
+            ++step;
+        }
+        return operations;
+    }
+
+    private void check(final String actual, final String expected) {
+        if (!expected.equals(actual)) {
+            this.failures.increment();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.exasol.errorreporting.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.exasol.errorreporting.ErrorMessageBuilder;
+import com.exasol.errorreporting.ExaError;
+import com.exasol.errorreporting.Quoting;
+
+/**
+ * Benchmark for the complete error message pipeline from {@link ExaError#messageBuilder(String)} to
+ * {@link ErrorMessageBuilder#toString()}.
+ * <p>
+ * Run with {@code -prof gc} to get the allocation rate per operation.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ErrorMessageBenchmark {
+    private static final String ERROR_CODE = "E-ERJ-BENCH-1";
+
+    /** Number of placeholders in the message. */
+    @Param({ "0", "1", "4", "16" })
+    public int placeholderCount;
+
+    /** Number of mitigations, each of which references the first placeholder. */
+    @Param({ "0", "1", "3" })
+    public int mitigationCount;
+
+    /** Kind of the parameter values. */
+    @Param({ "NUMBER", "STRING", "COLLECTION" })
+    public ParameterKind parameterKind;
+
+    /** Quoting selected by the switch of each placeholder. */
+    @Param({ "AUTOMATIC", "UNQUOTED", "SINGLE_QUOTES", "DOUBLE_QUOTES" })
+    public Quoting quoting;
+
+    private String message;
+    private String[] mitigations;
+    private String[] parameterNames;
+    private Object[] parameterValues;
+
+    /**
+     * Prepare the texts and values.
+     * <p>
+     * All texts are created once, so that they arrive at the builder as the same instances on every call, exactly like
+     * string literals at a real throw site.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        final String quotingSwitch = getQuotingSwitch(this.quoting);
+        this.parameterNames = new String[this.placeholderCount];
+        this.parameterValues = new Object[this.placeholderCount];
+        final StringBuilder messageBuilder = new StringBuilder("Failed to process the request");
+        for (int i = 0; i < this.placeholderCount; ++i) {
+            this.parameterNames[i] = "parameter" + i;
+            this.parameterValues[i] = this.parameterKind.createValue(i);
+            messageBuilder.append(" {{").append(this.parameterNames[i]).append(quotingSwitch).append("}}");
+        }
+        this.message = messageBuilder.append('.').toString();
+        this.mitigations = new String[this.mitigationCount];
+        for (int i = 0; i < this.mitigationCount; ++i) {
+            this.mitigations[i] = (this.placeholderCount > 0)
+                    ? ("Check the value of {{parameter0" + quotingSwitch + "}} in step " + i + ".")
+                    : ("Retry step " + i + ".");
+        }
+    }
+
+    private static String getQuotingSwitch(final Quoting quoting) {
+        switch (quoting) {
+        case UNQUOTED:
+            return "|u";
+        case SINGLE_QUOTES:
+            return "|q";
+        case DOUBLE_QUOTES:
+            return "|d";
+        default:
+            return "";
+        }
+    }
+
+    /**
+     * Build the message with parameters defined via {@link ErrorMessageBuilder#parameter(String, Object)}.
+     *
+     * @return rendered message
+     */
+    @Benchmark
+    public String namedParameters() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder(ERROR_CODE).message(this.message);
+        for (int i = 0; i < this.placeholderCount; ++i) {
+            builder.parameter(this.parameterNames[i], this.parameterValues[i]);
+        }
+        for (final String mitigation : this.mitigations) {
+            builder.mitigation(mitigation);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Build the message with parameters passed as arguments of {@link ErrorMessageBuilder#message(String, Object...)}.
+     *
+     * @return rendered message
+     */
+    @Benchmark
+    public String inlineArguments() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder(ERROR_CODE).message(this.message,
+                this.parameterValues);
+        for (final String mitigation : this.mitigations) {
+            builder.mitigation(mitigation);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Kinds of parameter values used in the benchmark.
+     */
+    public enum ParameterKind {
+        /** Boxed integer */
+        NUMBER {
+            @Override
+            Object createValue(final int index) {
+                return 1_000_000 + index;
+            }
+        },
+        /** Short string */
+        STRING {
+            @Override
+            Object createValue(final int index) {
+                return "value-" + index;
+            }
+        },
+        /** List of ten strings */
+        COLLECTION {
+            @Override
+            Object createValue(final int index) {
+                final List<String> values = new ArrayList<>();
+                for (int i = 0; i < 10; ++i) {
+                    values.add("item-" + index + "-" + i);
+                }
+                return values;
+            }
+        };
+
+        abstract Object createValue(int index);
+    }
+}
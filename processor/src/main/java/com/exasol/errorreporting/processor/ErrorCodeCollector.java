@@ -0,0 +1,84 @@
+package com.exasol.errorreporting.processor;
+
+import java.util.*;
+
+import com.exasol.errorreporting.ErrorCatalogWriter;
+
+/**
+ * Collects the texts of all error codes found in the sources of a compilation.
+ */
+class ErrorCodeCollector implements TemplateCallListener {
+    private final Map<String, CollectedError> errors = new TreeMap<>();
+    private int textCount = 0;
+
+    @Override
+    public void message(final String errorCode, final String text) {
+        if (getError(errorCode).messages.add(text)) {
+            ++this.textCount;
+        }
+    }
+
+    @Override
+    public void mitigation(final String errorCode, final String text) {
+        if (getError(errorCode).mitigations.add(text)) {
+            ++this.textCount;
+        }
+    }
+
+    @Override
+    public void parameterDescription(final String errorCode, final String name, final String description) {
+        getError(errorCode).parameterDescriptions.putIfAbsent(name, description);
+    }
+
+    private CollectedError getError(final String errorCode) {
+        return this.errors.computeIfAbsent(errorCode, code -> new CollectedError());
+    }
+
+    /**
+     * Get the number of distinct texts collected so far.
+     *
+     * @return number of texts
+     */
+    int getTextCount() {
+        return this.textCount;
+    }
+
+    /**
+     * Get all texts by error code.
+     *
+     * @return messages and mitigations in order of their appearance, by error code
+     */
+    Map<String, Set<String>> getTextsByErrorCode() {
+        final Map<String, Set<String>> result = new TreeMap<>();
+        for (final Map.Entry<String, CollectedError> entry : this.errors.entrySet()) {
+            final Set<String> texts = new LinkedHashSet<>(entry.getValue().messages);
+            texts.addAll(entry.getValue().mitigations);
+            if (!texts.isEmpty()) {
+                result.put(entry.getKey(), texts);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add all collected error codes to an error catalog.
+     * <p>
+     * If the same error code is used with different messages, the catalog contains the first one.
+     * </p>
+     *
+     * @param writer catalog writer
+     */
+    void addTo(final ErrorCatalogWriter writer) {
+        for (final Map.Entry<String, CollectedError> entry : this.errors.entrySet()) {
+            final CollectedError error = entry.getValue();
+            final String message = error.messages.isEmpty() ? null : error.messages.iterator().next();
+            writer.add(entry.getKey(), message, new ArrayList<>(error.mitigations), error.parameterDescriptions);
+        }
+    }
+
+    private static final class CollectedError {
+        private final Set<String> messages = new LinkedHashSet<>();
+        private final Set<String> mitigations = new LinkedHashSet<>();
+        private final Map<String, String> parameterDescriptions = new LinkedHashMap<>();
+    }
+}
@@ -0,0 +1,31 @@
+package com.exasol.errorreporting.processor;
+
+/**
+ * Receiver of the constant texts that a {@link TemplateCallScanner} finds.
+ */
+interface TemplateCallListener {
+    /**
+     * Report a message text.
+     *
+     * @param errorCode error code of the builder
+     * @param text      message text
+     */
+    void message(String errorCode, String text);
+
+    /**
+     * Report a mitigation text.
+     *
+     * @param errorCode error code of the builder
+     * @param text      mitigation text
+     */
+    void mitigation(String errorCode, String text);
+
+    /**
+     * Report the description of a parameter.
+     *
+     * @param errorCode   error code of the builder
+     * @param name        parameter name
+     * @param description parameter description
+     */
+    void parameterDescription(String errorCode, String name, String description);
+}
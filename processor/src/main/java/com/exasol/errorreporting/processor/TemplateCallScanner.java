@@ -0,0 +1,125 @@
+package com.exasol.errorreporting.processor;
+
+import java.util.List;
+
+import com.sun.source.tree.*;
+import com.sun.source.util.TreeScanner;
+
+/**
+ * Syntax tree scanner that finds constant message texts, mitigation texts and parameter descriptions together with
+ * their error code.
+ * <p>
+ * The scanner works on the unattributed tree, so it recognizes the calls by their shape: a call of {@code message} or
+ * {@code mitigation} with a constant string as first argument, somewhere in a call chain that starts with
+ * {@code messageBuilder("CODE")} or {@code pooledMessageBuilder("CODE")}, either statically imported or qualified with
+ * {@code ExaError}. Parameter descriptions are found the same way in calls of {@code parameter} with three arguments.
+ * Texts the scanner misses are simply parsed at runtime.
+ * </p>
+ */
+class TemplateCallScanner extends TreeScanner<Void, Void> {
+    private static final String FACADE_SIMPLE_NAME = "ExaError";
+    private static final String FACADE_NAME = "com.exasol.errorreporting.ExaError";
+    private final TemplateCallListener listener;
+
+    /**
+     * Create a new scanner.
+     *
+     * @param listener listener for the texts found
+     */
+    TemplateCallScanner(final TemplateCallListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public Void visitMethodInvocation(final MethodInvocationTree node, final Void parameter) {
+        // Visit the receiver first, so that the texts of a call chain are reported in source order.
+        super.visitMethodInvocation(node, parameter);
+        final String methodName = getMethodName(node);
+        final List<? extends ExpressionTree> arguments = node.getArguments();
+        if (("message".equals(methodName) || "mitigation".equals(methodName)) && !arguments.isEmpty()) {
+            final String text = getConstantString(arguments.get(0));
+            final String errorCode = (text == null) ? null : findErrorCode(node);
+            if (errorCode == null) {
+                return null;
+            } else if ("message".equals(methodName)) {
+                this.listener.message(errorCode, text);
+            } else {
+                this.listener.mitigation(errorCode, text);
+            }
+        } else if ("parameter".equals(methodName) && (arguments.size() == 3)) {
+            final String name = getConstantString(arguments.get(0));
+            final String description = (name == null) ? null : getConstantString(arguments.get(2));
+            final String errorCode = (description == null) ? null : findErrorCode(node);
+            if (errorCode != null) {
+                this.listener.parameterDescription(errorCode, name, description);
+            }
+        }
+        return null;
+    }
+
+    private static String findErrorCode(final MethodInvocationTree call) {
+        ExpressionTree receiver = getReceiver(call);
+        while (receiver instanceof MethodInvocationTree) {
+            final MethodInvocationTree invocation = (MethodInvocationTree) receiver;
+            if (isBuilderFactory(invocation)) {
+                return getConstantString(invocation.getArguments().get(0));
+            }
+            receiver = getReceiver(invocation);
+        }
+        return null;
+    }
+
+    private static boolean isBuilderFactory(final MethodInvocationTree invocation) {
+        final String methodName = getMethodName(invocation);
+        if (!("messageBuilder".equals(methodName) || "pooledMessageBuilder".equals(methodName))
+                || (invocation.getArguments().size() != 1)) {
+            return false;
+        }
+        final ExpressionTree select = invocation.getMethodSelect();
+        if (select instanceof IdentifierTree) {
+            return true;
+        } else if (select instanceof MemberSelectTree) {
+            final String qualifier = ((MemberSelectTree) select).getExpression().toString();
+            return FACADE_SIMPLE_NAME.equals(qualifier) || FACADE_NAME.equals(qualifier);
+        } else {
+            return false;
+        }
+    }
+
+    private static ExpressionTree getReceiver(final MethodInvocationTree invocation) {
+        final ExpressionTree select = invocation.getMethodSelect();
+        return (select instanceof MemberSelectTree) ? ((MemberSelectTree) select).getExpression() : null;
+    }
+
+    private static String getMethodName(final MethodInvocationTree invocation) {
+        final ExpressionTree select = invocation.getMethodSelect();
+        if (select instanceof MemberSelectTree) {
+            return ((MemberSelectTree) select).getIdentifier().toString();
+        } else if (select instanceof IdentifierTree) {
+            return ((IdentifierTree) select).getName().toString();
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Get the value of a string literal or of a concatenation of string literals.
+     *
+     * @param expression expression to evaluate
+     * @return value or {@code null} if the expression is not a constant string
+     */
+    static String getConstantString(final ExpressionTree expression) {
+        if (expression.getKind() == Tree.Kind.STRING_LITERAL) {
+            return (String) ((LiteralTree) expression).getValue();
+        } else if (expression.getKind() == Tree.Kind.PARENTHESIZED) {
+            return getConstantString(((ParenthesizedTree) expression).getExpression());
+        } else if (expression.getKind() == Tree.Kind.PLUS) {
+            final BinaryTree binary = (BinaryTree) expression;
+            final String left = getConstantString(binary.getLeftOperand());
+            final String right = (left == null) ? null : getConstantString(binary.getRightOperand());
+            return (right == null) ? null : left + right;
+        } else {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.exasol.errorreporting.processor;
+
+import java.io.*;
+import java.util.*;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+import com.exasol.errorreporting.ErrorCatalog;
+import com.exasol.errorreporting.ErrorCatalogWriter;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.Trees;
+
+/**
+ * Annotation processor that parses constant message templates at build time.
+ * <p>
+ * The processor looks at all compiled sources for calls of {@code message(...)} and {@code mitigation(...)} with a
+ * constant text on a builder that was created with {@code ExaError.messageBuilder("CODE")} or
+ * {@code ExaError.pooledMessageBuilder("CODE")} in the same expression. It generates a
+ * {@link com.exasol.errorreporting.PrecompiledTemplateProvider} that contains the parsed templates and registers it
+ * as service, so that the library finds the templates at runtime without parsing the texts.
+ * </p>
+ * <p>
+ * In addition the processor writes an {@link ErrorCatalog} with the message, mitigations and constant parameter
+ * descriptions of each error code to {@value ErrorCatalog#RESOURCE_NAME}.
+ * </p>
+ * <p>
+ * The generated class is called {@value #DEFAULT_SIMPLE_CLASS_NAME} and placed in the first package (in alphabetical
+ * order) that contains templates. Use the processor option {@value #CLASS_NAME_OPTION} to choose a different fully
+ * qualified name, e.g. if several modules end up in the same package.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(TemplatePrecompiler.CLASS_NAME_OPTION)
+public class TemplatePrecompiler extends AbstractProcessor {
+    /** Processor option for the fully qualified name of the generated class */
+    public static final String CLASS_NAME_OPTION = "com.exasol.errorreporting.templatesClass";
+    static final String DEFAULT_SIMPLE_CLASS_NAME = "ExaErrorTemplates";
+    private static final String SERVICE_FILE = "META-INF/services/com.exasol.errorreporting.PrecompiledTemplateProvider";
+    private final ErrorCodeCollector collector = new ErrorCodeCollector();
+    private final List<Element> originatingElements = new ArrayList<>();
+    private String firstPackage = null;
+    private Trees trees = null;
+    private boolean generated = false;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnvironment) {
+        super.init(processingEnvironment);
+        try {
+            this.trees = Trees.instance(processingEnvironment);
+        } catch (final IllegalArgumentException exception) {
+            processingEnvironment.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                    "Message templates are not pre-parsed, because the compiler does not provide syntax trees.");
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+        // Only the first round sees the hand-written sources. Later rounds contain generated code.
+        if ((this.trees != null) && !this.generated && !roundEnvironment.processingOver()) {
+            for (final Element element : roundEnvironment.getRootElements()) {
+                scan(element);
+            }
+            if (this.collector.getTextCount() > 0) {
+                generate();
+            }
+            this.generated = true;
+        }
+        return false;
+    }
+
+    private void scan(final Element element) {
+        final Tree tree = this.trees.getTree(element);
+        if (tree != null) {
+            final int textsBefore = this.collector.getTextCount();
+            new TemplateCallScanner(this.collector).scan(tree, null);
+            if (this.collector.getTextCount() > textsBefore) {
+                this.originatingElements.add(element);
+                final String packageName = this.processingEnv.getElementUtils().getPackageOf(element)
+                        .getQualifiedName().toString();
+                if ((this.firstPackage == null) || (packageName.compareTo(this.firstPackage) < 0)) {
+                    this.firstPackage = packageName;
+                }
+            }
+        }
+    }
+
+    private void generate() {
+        final String className = getClassName();
+        final Element[] origins = this.originatingElements.toArray(new Element[0]);
+        final Filer filer = this.processingEnv.getFiler();
+        try {
+            try (final Writer writer = filer.createSourceFile(className, origins).openWriter()) {
+                new TemplateSourceWriter(writer).write(className, this.collector.getTextsByErrorCode());
+            }
+            final ErrorCatalogWriter catalog = new ErrorCatalogWriter();
+            this.collector.addTo(catalog);
+            try (final OutputStream stream = filer
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", ErrorCatalog.RESOURCE_NAME, origins)
+                    .openOutputStream()) {
+                catalog.write(stream);
+            }
+            try (final Writer writer = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE, origins)
+                    .openWriter()) {
+                writer.write(className);
+                writer.write("\n");
+            }
+        } catch (final IOException exception) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                    "Message templates are not pre-parsed, because writing '" + className + "' failed: "
+                            + exception.getMessage());
+        }
+    }
+
+    private String getClassName() {
+        final String configuredName = this.processingEnv.getOptions().get(CLASS_NAME_OPTION);
+        if ((configuredName != null) && !configuredName.isBlank()) {
+            return configuredName.trim();
+        } else if (this.firstPackage.isEmpty()) {
+            return DEFAULT_SIMPLE_CLASS_NAME;
+        } else {
+            return this.firstPackage + "." + DEFAULT_SIMPLE_CLASS_NAME;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.exasol.errorreporting.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+import com.exasol.errorreporting.MessageTemplate;
+import com.exasol.errorreporting.Placeholder;
+
+/**
+ * Writes the Java source of a {@link com.exasol.errorreporting.PrecompiledTemplateProvider}.
+ * <p>
+ * The texts are parsed with {@link MessageTemplate#compile(String)}, so the generated templates are exactly what the
+ * library would create at runtime. Statements are split across several methods to stay below the size limit of a
+ * single method, even for projects with thousands of error codes.
+ * </p>
+ */
+class TemplateSourceWriter {
+    private static final int ERROR_CODES_PER_METHOD = 50;
+    private final Writer writer;
+
+    /**
+     * Create a new writer.
+     *
+     * @param writer target for the source code
+     */
+    TemplateSourceWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write the source of the provider class.
+     *
+     * @param className        fully qualified name of the class
+     * @param textsByErrorCode texts by error code
+     * @throws IOException if writing fails
+     */
+    void write(final String className, final Map<String, ? extends Collection<String>> textsByErrorCode)
+            throws IOException {
+        final int lastDot = className.lastIndexOf('.');
+        if (lastDot > 0) {
+            line("package " + className.substring(0, lastDot) + ";");
+            line("");
+        }
+        line("import java.util.*;");
+        line("");
+        line("import com.exasol.errorreporting.*;");
+        line("");
+        line("/**");
+        line(" * Message templates pre-parsed at build time.");
+        line(" * <p>");
+        line(" * Generated by " + TemplatePrecompiler.class.getName() + ". Do not edit.");
+        line(" * </p>");
+        line(" */");
+        line("public final class " + className.substring(lastDot + 1) + " implements PrecompiledTemplateProvider {");
+        final List<Map.Entry<String, ? extends Collection<String>>> entries = new ArrayList<>(
+                textsByErrorCode.entrySet());
+        final int methodCount = (entries.size() + ERROR_CODES_PER_METHOD - 1) / ERROR_CODES_PER_METHOD;
+        line("    @Override");
+        line("    public Map<String, List<MessageTemplate>> getTemplates() {");
+        line("        final Map<String, List<MessageTemplate>> templates = new HashMap<>();");
+        for (int i = 0; i < methodCount; ++i) {
+            line("        addTemplates" + i + "(templates);");
+        }
+        line("        return templates;");
+        line("    }");
+        for (int i = 0; i < methodCount; ++i) {
+            final int end = Math.min(entries.size(), (i + 1) * ERROR_CODES_PER_METHOD);
+            writeAddMethod(i, entries.subList(i * ERROR_CODES_PER_METHOD, end));
+        }
+        line("");
+        line("    private static MessageTemplate template(final String text, final List<String> literals,");
+        line("            final Placeholder... placeholders) {");
+        line("        return MessageTemplate.fromParts(text, literals, List.of(placeholders));");
+        line("    }");
+        line("");
+        line("    private static Placeholder placeholder(final String reference, final Quoting quoting,");
+        line("            final int startIndex, final int endIndex) {");
+        line("        return new Placeholder.Builder(reference).quoting(quoting).startIndex(startIndex)"
+                + ".endIndex(endIndex).build();");
+        line("    }");
+        line("}");
+    }
+
+    private void writeAddMethod(final int index,
+            final List<Map.Entry<String, ? extends Collection<String>>> entries) throws IOException {
+        line("");
+        line("    private static void addTemplates" + index + "(final Map<String, List<MessageTemplate>> templates) {");
+        for (final Map.Entry<String, ? extends Collection<String>> entry : entries) {
+            line("        templates.put(" + literal(entry.getKey()) + ", List.of(");
+            final Iterator<String> texts = entry.getValue().iterator();
+            while (texts.hasNext()) {
+                this.writer.write("                ");
+                writeTemplate(MessageTemplate.compile(texts.next()));
+                line(texts.hasNext() ? "," : "));");
+            }
+        }
+        line("    }");
+    }
+
+    private void writeTemplate(final MessageTemplate template) throws IOException {
+        this.writer.write("template(" + literal(template.getText()) + ", List.of(");
+        final List<String> literals = template.getLiterals();
+        for (int i = 0; i < literals.size(); ++i) {
+            this.writer.write(((i == 0) ? "" : ", ") + literal(literals.get(i)));
+        }
+        this.writer.write(")");
+        for (final Placeholder placeholder : template.getPlaceholders()) {
+            this.writer.write(", placeholder(" + literal(placeholder.getReference()) + ", Quoting."
+                    + placeholder.getQuoting().name() + ", " + placeholder.getStartIndex() + ", "
+                    + placeholder.getEndIndex() + ")");
+        }
+        this.writer.write(")");
+    }
+
+    private void line(final String text) throws IOException {
+        this.writer.write(text);
+        this.writer.write("\n");
+    }
+
+    /**
+     * Convert a string into a Java string literal that contains only printable ASCII characters.
+     *
+     * @param value string to convert
+     * @return Java string literal including the quotes
+     */
+    static String literal(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length() + 2);
+        builder.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char character = value.charAt(i);
+            switch (character) {
+            case '"':
+                builder.append("\\\"");
+                break;
+            case '\\':
+                builder.append("\\\\");
+                break;
+            case '\n':
+                builder.append("\\n");
+                break;
+            case '\r':
+                builder.append("\\r");
+                break;
+            case '\t':
+                builder.append("\\t");
+                break;
+            default:
+                if ((character < 0x20) || (character > 0x7E)) {
+                    builder.append(String.format("\\u%04x", (int) character));
+                } else {
+                    builder.append(character);
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
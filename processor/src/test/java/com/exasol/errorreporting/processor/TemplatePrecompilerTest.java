@@ -0,0 +1,142 @@
+package com.exasol.errorreporting.processor;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import javax.tools.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.exasol.errorreporting.*;
+
+class TemplatePrecompilerTest {
+    private static final String SERVICE_FILE = "META-INF/services/com.exasol.errorreporting.PrecompiledTemplateProvider";
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testGeneratesProviderForConstantTemplates() throws Exception {
+        final Path output = compile(List.of(), "com.example.Sample", "package com.example;\n" //
+                + "import com.exasol.errorreporting.ExaError;\n" //
+                + "class Sample {\n" //
+                + "    String first(final int port) {\n" //
+                + "        return ExaError.messageBuilder(\"E-EX-1\").message(\"Port {{port}} \" + \"is closed.\", port)\n" //
+                + "                .mitigation(\"Open port {{port|u}}.\").toString();\n" //
+                + "    }\n" //
+                + "    String second(final String text) {\n" //
+                + "        return ExaError.pooledMessageBuilder(\"E-EX-2\").message(\"Caf\\u00e9 \\\"{{a}}\\\"\\n\", 1)\n" //
+                + "                .message(text).render();\n" //
+                + "    }\n" //
+                + "}\n");
+        final Map<String, List<MessageTemplate>> templates = loadProvider(output, "com.example.ExaErrorTemplates")
+                .getTemplates();
+        assertAll(() -> assertThat(templates.keySet(), containsInAnyOrder("E-EX-1", "E-EX-2")),
+                () -> assertEquivalent(templates.get("E-EX-1"), "Port {{port}} is closed.", "Open port {{port|u}}."),
+                () -> assertEquivalent(templates.get("E-EX-2"), "Caf\u00e9 \"{{a}}\"\n"),
+                () -> assertThat(Files.readString(output.resolve(SERVICE_FILE)).trim(),
+                        equalTo("com.example.ExaErrorTemplates")));
+    }
+
+    @Test
+    void testUsesConfiguredClassName() throws Exception {
+        final Path output = compile(List.of("-A" + TemplatePrecompiler.CLASS_NAME_OPTION + "=org.test.Templates"),
+                "com.example.Sample", "package com.example;\n" //
+                        + "import static com.exasol.errorreporting.ExaError.messageBuilder;\n" //
+                        + "class Sample {\n" //
+                        + "    String first() {\n" //
+                        + "        return messageBuilder(\"E-EX-3\").message(\"Text.\").toString();\n" //
+                        + "    }\n" //
+                        + "}\n");
+        final Map<String, List<MessageTemplate>> templates = loadProvider(output, "org.test.Templates").getTemplates();
+        assertEquivalent(templates.get("E-EX-3"), "Text.");
+    }
+
+    @Test
+    void testIgnoresNonConstantAndUnrelatedCalls() throws Exception {
+        final Path output = compile(List.of(), "com.example.Sample", "package com.example;\n" //
+                + "import com.exasol.errorreporting.ExaError;\n" //
+                + "class Sample {\n" //
+                + "    String message(final String text) { return text; }\n" //
+                + "    String first(final String text, final String code) {\n" //
+                + "        message(\"not a builder\");\n" //
+                + "        ExaError.messageBuilder(code).message(\"Variable code.\").toString();\n" //
+                + "        return ExaError.messageBuilder(\"E-EX-4\").message(text).toString();\n" //
+                + "    }\n" //
+                + "}\n");
+        assertAll(() -> assertThat(Files.exists(output.resolve("com/example/ExaErrorTemplates.class")), equalTo(false)),
+                () -> assertThat(Files.exists(output.resolve(SERVICE_FILE)), equalTo(false)),
+                () -> assertThat(Files.exists(output.resolve(ErrorCatalog.RESOURCE_NAME)), equalTo(false)));
+    }
+
+    @Test
+    void testWritesErrorCatalog() throws Exception {
+        final Path output = compile(List.of(), "com.example.Sample", "package com.example;\n" //
+                + "import com.exasol.errorreporting.ExaError;\n" //
+                + "class Sample {\n" //
+                + "    String first(final int port) {\n" //
+                + "        return ExaError.messageBuilder(\"E-EX-5\").message(\"Port {{port}} is closed.\")\n" //
+                + "                .parameter(\"port\", port, \"TCP \" + \"port\").mitigation(\"Open it.\")\n" //
+                + "                .mitigation(\"Or not.\").toString();\n" //
+                + "    }\n" //
+                + "}\n");
+        final ErrorCatalogEntry entry = ErrorCatalog.load(output.resolve(ErrorCatalog.RESOURCE_NAME))
+                .lookup("E-EX-5");
+        assertAll(() -> assertThat(entry.getMessage(), equalTo("Port {{port}} is closed.")),
+                () -> assertThat(entry.getMitigations(), contains("Open it.", "Or not.")),
+                () -> assertThat(entry.getParameterDescriptions(), equalTo(Map.of("port", "TCP port"))));
+    }
+
+    @Test
+    void testLiteralEscapesNonPrintableCharacters() {
+        assertThat(TemplateSourceWriter.literal("a\"b\\c\nd\u00e9\u0001"), equalTo("\"a\\\"b\\\\c\\nd\\u00e9\\u0001\""));
+    }
+
+    private Path compile(final List<String> options, final String className, final String source)
+            throws IOException {
+        final Path sourceDir = Files.createDirectories(this.tempDir.resolve("src"));
+        final Path output = Files.createDirectories(this.tempDir.resolve("classes"));
+        final Path sourceFile = sourceDir.resolve(className.replace('.', '/') + ".java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.writeString(sourceFile, source, StandardCharsets.UTF_8);
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            final List<String> allOptions = new ArrayList<>(options);
+            allOptions.addAll(List.of("-classpath", System.getProperty("java.class.path"), "-d", output.toString(),
+                    "-s", output.toString()));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, allOptions,
+                    null, fileManager.getJavaFileObjects(sourceFile));
+            task.setProcessors(List.of(new TemplatePrecompiler()));
+            assertThat(diagnostics.getDiagnostics().toString(), task.call(), equalTo(true));
+        }
+        return output;
+    }
+
+    private static PrecompiledTemplateProvider loadProvider(final Path output, final String className)
+            throws Exception {
+        final ClassLoader loader = new URLClassLoader(new URL[] { output.toUri().toURL() },
+                TemplatePrecompilerTest.class.getClassLoader());
+        return (PrecompiledTemplateProvider) loader.loadClass(className).getConstructor().newInstance();
+    }
+
+    private static void assertEquivalent(final List<MessageTemplate> actual, final String... texts) {
+        assertThat(actual.size(), equalTo(texts.length));
+        for (int i = 0; i < texts.length; ++i) {
+            final MessageTemplate expected = MessageTemplate.compile(texts[i]);
+            assertThat(actual.get(i).getText(), equalTo(expected.getText()));
+            assertThat(actual.get(i).getLiterals(), equalTo(expected.getLiterals()));
+            assertThat(actual.get(i).getPlaceholders().toString(), equalTo(expected.getPlaceholders().toString()));
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.exasol.errorreporting;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sink that renders and writes error messages on a background thread.
+ * <p>
+ * Request threads hand over immutable {@link ErrorMessage}s through a bounded, lock-free queue and continue right away.
+ * A single background thread takes the messages in batches, renders them and writes each batch to the target with one
+ * call, followed by a flush if the target is {@link Flushable}. This takes formatting and I/O out of the latency of the
+ * request threads.
+ * </p>
+ *
+ * <pre>
+ * private static final AsyncErrorSink SINK = AsyncErrorSink.builder(System.err).build();
+ *
+ * SINK.submit(ExaError.messageBuilder("E-TEST-1").message("Request {{id}} failed.", id));
+ * </pre>
+ * <p>
+ * What happens if the queue is full depends on the {@link BackpressurePolicy}. Dropped messages are counted, and the
+ * background thread writes a note with the number of dropped messages after the next batch.
+ * </p>
+ * <p>
+ * The background thread is a virtual thread if the JVM supports them and a daemon platform thread otherwise. Neither
+ * keeps the JVM alive, so messages that are still queued when the JVM exits are lost. Call {@link #close()}, for
+ * example in a shutdown hook, to write all queued messages and stop the thread.
+ * </p>
+ */
+public final class AsyncErrorSink implements AutoCloseable {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_BLOCK_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private final MpscQueue<ErrorMessage> queue;
+    private final Appendable target;
+    private final String separator;
+    private final int batchSize;
+    private final BackpressurePolicy policy;
+    private final int sampleRate;
+    private final Thread worker;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong samplingCounter = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+    private final AtomicLong renderFailures = new AtomicLong();
+    private final AtomicInteger activeProducers = new AtomicInteger();
+    private long reportedDropped = 0;
+    private volatile boolean consumerParked = false;
+    private volatile boolean closed = false;
+
+    private AsyncErrorSink(final Builder builder) {
+        this.queue = new MpscQueue<>(builder.capacity);
+        this.target = builder.target;
+        this.separator = builder.separator;
+        this.batchSize = builder.batchSize;
+        this.policy = builder.policy;
+        this.sampleRate = builder.sampleRate;
+        final ThreadFactory threadFactory = (builder.threadFactory == null) ? createDefaultThreadFactory()
+                : builder.threadFactory;
+        this.worker = threadFactory.newThread(this::drainUntilClosed);
+        this.worker.start();
+    }
+
+    /**
+     * Create a new builder for a sink that writes to a target.
+     *
+     * @param target target for the rendered messages, for example a {@link java.io.Writer} or {@link System#err};
+     *               it is only used by the background thread
+     * @return new builder
+     */
+    public static Builder builder(final Appendable target) {
+        if (target == null) {
+            throw new IllegalArgumentException("The target of an error sink must not be null.");
+        }
+        return new Builder(target);
+    }
+
+    /**
+     * Submit the current state of a builder.
+     * <p>
+     * The builder is captured with {@link ErrorMessageBuilder#build()}, so it can be changed or reused afterwards.
+     * </p>
+     *
+     * @param builder builder of the error message
+     * @return {@code true} if the message was queued, {@code false} if it was dropped or the sink is closed
+     */
+    public boolean submit(final ErrorMessageBuilder builder) {
+        return submit(builder.build());
+    }
+
+    /**
+     * Submit an error message.
+     *
+     * @param message error message
+     * @return {@code true} if the message was queued, {@code false} if it was dropped or the sink is closed
+     */
+    public boolean submit(final ErrorMessage message) {
+        // Producers register before they check the closed flag, so that the background thread does not stop while a
+        // message is on its way into the queue.
+        this.activeProducers.incrementAndGet();
+        try {
+            return offer(message);
+        } finally {
+            this.activeProducers.decrementAndGet();
+        }
+    }
+
+    private boolean offer(final ErrorMessage message) {
+        if (this.closed) {
+            return false;
+        }
+        final boolean accepted;
+        switch (this.policy) {
+        case BLOCK:
+            accepted = offerBlocking(message);
+            break;
+        case SAMPLE:
+            accepted = offerSampled(message);
+            break;
+        default:
+            accepted = this.queue.offer(message);
+        }
+        if (accepted) {
+            wakeUpConsumer();
+        } else if (!this.closed) {
+            this.dropped.incrementAndGet();
+        }
+        return accepted;
+    }
+
+    private boolean offerBlocking(final ErrorMessage message) {
+        long parkNanos = 1_000;
+        while (!this.queue.offer(message)) {
+            if (this.closed) {
+                return false;
+            }
+            wakeUpConsumer();
+            LockSupport.parkNanos(this, parkNanos);
+            parkNanos = Math.min(parkNanos * 2, MAX_BLOCK_PARK_NANOS);
+        }
+        return true;
+    }
+
+    private boolean offerSampled(final ErrorMessage message) {
+        if ((this.queue.size() * 2) > this.queue.capacity()
+                && ((this.samplingCounter.incrementAndGet() % this.sampleRate) != 0)) {
+            return false;
+        }
+        return this.queue.offer(message);
+    }
+
+    private void wakeUpConsumer() {
+        if (this.consumerParked) {
+            this.consumerParked = false;
+            LockSupport.unpark(this.worker);
+        }
+    }
+
+    /**
+     * Get the number of messages that were dropped because the queue was full.
+     *
+     * @return number of dropped messages
+     */
+    public long getDroppedCount() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Get the number of batches that could not be written because the target failed.
+     *
+     * @return number of failed writes
+     */
+    public long getWriteFailureCount() {
+        return this.writeFailures.get();
+    }
+
+    /**
+     * Get the number of messages that could not be rendered, for example because a parameter failed.
+     * <p>
+     * Instead of such a message the sink writes its error code with a note that rendering failed.
+     * </p>
+     *
+     * @return number of messages that failed to render
+     */
+    public long getRenderFailureCount() {
+        return this.renderFailures.get();
+    }
+
+    /**
+     * Stop accepting messages, write all queued messages and stop the background thread.
+     * <p>
+     * Producers that are waiting for space under {@link BackpressurePolicy#BLOCK} give up and their messages are
+     * rejected.
+     * </p>
+     * <p>
+     * If the background thread itself calls this method, for example from the target, it returns right away. The
+     * background thread then writes the remaining messages and stops.
+     * </p>
+     * <p>
+     * If the calling thread is interrupted while waiting for the background thread, the method returns early and
+     * leaves the interrupt status set. The background thread still writes the remaining messages.
+     * </p>
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        if (Thread.currentThread() == this.worker) {
+            return;
+        }
+        LockSupport.unpark(this.worker);
+        try {
+            this.worker.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainUntilClosed() {
+        final StringBuilder buffer = new StringBuilder();
+        while (true) {
+            final int written = drainBatch(buffer);
+            if (written == 0) {
+                if (this.closed && (this.activeProducers.get() == 0) && this.queue.isEmpty()) {
+                    return;
+                }
+                parkWhileIdle();
+            }
+        }
+    }
+
+    private void parkWhileIdle() {
+        this.consumerParked = true;
+        if (this.queue.isEmpty() && !this.closed) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        } else {
+            // A producer has claimed a slot but not published its element yet, or is still about to offer one.
+            Thread.onSpinWait();
+        }
+        this.consumerParked = false;
+    }
+
+    private int drainBatch(final StringBuilder buffer) {
+        buffer.setLength(0);
+        int count = 0;
+        ErrorMessage message;
+        while ((count < this.batchSize) && ((message = this.queue.poll()) != null)) {
+            renderMessage(message, buffer);
+            buffer.append(this.separator);
+            ++count;
+        }
+        appendDroppedNote(buffer);
+        if (buffer.length() > 0) {
+            write(buffer);
+        }
+        return count;
+    }
+
+    private void renderMessage(final ErrorMessage message, final StringBuilder buffer) {
+        final int start = buffer.length();
+        try {
+            message.renderTo(buffer);
+        } catch (final RuntimeException exception) {
+            // One broken message must neither stop the background thread nor take the rest of the batch with it.
+            buffer.setLength(start);
+            buffer.append(message.getErrorCode()).append(": <rendering failed: ").append(exception.getClass().getName())
+                    .append('>');
+            this.renderFailures.incrementAndGet();
+        }
+    }
+
+    private void appendDroppedNote(final StringBuilder buffer) {
+        final long droppedNow = this.dropped.get();
+        if (droppedNow > this.reportedDropped) {
+            buffer.append(droppedNow - this.reportedDropped).append(" error messages were dropped because the queue of")
+                    .append(" the error sink was full.").append(this.separator);
+            this.reportedDropped = droppedNow;
+        }
+    }
+
+    private void write(final CharSequence batch) {
+        try {
+            this.target.append(batch);
+            if (this.target instanceof Flushable) {
+                ((Flushable) this.target).flush();
+            }
+        } catch (final IOException | RuntimeException exception) {
+            // The sink reports errors, so there is no better place to report its own failures than this counter.
+            this.writeFailures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Create a factory for virtual threads if the JVM supports them, otherwise for daemon platform threads.
+     * <p>
+     * The library targets Java 11, so the virtual thread builder is looked up by reflection.
+     * </p>
+     */
+    private static ThreadFactory createDefaultThreadFactory() {
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            final Object namedBuilder = builderType.getMethod("name", String.class).invoke(builder, "error-sink");
+            return (ThreadFactory) builderType.getMethod("factory").invoke(namedBuilder);
+        } catch (final ReflectiveOperationException | RuntimeException exception) {
+            return runnable -> {
+                final Thread thread = new Thread(runnable, "error-sink");
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+
+    /**
+     * Builder for an {@link AsyncErrorSink}.
+     */
+    public static final class Builder {
+        private final Appendable target;
+        private int capacity = 1024;
+        private int batchSize = 256;
+        private BackpressurePolicy policy = BackpressurePolicy.DROP;
+        private int sampleRate = 10;
+        private String separator = System.lineSeparator();
+        private ThreadFactory threadFactory = null;
+
+        private Builder(final Appendable target) {
+            this.target = target;
+        }
+
+        /**
+         * Set the minimum capacity of the queue. The actual capacity is the next power of two.
+         *
+         * @param capacity minimum number of queued messages, at least one; default: 1024
+         * @return self for fluent programming
+         */
+        public Builder capacity(final int capacity) {
+            this.capacity = requirePositive("capacity", capacity);
+            return this;
+        }
+
+        /**
+         * Set the maximum number of messages written with one call to the target.
+         *
+         * @param batchSize maximum messages per batch, at least one; default: 256
+         * @return self for fluent programming
+         */
+        public Builder batchSize(final int batchSize) {
+            this.batchSize = requirePositive("batchSize", batchSize);
+            return this;
+        }
+
+        /**
+         * Set what happens with new messages when the queue cannot take them.
+         *
+         * @param policy backpressure policy; default: {@link BackpressurePolicy#DROP}
+         * @return self for fluent programming
+         */
+        public Builder policy(final BackpressurePolicy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("The backpressure policy must not be null.");
+            }
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * Set which share of the messages {@link BackpressurePolicy#SAMPLE} accepts under pressure.
+         *
+         * @param sampleRate accept one of this many messages, at least one; default: 10
+         * @return self for fluent programming
+         */
+        public Builder sampleRate(final int sampleRate) {
+            this.sampleRate = requirePositive("sampleRate", sampleRate);
+            return this;
+        }
+
+        /**
+         * Set the text written after each message.
+         *
+         * @param separator separator; default: the line separator of the platform
+         * @return self for fluent programming
+         */
+        public Builder separator(final String separator) {
+            if (separator == null) {
+                throw new IllegalArgumentException("The separator must not be null.");
+            }
+            this.separator = separator;
+            return this;
+        }
+
+        /**
+         * Set the factory for the background thread.
+         *
+         * @param threadFactory thread factory; default: virtual threads if available, else daemon platform threads
+         * @return self for fluent programming
+         */
+        public Builder threadFactory(final ThreadFactory threadFactory) {
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Build the sink and start its background thread.
+         *
+         * @return running sink
+         */
+        public AsyncErrorSink build() {
+            return new AsyncErrorSink(this);
+        }
+
+        private static int requirePositive(final String name, final int value) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1, but was " + value + ".");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.exasol.errorreporting;
+
+/**
+ * What an {@link AsyncErrorSink} does with new messages when its queue cannot take them.
+ */
+public enum BackpressurePolicy {
+    /** Drop new messages while the queue is full and count them. */
+    DROP,
+    /** Wait until there is space in the queue. The waiting thread parks, so this is safe for virtual threads. */
+    BLOCK,
+    /**
+     * Accept only every n-th message while the queue is more than half full, and drop the others and count them. This
+     * keeps a representative share of the messages during error storms.
+     */
+    SAMPLE
+}
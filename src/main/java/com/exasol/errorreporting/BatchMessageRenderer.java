@@ -0,0 +1,185 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders many error messages that share the same templates and differ only in their arguments.
+ * <p>
+ * A batch renderer is created once from a prototype builder that defines error code, message, mitigations and
+ * optionally parameters that are the same for all messages. The arguments that change from message to message are
+ * passed as columns: column {@code i} contains the values for the {@code i}-th placeholder of the message in all rows,
+ * following the same rules as the arguments of {@link ErrorMessageBuilder#message(String, Object...)}.
+ * </p>
+ *
+ * <pre>
+ * final BatchMessageRenderer renderer = BatchMessageRenderer.of(ExaError.messageBuilder("E-TEST-1")
+ *         .message("Invalid value {{value}} in column {{column}} at row {{row}}."));
+ * final List&lt;String&gt; messages = renderer.render(values, columnNames, rowNumbers);
+ * </pre>
+ * <p>
+ * The placeholders are resolved once for the whole batch: each placeholder is bound either to a column, to a fixed
+ * parameter of the prototype whose quoted text is prepared in advance, or to the text for unknown placeholders.
+ * Placeholders in mitigations are bound by name to the same columns.
+ * Rendering a row then only copies literals and quotes the column values. Column values take precedence over fixed
+ * parameters with the same name.
+ * </p>
+ * <p>
+ * Batch renderers are immutable and can be used by several threads at the same time.
+ * </p>
+ */
+public final class BatchMessageRenderer {
+    private static final int ROWS_PER_TASK = 1024;
+    private final BoundMessage message;
+
+    private BatchMessageRenderer(final BoundMessage message) {
+        this.message = message;
+    }
+
+    /**
+     * Create a batch renderer from a prototype builder.
+     * <p>
+     * Later changes to the prototype do not affect the renderer.
+     * </p>
+     *
+     * @param prototype builder with error code, message, mitigations and fixed parameters
+     * @return batch renderer
+     */
+    public static BatchMessageRenderer of(final ErrorMessageBuilder prototype) {
+        return new BatchMessageRenderer(BoundMessage.bind(prototype));
+    }
+
+    /**
+     * Create a batch renderer for a prototype.
+     *
+     * @param prototype prototype of the messages
+     * @return batch renderer
+     */
+    public static BatchMessageRenderer of(final ErrorMessagePrototype prototype) {
+        return new BatchMessageRenderer(prototype.getBoundMessage());
+    }
+
+    /**
+     * Render all rows into a list.
+     *
+     * @param columns argument columns, all of the same length
+     * @return rendered messages, one per row
+     * @throws IllegalArgumentException if there are no columns or the columns have different lengths
+     */
+    public List<String> render(final Object[]... columns) {
+        final int rowCount = getRowCount(columns);
+        final String[] result = new String[rowCount];
+        renderRange(columns, result, 0, rowCount);
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Render all rows into a list using the common fork-join pool for large batches.
+     *
+     * @param columns argument columns, all of the same length
+     * @return rendered messages, one per row
+     * @throws IllegalArgumentException if there are no columns or the columns have different lengths
+     */
+    public List<String> renderParallel(final Object[]... columns) {
+        return renderParallel(ForkJoinPool.commonPool(), columns);
+    }
+
+    /**
+     * Render all rows into a list using a fork-join pool for large batches.
+     *
+     * @param pool    pool to render in
+     * @param columns argument columns, all of the same length
+     * @return rendered messages, one per row
+     * @throws IllegalArgumentException if there are no columns or the columns have different lengths
+     */
+    public List<String> renderParallel(final ForkJoinPool pool, final Object[]... columns) {
+        final int rowCount = getRowCount(columns);
+        final String[] result = new String[rowCount];
+        pool.invoke(new RenderTask(columns, result, 0, rowCount));
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Render all rows into a single target.
+     *
+     * @param target    target to append the messages to
+     * @param separator separator appended after each message, e.g. a line break
+     * @param columns   argument columns, all of the same length
+     * @throws IOException              if appending to the target fails
+     * @throws IllegalArgumentException if there are no columns or the columns have different lengths
+     */
+    public void renderTo(final Appendable target, final CharSequence separator, final Object[]... columns)
+            throws IOException {
+        final int rowCount = getRowCount(columns);
+        recordRenders(rowCount);
+        final BoundMessage.RowArguments arguments = new BoundMessage.RowArguments(columns);
+        for (int row = 0; row < rowCount; ++row) {
+            this.message.render(target, arguments.select(row));
+            target.append(separator);
+        }
+    }
+
+    private static int getRowCount(final Object[][] columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("A batch needs at least one argument column.");
+        }
+        final int rowCount = columns[0].length;
+        for (int i = 1; i < columns.length; ++i) {
+            if (columns[i].length != rowCount) {
+                throw new IllegalArgumentException("All argument columns must have the same length, but column 0 has "
+                        + rowCount + " rows and column " + i + " has " + columns[i].length + ".");
+            }
+        }
+        return rowCount;
+    }
+
+    private void renderRange(final Object[][] columns, final String[] result, final int from, final int to) {
+        recordRenders(to - from);
+        final StringBuilder buffer = new StringBuilder();
+        final BoundMessage.RowArguments arguments = new BoundMessage.RowArguments(columns);
+        try {
+            for (int row = from; row < to; ++row) {
+                buffer.setLength(0);
+                this.message.render(buffer, arguments.select(row));
+                result[row] = buffer.toString();
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+        }
+    }
+
+    private void recordRenders(final int count) {
+        if (ErrorCodeMetrics.ENABLED) {
+            this.message.recordRenders(count);
+        }
+    }
+
+    private final class RenderTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final transient Object[][] columns;
+        private final transient String[] result;
+        private final int from;
+        private final int to;
+
+        private RenderTask(final Object[][] columns, final String[] result, final int from, final int to) {
+            this.columns = columns;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if ((this.to - this.from) <= ROWS_PER_TASK) {
+                renderRange(this.columns, this.result, this.from, this.to);
+            } else {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RenderTask(this.columns, this.result, this.from, middle),
+                        new RenderTask(this.columns, this.result, middle, this.to));
+            }
+        }
+    }
+}
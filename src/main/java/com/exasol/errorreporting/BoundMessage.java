@@ -0,0 +1,247 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Error code, message and mitigations of a builder with all placeholders bound in advance.
+ * <p>
+ * Each placeholder is bound either to an argument position or to prepared text. Argument {@code i} belongs to the
+ * {@code i}-th placeholder of the message, following the same rules as the arguments of
+ * {@link ErrorMessageBuilder#message(String, Object...)}. Placeholders in mitigations are bound by name to the same
+ * arguments. For placeholders without an argument the text is prepared when binding: the quoted value of the fixed
+ * parameter with the same name or the text for unknown placeholders. Arguments take precedence over fixed parameters
+ * with the same name.
+ * </p>
+ * <p>
+ * Bound messages are immutable and can be used by several threads at the same time.
+ * </p>
+ */
+final class BoundMessage {
+    private static final int NO_ARGUMENT = -1;
+    private final String errorCode;
+    private final ErrorCode parsedErrorCode;
+    private final BoundTemplate message;
+    private final BoundTemplate[] mitigations;
+
+    private BoundMessage(final String errorCode, final ErrorCode parsedErrorCode, final BoundTemplate message,
+            final BoundTemplate[] mitigations) {
+        this.errorCode = errorCode;
+        this.parsedErrorCode = parsedErrorCode;
+        this.message = message;
+        this.mitigations = mitigations;
+    }
+
+    /**
+     * Bind the current state of a builder.
+     * <p>
+     * Later changes to the builder do not affect the bound message.
+     * </p>
+     *
+     * @param builder builder with error code, message, mitigations and fixed parameters
+     * @return bound message
+     */
+    static BoundMessage bind(final ErrorMessageBuilder builder) {
+        final MessageTemplate messageTemplate = builder.getMessage();
+        final Map<String, Integer> argumentsByName = new HashMap<>();
+        if (messageTemplate != null) {
+            for (int i = 0; i < messageTemplate.getPlaceholderCount(); ++i) {
+                argumentsByName.putIfAbsent(messageTemplate.getPlaceholder(i).getReference(), i);
+            }
+        }
+        final ParameterDefinitionList parameters = builder.getParameterDefinitions();
+        final BoundTemplate boundMessage = ((messageTemplate == null) || messageTemplate.isEmpty()) ? null
+                : BoundTemplate.bind(messageTemplate, argumentsByName, parameters);
+        final List<MessageTemplate> mitigationTemplates = builder.getMitigations();
+        final BoundTemplate[] boundMitigations = new BoundTemplate[mitigationTemplates.size()];
+        for (int i = 0; i < boundMitigations.length; ++i) {
+            boundMitigations[i] = BoundTemplate.bind(mitigationTemplates.get(i), argumentsByName, parameters);
+        }
+        final ErrorCode parsedErrorCode = ErrorCode.tryParse(builder.getErrorCode());
+        final String errorCode = (parsedErrorCode == null) ? builder.getErrorCode() : parsedErrorCode.toString();
+        return new BoundMessage(errorCode, parsedErrorCode, boundMessage, boundMitigations);
+    }
+
+    /**
+     * Get the error code.
+     *
+     * @return error code
+     */
+    String getErrorCode() {
+        return this.errorCode;
+    }
+
+    /**
+     * Count renders of this message in the {@link ErrorCodeMetrics}.
+     * <p>
+     * The error code was parsed when binding, so valid codes are counted by their id without a lookup.
+     * </p>
+     *
+     * @param count number of rendered messages
+     */
+    void recordRenders(final long count) {
+        if (this.parsedErrorCode == null) {
+            ErrorCodeMetrics.recordRenders(this.errorCode, count);
+        } else {
+            ErrorCodeMetrics.recordRenders(this.parsedErrorCode, count);
+        }
+    }
+
+    /**
+     * Render the message with one set of arguments.
+     *
+     * @param target    target to append the message to
+     * @param arguments arguments for the message placeholders
+     * @throws IOException if appending to the target fails
+     */
+    void render(final Appendable target, final Arguments arguments) throws IOException {
+        target.append(this.errorCode);
+        if (this.message != null) {
+            MessageRenderer.appendMessageSeparator(target);
+            this.message.fill(target, arguments);
+        }
+        for (int i = 0; i < this.mitigations.length; ++i) {
+            MessageRenderer.appendMitigationSeparator(target, this.mitigations.length, i);
+            this.mitigations[i].fill(target, arguments);
+        }
+    }
+
+    /**
+     * Read access to the arguments of one message.
+     */
+    interface Arguments {
+        /**
+         * Get the number of arguments.
+         *
+         * @return number of arguments
+         */
+        int count();
+
+        /**
+         * Get an argument.
+         *
+         * @param index index of the argument, smaller than {@link #count()}
+         * @return argument
+         */
+        Object get(int index);
+    }
+
+    /**
+     * Arguments given as an array.
+     */
+    static final class ArrayArguments implements Arguments {
+        private final Object[] values;
+
+        /**
+         * Create arguments from an array.
+         *
+         * @param values argument values
+         */
+        ArrayArguments(final Object[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public int count() {
+            return this.values.length;
+        }
+
+        @Override
+        public Object get(final int index) {
+            return this.values[index];
+        }
+    }
+
+    /**
+     * Arguments of one row of argument columns.
+     * <p>
+     * The row can be changed, so that one instance serves all rows of a batch.
+     * </p>
+     */
+    static final class RowArguments implements Arguments {
+        private final Object[][] columns;
+        private int row;
+
+        /**
+         * Create arguments over argument columns, starting at row 0.
+         *
+         * @param columns argument columns
+         */
+        RowArguments(final Object[][] columns) {
+            this.columns = columns;
+        }
+
+        /**
+         * Select the row to read arguments from.
+         *
+         * @param row index of the row
+         * @return this instance for fluent programming
+         */
+        RowArguments select(final int row) {
+            this.row = row;
+            return this;
+        }
+
+        @Override
+        public int count() {
+            return this.columns.length;
+        }
+
+        @Override
+        public Object get(final int index) {
+            return this.columns[index][this.row];
+        }
+    }
+
+    /**
+     * Template whose placeholders are bound to argument positions or prepared text.
+     */
+    private static final class BoundTemplate {
+        private final MessageTemplate template;
+        private final int[] argumentIndexes;
+        private final String[] preparedTexts;
+
+        private BoundTemplate(final MessageTemplate template, final int[] argumentIndexes,
+                final String[] preparedTexts) {
+            this.template = template;
+            this.argumentIndexes = argumentIndexes;
+            this.preparedTexts = preparedTexts;
+        }
+
+        private static BoundTemplate bind(final MessageTemplate template, final Map<String, Integer> argumentsByName,
+                final ParameterDefinitionList parameters) {
+            final int placeholderCount = template.getPlaceholderCount();
+            final int[] argumentIndexes = new int[placeholderCount];
+            final String[] preparedTexts = new String[placeholderCount];
+            final StringBuilder buffer = new StringBuilder();
+            for (int i = 0; i < placeholderCount; ++i) {
+                final Placeholder placeholder = template.getPlaceholder(i);
+                argumentIndexes[i] = argumentsByName.getOrDefault(placeholder.getReference(), NO_ARGUMENT);
+                buffer.setLength(0);
+                try {
+                    PlaceholdersFiller.fillPlaceholder(buffer, placeholder, parameters);
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+                }
+                preparedTexts[i] = buffer.toString();
+            }
+            return new BoundTemplate(template, argumentIndexes, preparedTexts);
+        }
+
+        private void fill(final Appendable target, final Arguments arguments) throws IOException {
+            final int placeholderCount = this.argumentIndexes.length;
+            final int argumentCount = arguments.count();
+            for (int i = 0; i < placeholderCount; ++i) {
+                target.append(this.template.getLiteral(i));
+                final int argument = this.argumentIndexes[i];
+                if ((argument == NO_ARGUMENT) || (argument >= argumentCount)) {
+                    target.append(this.preparedTexts[i]);
+                } else {
+                    Quoter.quoteObject(target, arguments.get(argument), this.template.getPlaceholder(i).getQuoting());
+                }
+            }
+            target.append(this.template.getLiteral(placeholderCount));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.exasol.errorreporting;
+
+import java.util.List;
+
+/**
+ * Compiled message and mitigation templates of an error code from an {@link ErrorCatalog}.
+ */
+final class CatalogTemplates {
+    private final MessageTemplate message;
+    private final List<MessageTemplate> mitigations;
+
+    /**
+     * Create new catalog templates.
+     *
+     * @param message     message template or {@code null} if the error has no message
+     * @param mitigations mitigation templates
+     */
+    CatalogTemplates(final MessageTemplate message, final List<MessageTemplate> mitigations) {
+        this.message = message;
+        this.mitigations = mitigations;
+    }
+
+    /**
+     * Get the message template.
+     *
+     * @return message template or {@code null} if the error has no message
+     */
+    MessageTemplate getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Get the mitigation templates.
+     *
+     * @return unmodifiable list of mitigation templates
+     */
+    List<MessageTemplate> getMitigations() {
+        return this.mitigations;
+    }
+}
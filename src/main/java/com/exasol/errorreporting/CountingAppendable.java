@@ -0,0 +1,52 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+
+/**
+ * Appendable that counts the characters appended to a target.
+ */
+final class CountingAppendable implements Appendable {
+    private final Appendable target;
+    private long count = 0;
+
+    /**
+     * Create a new counting appendable.
+     *
+     * @param target target to pass the characters on to
+     */
+    CountingAppendable(final Appendable target) {
+        this.target = target;
+    }
+
+    /**
+     * Get the number of characters appended so far.
+     *
+     * @return number of characters
+     */
+    long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public Appendable append(final CharSequence text) throws IOException {
+        final CharSequence nonNullText = (text == null) ? "null" : text;
+        this.target.append(nonNullText);
+        this.count += nonNullText.length();
+        return this;
+    }
+
+    @Override
+    public Appendable append(final CharSequence text, final int start, final int end) throws IOException {
+        final CharSequence nonNullText = (text == null) ? "null" : text;
+        this.target.append(nonNullText, start, end);
+        this.count += end - start;
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char character) throws IOException {
+        this.target.append(character);
+        ++this.count;
+        return this;
+    }
+}
@@ -0,0 +1,302 @@
+package com.exasol.errorreporting;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Read-only catalog of error codes with their messages, mitigations and parameter descriptions.
+ * <p>
+ * The catalog is stored in the compact binary format written by {@link ErrorCatalogWriter}. Loading a catalog only
+ * checks its header, so it takes the same time for ten or ten thousand error codes. Lookups use the precomputed hash
+ * table in the file and decode only the strings of the entry that was found.
+ * </p>
+ * <p>
+ * Catalogs are immutable and can be shared between threads.
+ * </p>
+ * <p>
+ * Since loading does not read the whole file, a corrupt catalog is only detected when a lookup reaches the damaged
+ * part. Lookups check every offset they read and report such damage as {@link IllegalArgumentException}.
+ * </p>
+ */
+public final class ErrorCatalog {
+    /** Class path location of the catalogs that {@link #getDefault()} loads */
+    public static final String RESOURCE_NAME = "META-INF/exasol/error-catalog.bin";
+    private static final ErrorCatalog EMPTY = new ErrorCatalog(new ByteBuffer[0]);
+    private final ByteBuffer[] parts;
+
+    private ErrorCatalog(final ByteBuffer[] parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Load a catalog from a buffer.
+     * <p>
+     * The catalog uses the buffer directly. Do not modify its content afterwards.
+     * </p>
+     *
+     * @param buffer buffer with the catalog from position to limit
+     * @return catalog
+     * @throws IllegalArgumentException if the buffer does not contain a valid catalog
+     */
+    public static ErrorCatalog load(final ByteBuffer buffer) {
+        return new ErrorCatalog(new ByteBuffer[] { validate(buffer.slice()) });
+    }
+
+    /**
+     * Load a catalog from a file by mapping it into memory.
+     *
+     * @param file catalog file
+     * @return catalog
+     * @throws IOException              if reading the file fails
+     * @throws IllegalArgumentException if the file does not contain a valid catalog
+     */
+    public static ErrorCatalog load(final Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Load a catalog from a stream.
+     *
+     * @param stream stream with the catalog
+     * @return catalog
+     * @throws IOException              if reading the stream fails
+     * @throws IllegalArgumentException if the stream does not contain a valid catalog
+     */
+    public static ErrorCatalog load(final InputStream stream) throws IOException {
+        return load(ByteBuffer.wrap(stream.readAllBytes()));
+    }
+
+    /**
+     * Load all catalogs with the name {@value #RESOURCE_NAME} from a class loader into a single catalog.
+     * <p>
+     * If several catalogs contain the same error code, the one found first wins.
+     * </p>
+     *
+     * @param classLoader class loader to search
+     * @return combined catalog
+     * @throws IOException              if reading a catalog fails
+     * @throws IllegalArgumentException if one of the resources is not a valid catalog
+     */
+    public static ErrorCatalog load(final ClassLoader classLoader) throws IOException {
+        final List<ByteBuffer> parts = new ArrayList<>();
+        final Enumeration<URL> resources = classLoader.getResources(RESOURCE_NAME);
+        while (resources.hasMoreElements()) {
+            try (final InputStream stream = resources.nextElement().openStream()) {
+                parts.add(validate(ByteBuffer.wrap(stream.readAllBytes())));
+            }
+        }
+        return new ErrorCatalog(parts.toArray(new ByteBuffer[0]));
+    }
+
+    /**
+     * Get the catalog combined from all resources {@value #RESOURCE_NAME} on the class path.
+     * <p>
+     * The catalogs are loaded on the first call. If they cannot be read, the result is an empty catalog.
+     * </p>
+     *
+     * @return default catalog
+     */
+    public static ErrorCatalog getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Get an empty catalog.
+     *
+     * @return catalog without entries
+     */
+    public static ErrorCatalog empty() {
+        return EMPTY;
+    }
+
+    private static ByteBuffer validate(final ByteBuffer buffer) {
+        if ((buffer.remaining() < ErrorCatalogFormat.HEADER_SIZE)
+                || (buffer.getInt(0) != ErrorCatalogFormat.MAGIC)) {
+            throw new IllegalArgumentException("Invalid error catalog: unknown file format.");
+        }
+        final int version = buffer.getInt(4);
+        if (version != ErrorCatalogFormat.VERSION) {
+            throw new IllegalArgumentException("Invalid error catalog: unsupported version " + version + ".");
+        }
+        final int slotCount = buffer.getInt(12);
+        if ((slotCount <= 0) || (Integer.bitCount(slotCount) != 1) || (buffer.remaining()
+                < (ErrorCatalogFormat.HEADER_SIZE + (long) slotCount * ErrorCatalogFormat.SLOT_SIZE))) {
+            throw new IllegalArgumentException("Invalid error catalog: corrupt hash table.");
+        }
+        return buffer;
+    }
+
+    /**
+     * Get the number of error codes in this catalog.
+     *
+     * @return number of entries, counting error codes contained in several combined catalogs multiple times
+     */
+    public int size() {
+        int size = 0;
+        for (final ByteBuffer part : this.parts) {
+            size += part.getInt(8);
+        }
+        return size;
+    }
+
+    /**
+     * Check if the catalog contains an error code.
+     *
+     * @param errorCode error code
+     * @return {@code true} if the catalog has an entry for the error code
+     */
+    public boolean contains(final String errorCode) {
+        return lookup(errorCode) != null;
+    }
+
+    /**
+     * Look up the entry of an error code.
+     *
+     * @param errorCode error code
+     * @return entry or {@code null} if the catalog does not contain the error code
+     * @throws IllegalArgumentException if the lookup reaches a corrupt part of the catalog
+     */
+    public ErrorCatalogEntry lookup(final String errorCode) {
+        if (errorCode == null) {
+            return null;
+        }
+        final int hash = ErrorCatalogFormat.hash(errorCode);
+        for (final ByteBuffer part : this.parts) {
+            final int recordOffset = findRecord(part, errorCode, hash);
+            if (recordOffset != ErrorCatalogFormat.EMPTY_SLOT) {
+                return readEntry(part, errorCode, recordOffset);
+            }
+        }
+        return null;
+    }
+
+    private static int findRecord(final ByteBuffer part, final String errorCode, final int hash) {
+        final int slotCount = part.getInt(12);
+        final int mask = slotCount - 1;
+        int slot = hash & mask;
+        // A valid table always has an empty slot, but a corrupt one must not make the lookup loop forever.
+        for (int probe = 0; probe < slotCount; ++probe) {
+            final int slotPosition = ErrorCatalogFormat.HEADER_SIZE + slot * ErrorCatalogFormat.SLOT_SIZE;
+            final int recordOffset = part.getInt(slotPosition + 4);
+            if (recordOffset == ErrorCatalogFormat.EMPTY_SLOT) {
+                return ErrorCatalogFormat.EMPTY_SLOT;
+            }
+            if ((part.getInt(slotPosition) == hash)
+                    && stringEquals(part, readOffset(part, recordOffset), errorCode)) {
+                return recordOffset;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ErrorCatalogFormat.EMPTY_SLOT;
+    }
+
+    /**
+     * Read a 32 bit integer from a position that was itself read from the catalog.
+     *
+     * @param part     catalog part
+     * @param position position of the integer
+     * @return integer at the position
+     * @throws IllegalArgumentException if the position lies outside of the catalog
+     */
+    private static int readOffset(final ByteBuffer part, final int position) {
+        if ((position < 0) || (position > (part.limit() - 4))) {
+            throw new IllegalArgumentException(
+                    "Invalid error catalog: offset " + position + " is outside of the " + part.limit() + " bytes.");
+        }
+        return part.getInt(position);
+    }
+
+    private static int readStringLength(final ByteBuffer part, final int offset) {
+        final int length = readOffset(part, offset);
+        if ((length < 0) || (length > (part.limit() - offset - 4))) {
+            throw new IllegalArgumentException(
+                    "Invalid error catalog: string at offset " + offset + " exceeds the " + part.limit() + " bytes.");
+        }
+        return length;
+    }
+
+    private static int readCount(final ByteBuffer part, final int position, final int bytesPerItem) {
+        final int count = readOffset(part, position);
+        if ((count < 0) || (count > ((part.limit() - position - 4) / bytesPerItem))) {
+            throw new IllegalArgumentException(
+                    "Invalid error catalog: count " + count + " at offset " + position + " exceeds the catalog.");
+        }
+        return count;
+    }
+
+    private static boolean stringEquals(final ByteBuffer part, final int offset, final String value) {
+        final int length = readStringLength(part, offset);
+        if (length == value.length()) {
+            boolean ascii = true;
+            for (int i = 0; ascii && (i < length); ++i) {
+                final char character = value.charAt(i);
+                if (character >= 0x80) {
+                    ascii = false;
+                } else if (part.get(offset + 4 + i) != (byte) character) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        }
+        // A code with non-ASCII characters has more bytes than characters, so compare the decoded string.
+        return (length >= value.length()) && readString(part, offset).equals(value);
+    }
+
+    private static ErrorCatalogEntry readEntry(final ByteBuffer part, final String errorCode, final int recordOffset) {
+        int position = recordOffset + 4;
+        final int messageOffset = readOffset(part, position);
+        position += 4;
+        final String message = (messageOffset == ErrorCatalogFormat.NO_STRING) ? null
+                : readString(part, messageOffset);
+        final int mitigationCount = readCount(part, position, 4);
+        position += 4;
+        final String[] mitigations = new String[mitigationCount];
+        for (int i = 0; i < mitigationCount; ++i) {
+            mitigations[i] = readString(part, readOffset(part, position));
+            position += 4;
+        }
+        final int parameterCount = readCount(part, position, 8);
+        position += 4;
+        final Map<String, String> descriptions = new LinkedHashMap<>();
+        for (int i = 0; i < parameterCount; ++i) {
+            descriptions.put(readString(part, readOffset(part, position)),
+                    readString(part, readOffset(part, position + 4)));
+            position += 8;
+        }
+        return new ErrorCatalogEntry(errorCode, message, List.of(mitigations),
+                Collections.unmodifiableMap(descriptions));
+    }
+
+    private static String readString(final ByteBuffer part, final int offset) {
+        final byte[] bytes = new byte[readStringLength(part, offset)];
+        final ByteBuffer view = part.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class DefaultHolder {
+        private static final ErrorCatalog DEFAULT = loadDefault();
+
+        private static ErrorCatalog loadDefault() {
+            final ClassLoader contextLoader = Thread.currentThread().getContextClassLoader();
+            final ClassLoader loader = (contextLoader == null) ? ErrorCatalog.class.getClassLoader() : contextLoader;
+            try {
+                return (loader == null) ? EMPTY : load(loader);
+            } catch (final IOException | IllegalArgumentException exception) {
+                // Without a readable catalog, errors are still reported, just without catalog information.
+                return EMPTY;
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.exasol.errorreporting;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry of an {@link ErrorCatalog}: the message, mitigations and parameter descriptions of a single error code.
+ */
+public final class ErrorCatalogEntry {
+    private final String errorCode;
+    private final String message;
+    private final List<String> mitigations;
+    private final Map<String, String> parameterDescriptions;
+
+    ErrorCatalogEntry(final String errorCode, final String message, final List<String> mitigations,
+            final Map<String, String> parameterDescriptions) {
+        this.errorCode = errorCode;
+        this.message = message;
+        this.mitigations = mitigations;
+        this.parameterDescriptions = parameterDescriptions;
+    }
+
+    /**
+     * Get the error code.
+     *
+     * @return error code
+     */
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    /**
+     * Get the message template.
+     *
+     * @return message template or {@code null} if the error has no message
+     */
+    public String getMessage() {
+        return this.message;
+    }
+
+    /**
+     * Get the mitigation templates.
+     *
+     * @return unmodifiable list of mitigation templates
+     */
+    public List<String> getMitigations() {
+        return this.mitigations;
+    }
+
+    /**
+     * Get the descriptions of the parameters.
+     *
+     * @return unmodifiable map from parameter name to description
+     */
+    public Map<String, String> getParameterDescriptions() {
+        return this.parameterDescriptions;
+    }
+
+    /**
+     * Get the description of a parameter.
+     *
+     * @param name parameter name
+     * @return description or {@code null} if the catalog has none for this parameter
+     */
+    public String getParameterDescription(final String name) {
+        return this.parameterDescriptions.get(name);
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorCatalogEntry [errorCode=" + this.errorCode + ", message=" + this.message + ", mitigations="
+                + this.mitigations + ", parameterDescriptions=" + this.parameterDescriptions + "]";
+    }
+}
@@ -0,0 +1,53 @@
+package com.exasol.errorreporting;
+
+/**
+ * Constants of the binary error catalog format shared by {@link ErrorCatalogWriter} and {@link ErrorCatalog}.
+ * <p>
+ * All numbers are big-endian 32 bit integers. A catalog file has the following layout:
+ * </p>
+ * <ol>
+ * <li>Header: magic number, version, number of entries, number of hash slots (a power of two)</li>
+ * <li>Hash table: for each slot the spread hash code of the error code and the offset of its entry record, or two
+ * zeros for an empty slot</li>
+ * <li>Entry records: offset of the error code, offset of the message or -1, number of mitigations followed by their
+ * offsets, number of parameter descriptions followed by pairs of name and description offsets</li>
+ * <li>String pool: each string as its length in bytes followed by its UTF-8 bytes; equal strings are stored once</li>
+ * </ol>
+ * <p>
+ * All offsets are absolute positions in the file. The hash table uses open addressing with linear probing, so a lookup
+ * reads a single slot in the common case and never decodes more than the matching entry.
+ * </p>
+ */
+final class ErrorCatalogFormat {
+    static final int MAGIC = 0x45524331; // "ERC1"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int SLOT_SIZE = 8;
+    static final int NO_STRING = -1;
+    static final int EMPTY_SLOT = 0;
+
+    private ErrorCatalogFormat() {
+        // prevent instantiation
+    }
+
+    /**
+     * Get the hash code of an error code as stored in the hash table.
+     *
+     * @param errorCode error code
+     * @return hash code
+     */
+    static int hash(final String errorCode) {
+        final int hash = errorCode.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Get the number of hash slots for a number of entries.
+     *
+     * @param entryCount number of entries
+     * @return number of slots, a power of two that keeps the load factor at or below one half
+     */
+    static int getSlotCount(final int entryCount) {
+        return Math.max(2, Integer.highestOneBit(Math.max(1, entryCount * 2 - 1)) << 1);
+    }
+}
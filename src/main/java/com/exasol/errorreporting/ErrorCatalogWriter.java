@@ -0,0 +1,213 @@
+package com.exasol.errorreporting;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Writer for binary error catalogs that {@link ErrorCatalog} can load.
+ * <p>
+ * Build tools, like the template pre-parsing annotation processor, use this class to generate the catalog of a
+ * project. The writer precomputes the hash table, so that loading the catalog needs no parsing at all.
+ * </p>
+ */
+public final class ErrorCatalogWriter {
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Create a writer for an empty catalog.
+     */
+    public ErrorCatalogWriter() {
+        // entries are added with add()
+    }
+
+    /**
+     * Add an error code to the catalog.
+     *
+     * @param errorCode             error code
+     * @param message               message template or {@code null} if the error has no message
+     * @param mitigations           mitigation templates
+     * @param parameterDescriptions descriptions of the parameters by parameter name
+     * @return self for fluent programming
+     * @throws IllegalArgumentException if the error code was added before
+     */
+    public ErrorCatalogWriter add(final String errorCode, final String message, final List<String> mitigations,
+            final Map<String, String> parameterDescriptions) {
+        if (this.entries.containsKey(errorCode)) {
+            throw new IllegalArgumentException("Error code '" + errorCode + "' is already in the catalog.");
+        }
+        this.entries.put(errorCode, new Entry(errorCode, message, List.copyOf(mitigations),
+                new LinkedHashMap<>(parameterDescriptions)));
+        return this;
+    }
+
+    /**
+     * Write the catalog.
+     *
+     * @param stream stream to write to
+     * @throws IOException if writing fails
+     */
+    public void write(final OutputStream stream) throws IOException {
+        stream.write(toByteArray());
+    }
+
+    /**
+     * Get the catalog as bytes.
+     *
+     * @return catalog
+     */
+    public byte[] toByteArray() {
+        final StringPool pool = new StringPool();
+        final int slotCount = ErrorCatalogFormat.getSlotCount(this.entries.size());
+        final int recordsOffset = ErrorCatalogFormat.HEADER_SIZE + slotCount * ErrorCatalogFormat.SLOT_SIZE;
+        final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        final DataOutputStream records = new DataOutputStream(recordBytes);
+        final int[] slotHashes = new int[slotCount];
+        final int[] slotOffsets = new int[slotCount];
+        try {
+            final List<int[]> stringRefs = new ArrayList<>();
+            for (final Entry entry : this.entries.values()) {
+                final int recordOffset = recordsOffset + records.size();
+                insertIntoTable(slotHashes, slotOffsets, ErrorCatalogFormat.hash(entry.errorCode), recordOffset);
+                stringRefs.add(writeRecord(records, pool, entry));
+            }
+            records.flush();
+            final int poolOffset = recordsOffset + records.size();
+            final byte[] recordArray = recordBytes.toByteArray();
+            resolveStringReferences(recordArray, stringRefs, poolOffset, pool);
+            final ByteArrayOutputStream result = new ByteArrayOutputStream(poolOffset + pool.size());
+            final DataOutputStream output = new DataOutputStream(result);
+            output.writeInt(ErrorCatalogFormat.MAGIC);
+            output.writeInt(ErrorCatalogFormat.VERSION);
+            output.writeInt(this.entries.size());
+            output.writeInt(slotCount);
+            for (int i = 0; i < slotCount; ++i) {
+                output.writeInt(slotHashes[i]);
+                output.writeInt(slotOffsets[i]);
+            }
+            output.write(recordArray);
+            pool.writeTo(output);
+            output.flush();
+            return result.toByteArray();
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Writing to a byte array does not throw I/O exceptions.", exception);
+        }
+    }
+
+    private static void insertIntoTable(final int[] hashes, final int[] offsets, final int hash, final int offset) {
+        final int mask = offsets.length - 1;
+        int slot = hash & mask;
+        while (offsets[slot] != ErrorCatalogFormat.EMPTY_SLOT) {
+            slot = (slot + 1) & mask;
+        }
+        hashes[slot] = hash;
+        offsets[slot] = offset;
+    }
+
+    /**
+     * Write a record with string indexes relative to the pool and remember where they are.
+     *
+     * @return positions of the string references in the record area
+     */
+    private static int[] writeRecord(final DataOutputStream records, final StringPool pool, final Entry entry)
+            throws IOException {
+        final List<Integer> positions = new ArrayList<>();
+        positions.add(records.size());
+        records.writeInt(pool.add(entry.errorCode));
+        if (entry.message == null) {
+            records.writeInt(ErrorCatalogFormat.NO_STRING);
+        } else {
+            positions.add(records.size());
+            records.writeInt(pool.add(entry.message));
+        }
+        records.writeInt(entry.mitigations.size());
+        for (final String mitigation : entry.mitigations) {
+            positions.add(records.size());
+            records.writeInt(pool.add(mitigation));
+        }
+        records.writeInt(entry.parameterDescriptions.size());
+        for (final Map.Entry<String, String> description : entry.parameterDescriptions.entrySet()) {
+            positions.add(records.size());
+            records.writeInt(pool.add(description.getKey()));
+            positions.add(records.size());
+            records.writeInt(pool.add(description.getValue()));
+        }
+        return positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static void resolveStringReferences(final byte[] records, final List<int[]> stringRefs,
+            final int poolOffset, final StringPool pool) {
+        for (final int[] positions : stringRefs) {
+            for (final int position : positions) {
+                final int index = readInt(records, position);
+                writeInt(records, position, poolOffset + pool.getRelativeOffset(index));
+            }
+        }
+    }
+
+    private static int readInt(final byte[] bytes, final int position) {
+        return ((bytes[position] & 0xFF) << 24) | ((bytes[position + 1] & 0xFF) << 16)
+                | ((bytes[position + 2] & 0xFF) << 8) | (bytes[position + 3] & 0xFF);
+    }
+
+    private static void writeInt(final byte[] bytes, final int position, final int value) {
+        bytes[position] = (byte) (value >>> 24);
+        bytes[position + 1] = (byte) (value >>> 16);
+        bytes[position + 2] = (byte) (value >>> 8);
+        bytes[position + 3] = (byte) value;
+    }
+
+    private static final class Entry {
+        private final String errorCode;
+        private final String message;
+        private final List<String> mitigations;
+        private final Map<String, String> parameterDescriptions;
+
+        private Entry(final String errorCode, final String message, final List<String> mitigations,
+                final Map<String, String> parameterDescriptions) {
+            this.errorCode = errorCode;
+            this.message = message;
+            this.mitigations = mitigations;
+            this.parameterDescriptions = parameterDescriptions;
+        }
+    }
+
+    /**
+     * Pool of distinct strings in the order they were added.
+     */
+    private static final class StringPool {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private final List<Integer> relativeOffsets = new ArrayList<>();
+        private int size = 0;
+
+        private int add(final String value) {
+            final Integer existing = this.indexes.get(value);
+            if (existing != null) {
+                return existing;
+            }
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            final int index = this.encoded.size();
+            this.indexes.put(value, index);
+            this.encoded.add(bytes);
+            this.relativeOffsets.add(this.size);
+            this.size += 4 + bytes.length;
+            return index;
+        }
+
+        private int getRelativeOffset(final int index) {
+            return this.relativeOffsets.get(index);
+        }
+
+        private int size() {
+            return this.size;
+        }
+
+        private void writeTo(final DataOutputStream output) throws IOException {
+            for (final byte[] bytes : this.encoded) {
+                output.writeInt(bytes.length);
+                output.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.exasol.errorreporting;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parsed Exasol error code like {@code E-ABC-123} or {@code W-ABC-SUB-4}.
+ * <p>
+ * An error code consists of a severity letter, a module tag made of one or more dash-separated parts of upper case
+ * letters and digits that each start with a letter, and a number.
+ * </p>
+ * <p>
+ * Error codes are interned: each distinct code is parsed once and then represented by the same canonical instance.
+ * Each interned code has a small sequential {@link #getId() id}, so that metrics and aggregations can key on an
+ * {@code int} instead of hashing strings. The number of interned codes is bounded to protect against codes that are
+ * built dynamically. Codes beyond the bound are still parsed and validated, but not interned.
+ * </p>
+ */
+public final class ErrorCode {
+    /** Id of error codes that were not interned because the cache was full */
+    public static final int NOT_INTERNED = -1;
+    static final int MAX_INTERNED_CODES = 65_536;
+    private static final Map<String, ErrorCode> INTERNED = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    private final String code;
+    private final ErrorSeverity severity;
+    private final String tag;
+    private final int number;
+    private final int id;
+
+    private ErrorCode(final String code, final ErrorSeverity severity, final String tag, final int number,
+            final int id) {
+        this.code = code;
+        this.severity = severity;
+        this.tag = tag;
+        this.number = number;
+        this.id = id;
+    }
+
+    /**
+     * Parse an error code.
+     *
+     * @param code error code
+     * @return canonical instance of the error code
+     * @throws IllegalArgumentException if the code does not have the format of an Exasol error code
+     */
+    public static ErrorCode parse(final String code) {
+        final ErrorCode errorCode = tryParse(code);
+        if (errorCode == null) {
+            throw new IllegalArgumentException("Invalid error code '" + code
+                    + "'. Error codes have the format <severity>-<tag>-<number>, e.g. 'E-ABC-123'.");
+        }
+        return errorCode;
+    }
+
+    /**
+     * Parse an error code if it is valid.
+     *
+     * @param code error code
+     * @return canonical instance of the error code or {@code null} if the code is invalid
+     */
+    public static ErrorCode tryParse(final String code) {
+        if (code == null) {
+            return null;
+        }
+        final ErrorCode interned = INTERNED.get(code);
+        if (interned != null) {
+            return interned;
+        }
+        if (!isWellFormed(code)) {
+            return null;
+        } else if (INTERNED.size() >= MAX_INTERNED_CODES) {
+            return create(code, NOT_INTERNED);
+        } else {
+            return INTERNED.computeIfAbsent(code, key -> create(key, NEXT_ID.getAndIncrement()));
+        }
+    }
+
+    /**
+     * Check if a string has the format of an Exasol error code.
+     *
+     * @param code string to check
+     * @return {@code true} if the code is valid
+     */
+    public static boolean isValid(final String code) {
+        return (code != null) && (INTERNED.containsKey(code) || isWellFormed(code));
+    }
+
+    /**
+     * Get the canonical instance of an error code string.
+     * <p>
+     * Invalid codes are returned unchanged, so that building an error message never fails because of its code.
+     * </p>
+     * <p>
+     * This costs a lookup and, for codes that are not interned, a parse. So it is only used where an error code is kept
+     * for longer, like in an {@link ErrorMessage} or a prototype, and not for every builder.
+     * </p>
+     *
+     * @param code error code
+     * @return canonical string instance for valid codes, otherwise the code itself
+     */
+    static String canonicalize(final String code) {
+        final ErrorCode errorCode = tryParse(code);
+        return (errorCode == null) ? code : errorCode.code;
+    }
+
+    private static boolean isWellFormed(final String code) {
+        final int length = code.length();
+        if ((length < 5) || (ErrorSeverity.fromPrefix(code.charAt(0)) == null) || (code.charAt(1) != '-')) {
+            return false;
+        }
+        final int lastDash = code.lastIndexOf('-');
+        if ((lastDash <= 2) || (lastDash == (length - 1)) || ((length - lastDash - 1) > 9)) {
+            return false;
+        }
+        for (int i = lastDash + 1; i < length; ++i) {
+            if (!isDigit(code.charAt(i))) {
+                return false;
+            }
+        }
+        boolean partStart = true;
+        for (int i = 2; i < lastDash; ++i) {
+            final char character = code.charAt(i);
+            if (character == '-') {
+                if (partStart) {
+                    return false;
+                }
+                partStart = true;
+            } else if (isUpperCaseLetter(character) || (!partStart && isDigit(character))) {
+                partStart = false;
+            } else {
+                return false;
+            }
+        }
+        return !partStart;
+    }
+
+    private static boolean isDigit(final char character) {
+        return (character >= '0') && (character <= '9');
+    }
+
+    private static boolean isUpperCaseLetter(final char character) {
+        return (character >= 'A') && (character <= 'Z');
+    }
+
+    private static ErrorCode create(final String code, final int id) {
+        final int lastDash = code.lastIndexOf('-');
+        return new ErrorCode(code, ErrorSeverity.fromPrefix(code.charAt(0)), code.substring(2, lastDash),
+                Integer.parseInt(code.substring(lastDash + 1)), id);
+    }
+
+    /**
+     * Get the severity.
+     *
+     * @return severity
+     */
+    public ErrorSeverity getSeverity() {
+        return this.severity;
+    }
+
+    /**
+     * Get the module tag, e.g. {@code ABC} for {@code E-ABC-123} or {@code ABC-SUB} for {@code E-ABC-SUB-4}.
+     *
+     * @return module tag
+     */
+    public String getTag() {
+        return this.tag;
+    }
+
+    /**
+     * Get the number.
+     *
+     * @return number
+     */
+    public int getNumber() {
+        return this.number;
+    }
+
+    /**
+     * Get the sequential id of the error code.
+     * <p>
+     * Ids are assigned in the order the codes are first used, starting at zero. They are only stable within the
+     * running JVM.
+     * </p>
+     *
+     * @return id or {@value #NOT_INTERNED} if the code was not interned
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Check if this code was interned.
+     *
+     * @return {@code true} if this is the canonical instance of the code
+     */
+    public boolean isInterned() {
+        return this.id != NOT_INTERNED;
+    }
+
+    /**
+     * Get the error code as string.
+     *
+     * @return error code
+     */
+    @Override
+    public String toString() {
+        return this.code;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return (this == other) || ((other instanceof ErrorCode) && this.code.equals(((ErrorCode) other).code));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.code.hashCode();
+    }
+}
@@ -0,0 +1,205 @@
+package com.exasol.errorreporting;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional counters that record how often each error code is used.
+ * <p>
+ * Metrics are disabled by default. Start the JVM with {@code -Dcom.exasol.errorreporting.metrics=true} to enable them.
+ * The setting is read once when this class is loaded, so when metrics are disabled the only cost on the hot path is a
+ * check of a constant that the JIT compiler removes.
+ * </p>
+ * <p>
+ * When enabled, the library counts for each error code how many builders were created via {@link ExaError} and how
+ * often a message was rendered. The counts are available via {@link #snapshot()} and via JMX under the name
+ * {@value #OBJECT_NAME}. JMX needs the module {@code java.management}, which is an optional dependency of this
+ * library. Without it, the counts are only available via {@link #snapshot()}.
+ * </p>
+ * <p>
+ * Valid error codes are counted in a table indexed by their {@link ErrorCode#getId() id}, so that recording a count
+ * for a prototype or batch renderer, which resolve their code once, costs no string hashing. Codes that are not
+ * interned, like invalid codes, are counted by name. Error codes can be built dynamically, so the number of codes
+ * counted by name is limited. Once the limit is reached, further codes are counted together under the additional key
+ * {@value #OTHER_ERROR_CODES}.
+ * </p>
+ */
+public final class ErrorCodeMetrics {
+    /** Name of the system property that enables the metrics */
+    public static final String ENABLED_PROPERTY = "com.exasol.errorreporting.metrics";
+    /** JMX object name under which the metrics are registered */
+    public static final String OBJECT_NAME = "com.exasol.errorreporting:type=ErrorCodeMetrics";
+    /** Key under which error codes are counted once the maximum number of error codes is reached */
+    public static final String OTHER_ERROR_CODES = "<other>";
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    static final int MAX_ERROR_CODES = ErrorCode.MAX_INTERNED_CODES;
+    private static final Map<String, Counters> COUNTERS_BY_NAME = new ConcurrentHashMap<>();
+
+    static {
+        if (ENABLED) {
+            registerMBean();
+        }
+    }
+
+    private ErrorCodeMetrics() {
+        // prevent instantiation
+    }
+
+    private static void registerMBean() {
+        try {
+            ErrorCodeMetricsRegistration.register();
+        } catch (final LinkageError error) {
+            // The optional module java.management is not available. Counting still works without JMX.
+        }
+    }
+
+    /**
+     * Check if metrics are enabled.
+     *
+     * @return {@code true} if the error code usage is counted
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the current counts of all error codes that were used so far.
+     * <p>
+     * Counters are updated concurrently, so the snapshot is not an atomic view of all error codes. Each individual
+     * count is exact at some point during the call.
+     * </p>
+     *
+     * @return unmodifiable map from error code to its counts, sorted by error code
+     */
+    public static Map<String, ErrorCodeStatistics> snapshot() {
+        final Map<String, ErrorCodeStatistics> result = new TreeMap<>();
+        final AtomicReferenceArray<Counters> countersById = CountersById.COUNTERS;
+        for (int id = 0; id < countersById.length(); ++id) {
+            final Counters counters = countersById.get(id);
+            if (counters != null) {
+                addStatistics(result, counters.errorCode, counters);
+            }
+        }
+        for (final Map.Entry<String, Counters> entry : COUNTERS_BY_NAME.entrySet()) {
+            addStatistics(result, entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static void addStatistics(final Map<String, ErrorCodeStatistics> result, final String errorCode,
+            final Counters counters) {
+        result.put(errorCode,
+                new ErrorCodeStatistics(errorCode, counters.constructions.sum(), counters.renders.sum()));
+    }
+
+    /**
+     * Forget all counts.
+     */
+    public static void reset() {
+        final AtomicReferenceArray<Counters> countersById = CountersById.COUNTERS;
+        for (int id = 0; id < countersById.length(); ++id) {
+            countersById.set(id, null);
+        }
+        COUNTERS_BY_NAME.clear();
+    }
+
+    /**
+     * Count the creation of a message builder.
+     * <p>
+     * Callers check {@link #ENABLED} before calling this method.
+     * </p>
+     *
+     * @param errorCode error code of the builder
+     */
+    static void recordConstruction(final String errorCode) {
+        getCounters(errorCode).constructions.increment();
+    }
+
+    /**
+     * Count the rendering of a message.
+     * <p>
+     * Callers check {@link #ENABLED} before calling this method.
+     * </p>
+     *
+     * @param errorCode error code of the rendered message
+     */
+    static void recordRender(final String errorCode) {
+        getCounters(errorCode).renders.increment();
+    }
+
+    /**
+     * Count the rendering of several messages with the same error code.
+     * <p>
+     * Callers check {@link #ENABLED} before calling this method.
+     * </p>
+     *
+     * @param errorCode error code of the rendered messages
+     * @param count     number of rendered messages
+     */
+    static void recordRenders(final String errorCode, final long count) {
+        getCounters(errorCode).renders.add(count);
+    }
+
+    /**
+     * Count the rendering of several messages with an error code that was parsed before.
+     * <p>
+     * Callers check {@link #ENABLED} before calling this method.
+     * </p>
+     *
+     * @param errorCode parsed error code of the rendered messages
+     * @param count     number of rendered messages
+     */
+    static void recordRenders(final ErrorCode errorCode, final long count) {
+        getCounters(errorCode).renders.add(count);
+    }
+
+    private static Counters getCounters(final String errorCode) {
+        final ErrorCode parsed = ErrorCode.tryParse(errorCode);
+        return (parsed == null) ? getCountersByName(String.valueOf(errorCode)) : getCounters(parsed);
+    }
+
+    private static Counters getCounters(final ErrorCode errorCode) {
+        if (!errorCode.isInterned()) {
+            return getCountersByName(errorCode.toString());
+        }
+        final AtomicReferenceArray<Counters> countersById = CountersById.COUNTERS;
+        final int id = errorCode.getId();
+        final Counters counters = countersById.get(id);
+        if (counters != null) {
+            return counters;
+        }
+        final Counters created = new Counters(errorCode.toString());
+        return countersById.compareAndSet(id, null, created) ? created : countersById.get(id);
+    }
+
+    private static Counters getCountersByName(final String errorCode) {
+        final Counters counters = COUNTERS_BY_NAME.get(errorCode);
+        if (counters != null) {
+            return counters;
+        } else if (COUNTERS_BY_NAME.size() >= MAX_ERROR_CODES) {
+            return COUNTERS_BY_NAME.computeIfAbsent(OTHER_ERROR_CODES, Counters::new);
+        } else {
+            return COUNTERS_BY_NAME.computeIfAbsent(errorCode, Counters::new);
+        }
+    }
+
+    /**
+     * Holder for the table of counters by error code id, so that it is only allocated when it is used.
+     */
+    private static final class CountersById {
+        private static final AtomicReferenceArray<Counters> COUNTERS = new AtomicReferenceArray<>(
+                ErrorCode.MAX_INTERNED_CODES);
+    }
+
+    private static final class Counters {
+        private final String errorCode;
+        private final LongAdder constructions = new LongAdder();
+        private final LongAdder renders = new LongAdder();
+
+        private Counters(final String errorCode) {
+            this.errorCode = errorCode;
+        }
+    }
+}
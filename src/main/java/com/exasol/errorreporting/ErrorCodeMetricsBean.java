@@ -0,0 +1,43 @@
+package com.exasol.errorreporting;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Implementation of the {@link ErrorCodeMetricsMXBean} that reads from {@link ErrorCodeMetrics}.
+ */
+final class ErrorCodeMetricsBean implements ErrorCodeMetricsMXBean {
+    @Override
+    public Map<String, Long> getConstructionCounts() {
+        return collect(ErrorCodeStatistics::getConstructions);
+    }
+
+    @Override
+    public Map<String, Long> getRenderCounts() {
+        return collect(ErrorCodeStatistics::getRenders);
+    }
+
+    @Override
+    public long getTotalConstructions() {
+        return ErrorCodeMetrics.snapshot().values().stream().mapToLong(ErrorCodeStatistics::getConstructions).sum();
+    }
+
+    @Override
+    public long getTotalRenders() {
+        return ErrorCodeMetrics.snapshot().values().stream().mapToLong(ErrorCodeStatistics::getRenders).sum();
+    }
+
+    @Override
+    public void reset() {
+        ErrorCodeMetrics.reset();
+    }
+
+    private static Map<String, Long> collect(final ToLongFunction<ErrorCodeStatistics> count) {
+        final Map<String, Long> result = new TreeMap<>();
+        for (final ErrorCodeStatistics statistics : ErrorCodeMetrics.snapshot().values()) {
+            result.put(statistics.getErrorCode(), count.applyAsLong(statistics));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.exasol.errorreporting;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link ErrorCodeMetrics}.
+ */
+public interface ErrorCodeMetricsMXBean {
+    /**
+     * Get the number of message builders created per error code.
+     *
+     * @return map from error code to number of builders
+     */
+    Map<String, Long> getConstructionCounts();
+
+    /**
+     * Get the number of rendered messages per error code.
+     *
+     * @return map from error code to number of renders
+     */
+    Map<String, Long> getRenderCounts();
+
+    /**
+     * Get the number of message builders created for all error codes.
+     *
+     * @return total number of builders
+     */
+    long getTotalConstructions();
+
+    /**
+     * Get the number of rendered messages for all error codes.
+     *
+     * @return total number of renders
+     */
+    long getTotalRenders();
+
+    /**
+     * Forget all counts.
+     */
+    void reset();
+}
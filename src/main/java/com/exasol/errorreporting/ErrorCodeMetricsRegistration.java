@@ -0,0 +1,32 @@
+package com.exasol.errorreporting;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registration of the {@link ErrorCodeMetricsMXBean} with the platform MBean server.
+ * <p>
+ * This is the only class of the library that uses the {@code java.management} module. It is loaded only when metrics
+ * are enabled, so that the module is an optional dependency.
+ * </p>
+ */
+final class ErrorCodeMetricsRegistration {
+    private ErrorCodeMetricsRegistration() {
+        // prevent instantiation
+    }
+
+    /**
+     * Register the metrics under {@link ErrorCodeMetrics#OBJECT_NAME}.
+     */
+    static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new ErrorCodeMetricsBean(),
+                    new ObjectName(ErrorCodeMetrics.OBJECT_NAME));
+        } catch (final JMException exception) {
+            // Another copy of this library, e.g. in a different class loader, already registered its metrics. Counting
+            // still works, the counts are just not visible via JMX.
+        }
+    }
+}
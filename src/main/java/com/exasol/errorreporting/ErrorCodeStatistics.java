@@ -0,0 +1,69 @@
+package com.exasol.errorreporting;
+
+import java.util.Objects;
+
+/**
+ * Usage counts of a single error code taken from {@link ErrorCodeMetrics#snapshot()}.
+ */
+public final class ErrorCodeStatistics {
+    private final String errorCode;
+    private final long constructions;
+    private final long renders;
+
+    ErrorCodeStatistics(final String errorCode, final long constructions, final long renders) {
+        this.errorCode = errorCode;
+        this.constructions = constructions;
+        this.renders = renders;
+    }
+
+    /**
+     * Get the error code.
+     *
+     * @return error code
+     */
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    /**
+     * Get the number of message builders created for this error code.
+     *
+     * @return number of builders
+     */
+    public long getConstructions() {
+        return this.constructions;
+    }
+
+    /**
+     * Get the number of times a message with this error code was rendered.
+     *
+     * @return number of renders
+     */
+    public long getRenders() {
+        return this.renders;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ErrorCodeStatistics)) {
+            return false;
+        }
+        final ErrorCodeStatistics that = (ErrorCodeStatistics) other;
+        return (this.constructions == that.constructions) && (this.renders == that.renders)
+                && Objects.equals(this.errorCode, that.errorCode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.errorCode, this.constructions, this.renders);
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorCodeStatistics [errorCode=" + this.errorCode + ", constructions=" + this.constructions
+                + ", renders=" + this.renders + "]";
+    }
+}
@@ -0,0 +1,179 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, structured error message.
+ * <p>
+ * An error message keeps its error code, message template, parameters and mitigations as separate fields, so that
+ * consumers like log shippers can pick the parts they need without parsing the rendered text. The text itself is
+ * rendered from these fields on first access and then kept.
+ * </p>
+ * <p>
+ * Create instances with {@link ErrorMessageBuilder#build()}. Instances are safe to share between threads as long as
+ * the parameter values are not modified.
+ * </p>
+ */
+public final class ErrorMessage {
+    private final String errorCode;
+    private final MessageTemplate message;
+    private final List<MessageTemplate> mitigations;
+    private final ParameterDefinitionList parameters;
+    private String renderedMessage;
+
+    ErrorMessage(final String errorCode, final MessageTemplate message, final List<MessageTemplate> mitigations,
+            final ParameterDefinitionList parameters) {
+        this.errorCode = errorCode;
+        this.message = message;
+        this.mitigations = mitigations;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Get the error code.
+     *
+     * @return Exasol error code
+     */
+    public String getErrorCode() {
+        return this.errorCode;
+    }
+
+    /**
+     * Get the message template, i.e. the message text with its placeholders not yet filled.
+     *
+     * @return raw message template or an empty string if the error has no message
+     */
+    public String getMessageTemplate() {
+        return (this.message == null) ? "" : this.message.getText();
+    }
+
+    /**
+     * Get the parameters in the order in which they were defined.
+     * <p>
+     * If a parameter name was defined more than once, the list contains all definitions. When rendering, the first one
+     * wins.
+     * </p>
+     *
+     * @return parameter definitions
+     */
+    public List<ParameterDefinition> getParameters() {
+        return this.parameters.asList();
+    }
+
+    /**
+     * Get the mitigation templates, i.e. the mitigation texts with their placeholders not yet filled.
+     *
+     * @return raw mitigation templates
+     */
+    public List<String> getMitigations() {
+        final List<String> texts = new ArrayList<>(this.mitigations.size());
+        for (final MessageTemplate mitigation : this.mitigations) {
+            texts.add(mitigation.getText());
+        }
+        return List.copyOf(texts);
+    }
+
+    MessageTemplate getMessage() {
+        return this.message;
+    }
+
+    List<MessageTemplate> getMitigationTemplates() {
+        return this.mitigations;
+    }
+
+    ParameterDefinitionList getParameterDefinitionList() {
+        return this.parameters;
+    }
+
+    /**
+     * Check if the message text was rendered already.
+     *
+     * @return {@code true} if the text was accessed before
+     */
+    public boolean isRendered() {
+        return this.renderedMessage != null;
+    }
+
+    /**
+     * Render the error message into an {@link Appendable}.
+     *
+     * @param target target to append the error message to
+     * @throws IOException if appending to the target fails
+     */
+    public void renderTo(final Appendable target) throws IOException {
+        final String rendered = this.renderedMessage;
+        if (rendered == null) {
+            MessageRenderer.render(target, this.errorCode, this.message, this.mitigations, this.parameters);
+        } else {
+            target.append(rendered);
+        }
+    }
+
+    /**
+     * Render the error message into a {@link StringBuilder}.
+     *
+     * @param target builder to append the error message to
+     */
+    public void renderTo(final StringBuilder target) {
+        final String rendered = this.renderedMessage;
+        if (rendered == null) {
+            MessageRenderer.render(target, this.errorCode, this.message, this.mitigations, this.parameters);
+        } else {
+            target.append(rendered);
+        }
+    }
+
+    /**
+     * Render the error message as UTF-8 into a {@link ByteBuffer}.
+     * <p>
+     * The message is written at the current position of the buffer. If it does not fit into the remaining space, the
+     * position of the buffer stays unchanged and the return value tells how much space the message needs. The bytes
+     * between the position and the limit may have been overwritten in that case.
+     * </p>
+     *
+     * @param target buffer to write to
+     * @return number of bytes the complete message needs; if this is larger than the remaining space before the call,
+     *         the position was not advanced
+     */
+    public int renderUtf8(final ByteBuffer target) {
+        return renderUtf8(target, OverflowHandling.REJECT);
+    }
+
+    /**
+     * Render the error message as UTF-8 into a {@link ByteBuffer}.
+     * <p>
+     * Literal parts of the message and mitigations are encoded only once per template. Only the error code and the
+     * parameter values are encoded on each call.
+     * </p>
+     *
+     * @param target           buffer to write to
+     * @param overflowHandling what to do if the message does not fit into the remaining space of the buffer
+     * @return number of bytes the complete message needs
+     */
+    public int renderUtf8(final ByteBuffer target, final OverflowHandling overflowHandling) {
+        return MessageRenderer.renderUtf8(target, overflowHandling, this.errorCode, this.message, this.mitigations,
+                this.parameters);
+    }
+
+    /**
+     * Get the rendered error message.
+     * <p>
+     * The text is rendered on the first call and reused afterwards.
+     * </p>
+     *
+     * @return rendered error message
+     */
+    @Override
+    public String toString() {
+        // Racy single-check: concurrent first calls might each render, but they all produce the same immutable String.
+        String result = this.renderedMessage;
+        if (result == null) {
+            result = MessageRenderer.render(this.errorCode, this.message, this.mitigations, this.parameters);
+            this.renderedMessage = result;
+        }
+        return result;
+    }
+}
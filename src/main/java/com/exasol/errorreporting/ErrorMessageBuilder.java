@@ -1,15 +1,31 @@
 package com.exasol.errorreporting;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
  * Builder for Exasol error messages.
  */
 public class ErrorMessageBuilder {
-    private final String errorCode;
-    private final StringBuilder messageBuilder = new StringBuilder();
-    private final List<String> mitigations = new ArrayList<>();
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 4096;
+    private static final int MAX_RETAINED_ENTRIES = 64;
+    private String errorCode;
+    private MessageTemplate message;
+    private final List<MessageTemplate> mitigations = new ArrayList<>();
     private final ParameterDefinitionList parameterDefinitions = new ParameterDefinitionList();
+    /**
+     * Arguments of the message that are not yet mapped to parameter definitions.
+     * <p>
+     * If the message is defined before any parameter, its arguments are kept as they are and bound to the placeholders
+     * by position during rendering. They take precedence over all parameter definitions, exactly like the parameters
+     * they would be mapped to. They are mapped only when the parameters are needed by name.
+     * </p>
+     */
+    private Object[] messageArguments;
+    private final ErrorMessageBuilderPool pool;
+    private StringBuilder renderBuffer;
 
     /**
      * Create a new instance of {@link ErrorMessageBuilder}.
@@ -17,7 +33,59 @@ public class ErrorMessageBuilder {
      * @param errorCode Exasol error code
      */
     ErrorMessageBuilder(final String errorCode) {
+        this(errorCode, null);
+    }
+
+    /**
+     * Create a new instance of {@link ErrorMessageBuilder} that belongs to a pool.
+     *
+     * @param errorCode Exasol error code
+     * @param pool      pool the builder is returned to by {@link #render()} or {@code null} for an unpooled builder
+     */
+    ErrorMessageBuilder(final String errorCode, final ErrorMessageBuilderPool pool) {
         this.errorCode = errorCode;
+        this.pool = pool;
+    }
+
+    /**
+     * Clear the state of a pooled builder, so that it can be used for a new error message.
+     *
+     * @param newErrorCode error code for the next message
+     */
+    void reset(final String newErrorCode) {
+        this.errorCode = newErrorCode;
+        this.message = null;
+        this.messageArguments = null;
+        this.mitigations.clear();
+        this.parameterDefinitions.clear();
+    }
+
+    String getErrorCode() {
+        return this.errorCode;
+    }
+
+    MessageTemplate getMessage() {
+        return this.message;
+    }
+
+    List<MessageTemplate> getMitigations() {
+        return this.mitigations;
+    }
+
+    ParameterDefinitionList getParameterDefinitions() {
+        mapMessageArguments();
+        return this.parameterDefinitions;
+    }
+
+    /**
+     * Check if the buffers of this builder are small enough to be kept in a pool.
+     *
+     * @return {@code true} if the builder should be reused
+     */
+    boolean isRetainable() {
+        return ((this.renderBuffer == null) || (this.renderBuffer.capacity() <= MAX_RETAINED_BUFFER_CAPACITY))
+                && (this.mitigations.size() <= MAX_RETAINED_ENTRIES)
+                && (this.parameterDefinitions.size() <= MAX_RETAINED_ENTRIES);
     }
 
     /**
@@ -30,14 +98,74 @@ public class ErrorMessageBuilder {
      * @return self for fluent programming
      */
     public ErrorMessageBuilder message(final String message, final Object... arguments) {
-        messageBuilder.append(message);
-        addParameters(message, arguments);
+        appendMessage(MessageTemplateCache.get(this.errorCode, message), arguments);
         return this;
     }
 
-    private void addParameters(final String text, final Object[] arguments) {
+    /**
+     * Use already compiled templates for message and mitigations.
+     *
+     * @param messageTemplate     message template or {@code null} for no message
+     * @param mitigationTemplates mitigation templates
+     * @param arguments           arguments to fill the placeholders of the message
+     */
+    void templates(final MessageTemplate messageTemplate, final List<MessageTemplate> mitigationTemplates,
+            final Object[] arguments) {
+        if (messageTemplate != null) {
+            appendMessage(messageTemplate, arguments);
+        }
+        this.mitigations.addAll(mitigationTemplates);
+    }
+
+    private void appendMessage(final MessageTemplate template, final Object[] arguments) {
+        if ((this.message == null) && (this.parameterDefinitions.size() == 0)) {
+            this.message = template;
+            this.messageArguments = getPatternArguments(arguments).clone();
+        } else {
+            mapMessageArguments();
+            this.message = (this.message == null) ? template : this.message.concat(template);
+            addParameters(template, arguments);
+        }
+    }
+
+    /**
+     * Map the positional message arguments to parameter definitions in front of all other parameters.
+     */
+    private void mapMessageArguments() {
+        if (this.messageArguments != null) {
+            final List<ParameterDefinition> laterParameters = new ArrayList<>(this.parameterDefinitions.asList());
+            this.parameterDefinitions.clear();
+            final Object[] arguments = this.messageArguments;
+            this.messageArguments = null;
+            ParametersMapper.mapParametersByName(this.message, arguments, this);
+            laterParameters.forEach(this.parameterDefinitions::add);
+        }
+    }
+
+    /**
+     * Get the message arguments for positional rendering.
+     * <p>
+     * Mitigations refer to parameters by name, so if any mitigation has placeholders, the arguments are mapped to
+     * parameters first.
+     * </p>
+     *
+     * @return arguments to render the message with or {@code null} if all parameters are mapped
+     */
+    private Object[] getRenderArguments() {
+        if (this.messageArguments != null) {
+            for (final MessageTemplate mitigation : this.mitigations) {
+                if (mitigation.getPlaceholderCount() > 0) {
+                    mapMessageArguments();
+                    break;
+                }
+            }
+        }
+        return this.messageArguments;
+    }
+
+    private void addParameters(final MessageTemplate template, final Object[] arguments) {
         final Object[] patternArguments = this.getPatternArguments(arguments);
-        ParametersMapper.mapParametersByName(text, patternArguments, this);
+        ParametersMapper.mapParametersByName(template, patternArguments, this);
     }
 
     private Object[] getPatternArguments(final Object[] arguments) {
@@ -69,17 +197,113 @@ public class ErrorMessageBuilder {
      * </p>
      * <p>
      * Note that the last parameter exists only as a means to add a description in the error catalog. It is not used
-     * when displaying error messages to the application users.
+     * when displaying error messages to the application users, but it is part of the structured output, e.g. in
+     * {@link ErrorMessage#getParameters()}.
+     * </p>
+     *
+     * @param placeholder placeholder without parentheses
+     * @param value value to insert
+     * @param description description for the error catalog
+     * @return self for fluent programming
+     */
+    public ErrorMessageBuilder parameter(final String placeholder, final Object value, final String description) {
+        parameterDefinitions
+                .add(ParameterDefinition.builder(placeholder).value(value).description(description).build());
+        return this;
+    }
+
+    /**
+     * Add a parameter with a {@code long} value.
+     * <p>
+     * The value is stored and rendered without boxing it.
+     * </p>
+     *
+     * @param name  parameter name
+     * @param value value to insert
+     * @return self for fluent programming
+     */
+    public ErrorMessageBuilder parameter(final String name, final long value) {
+        parameterDefinitions.add(ParameterDefinition.builder(name).longValue(value).build());
+        return this;
+    }
+
+    /**
+     * Add a parameter with a {@code long} value.
+     * <p>
+     * Note that the last parameter exists only as a means to add a description in the error catalog.
+     * </p>
+     *
+     * @param placeholder placeholder without parentheses
+     * @param value       value to insert
+     * @param description description for the error catalog
+     * @return self for fluent programming
+     */
+    public ErrorMessageBuilder parameter(final String placeholder, final long value, final String description) {
+        parameterDefinitions
+                .add(ParameterDefinition.builder(placeholder).longValue(value).description(description).build());
+        return this;
+    }
+
+    /**
+     * Add a parameter with an {@code int} value.
+     * <p>
+     * The value is stored and rendered without boxing it.
+     * </p>
+     *
+     * @param name  parameter name
+     * @param value value to insert
+     * @return self for fluent programming
+     */
+    public ErrorMessageBuilder parameter(final String name, final int value) {
+        parameterDefinitions.add(ParameterDefinition.builder(name).intValue(value).build());
+        return this;
+    }
+
+    /**
+     * Add a parameter with an {@code int} value.
+     * <p>
+     * Note that the last parameter exists only as a means to add a description in the error catalog.
      * </p>
      *
      * @param placeholder placeholder without parentheses
+     * @param value       value to insert
+     * @param description description for the error catalog
+     * @return self for fluent programming
+     */
+    public ErrorMessageBuilder parameter(final String placeholder, final int value, final String description) {
+        parameterDefinitions
+                .add(ParameterDefinition.builder(placeholder).intValue(value).description(description).build());
+        return this;
+    }
+
+    /**
+     * Add a parameter with a {@code char} value.
+     * <p>
+     * This overload exists so that characters are still treated as characters and not widened to numbers. Like a
+     * {@link Character} the value is quoted automatically.
+     * </p>
+     *
+     * @param name  parameter name
      * @param value value to insert
-     * @param ignoredDescription description for the error catalog
      * @return self for fluent programming
      */
-    public ErrorMessageBuilder parameter(final String placeholder, final Object value,
-            final String ignoredDescription) {
-        return parameter(placeholder, value);
+    public ErrorMessageBuilder parameter(final String name, final char value) {
+        return parameter(name, Character.valueOf(value));
+    }
+
+    /**
+     * Add a parameter with a {@code char} value.
+     * <p>
+     * Note that the last parameter exists only as a means to add a description in the error catalog.
+     * </p>
+     *
+     * @param placeholder placeholder without parentheses
+     * @param value       value to insert
+     * @param description description for the error catalog
+     * @return self for fluent programming
+     */
+    public ErrorMessageBuilder parameter(final String placeholder, final char value, final String description) {
+        return parameter(placeholder, Character.valueOf(value), description);
     }
 
     /**
@@ -93,8 +317,9 @@ public class ErrorMessageBuilder {
      * @return self for fluent programming
      */
     public ErrorMessageBuilder mitigation(final String mitigation, final Object... arguments) {
-        mitigations.add(mitigation);
-        addParameters(mitigation, arguments);
+        final MessageTemplate template = MessageTemplateCache.get(this.errorCode, mitigation);
+        mitigations.add(template);
+        addParameters(template, arguments);
         return this;
     }
 
@@ -116,25 +341,168 @@ public class ErrorMessageBuilder {
     @Override
     public String toString() {
         final StringBuilder result = new StringBuilder();
-        result.append(this.errorCode);
-        if (this.messageBuilder.length() > 0) {
-            result.append(": ");
-            result.append(replacePlaceholders(this.messageBuilder.toString()));
+        renderTo(result);
+        return result.toString();
+    }
+
+    /**
+     * Build the error message and finish using this builder.
+     * <p>
+     * For builders from {@link ExaError#pooledMessageBuilder(String)} this returns the builder and its buffers to the
+     * pool. The builder must not be used afterwards, neither by the caller nor by anything the caller handed it to.
+     * For all other builders this is the same as {@link #toString()}.
+     * </p>
+     *
+     * @return built error message string
+     */
+    public String render() {
+        return render(null);
+    }
+
+    /**
+     * Build the error message with an additional text after the message text and finish using this builder.
+     *
+     * @param messageSuffix text appended directly after the message text, in front of the mitigations, or
+     *                      {@code null} for none
+     * @return built error message string
+     * @see #render()
+     */
+    String render(final String messageSuffix) {
+        final StringBuilder buffer;
+        if (this.pool == null) {
+            buffer = new StringBuilder();
+        } else if (this.renderBuffer == null) {
+            this.renderBuffer = new StringBuilder();
+            buffer = this.renderBuffer;
+        } else {
+            this.renderBuffer.setLength(0);
+            buffer = this.renderBuffer;
         }
-        if (this.mitigations.size() == 1) {
-            result.append(" ");
-            result.append(replacePlaceholders(this.mitigations.get(0)));
-        } else if (this.mitigations.size() > 1) {
-            result.append(" Known mitigations:");
-            this.mitigations.forEach(mitigation -> {
-                result.append("\n* ");
-                result.append(replacePlaceholders(mitigation));
-            });
+        try {
+            MessageRenderer.render(buffer, this.errorCode, this.message, getRenderArguments(), messageSuffix,
+                    this.mitigations, this.parameterDefinitions);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
         }
-        return result.toString();
+        final String result = buffer.toString();
+        discard();
+        return result;
     }
 
-    private String replacePlaceholders(final String subject) {
-        return PlaceholdersFiller.fillPlaceholders(subject, this.parameterDefinitions);
+    /**
+     * Finish using this builder without rendering it.
+     * <p>
+     * For builders from {@link ExaError#pooledMessageBuilder(String)} this returns the builder to the pool. For all
+     * other builders this does nothing.
+     * </p>
+     */
+    void discard() {
+        if (this.pool != null) {
+            this.pool.release(this);
+        }
+    }
+
+    /**
+     * Render the error message into an {@link Appendable}.
+     * <p>
+     * The error code, message and mitigations are appended piece by piece, without building the complete message as an
+     * intermediate string first. This is useful if you already have a buffer or a writer, e.g. in a logging layer.
+     * </p>
+     *
+     * @param target target to append the error message to
+     * @throws IOException if appending to the target fails
+     */
+    public void renderTo(final Appendable target) throws IOException {
+        MessageRenderer.render(target, this.errorCode, this.message, getRenderArguments(), this.mitigations,
+                this.parameterDefinitions);
+    }
+
+    /**
+     * Render the error message into a {@link StringBuilder}.
+     * <p>
+     * This is the same as {@link #renderTo(Appendable)}, but without a checked exception.
+     * </p>
+     *
+     * @param target builder to append the error message to
+     */
+    public void renderTo(final StringBuilder target) {
+        try {
+            renderTo((Appendable) target);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+        }
+    }
+
+    /**
+     * Render the error message as UTF-8 into a {@link ByteBuffer}.
+     * <p>
+     * The message is written at the current position of the buffer. If it does not fit into the remaining space, the
+     * position of the buffer stays unchanged and the return value tells how much space the message needs. The bytes
+     * between the position and the limit may have been overwritten in that case.
+     * </p>
+     *
+     * @param target buffer to write to
+     * @return number of bytes the complete message needs; if this is larger than the remaining space before the call,
+     *         the position was not advanced
+     */
+    public int renderUtf8(final ByteBuffer target) {
+        return renderUtf8(target, OverflowHandling.REJECT);
+    }
+
+    /**
+     * Render the error message as UTF-8 into a {@link ByteBuffer}.
+     * <p>
+     * Literal parts of the message and mitigations are encoded only once per template. Only the error code and the
+     * parameter values are encoded on each call.
+     * </p>
+     *
+     * @param target           buffer to write to
+     * @param overflowHandling what to do if the message does not fit into the remaining space of the buffer
+     * @return number of bytes the complete message needs
+     */
+    public int renderUtf8(final ByteBuffer target, final OverflowHandling overflowHandling) {
+        return MessageRenderer.renderUtf8(target, overflowHandling, this.errorCode, this.message, getRenderArguments(),
+                this.mitigations, this.parameterDefinitions);
+    }
+
+    /**
+     * Build an immutable, structured error message from the current state of this builder.
+     * <p>
+     * The message keeps the error code, templates, parameters and mitigations as separate fields and renders its text
+     * only when it is needed. Later changes to this builder do not affect the returned message.
+     * </p>
+     *
+     * @return structured error message
+     */
+    public ErrorMessage build() {
+        mapMessageArguments();
+        return new ErrorMessage(ErrorCode.canonicalize(this.errorCode), this.message, List.copyOf(this.mitigations),
+                this.parameterDefinitions.copy());
+    }
+
+    /**
+     * Freeze the current state of this builder into an immutable prototype for messages that differ only in their
+     * arguments.
+     * <p>
+     * Later changes to this builder do not affect the prototype.
+     * </p>
+     *
+     * @return prototype that renders messages with {@link ErrorMessagePrototype#with(Object...)}
+     */
+    public ErrorMessagePrototype freeze() {
+        return ErrorMessagePrototype.of(this);
+    }
+
+    /**
+     * Capture the current state of this builder in an error message that is rendered only when its text is read.
+     * <p>
+     * Use this for errors where the text might never be needed, e.g. for exceptions that are caught and handled. Later
+     * changes to this builder do not affect the returned message.
+     * </p>
+     *
+     * @return lazily rendered error message
+     */
+    public LazyErrorMessage lazy() {
+        return new LazyErrorMessage(build());
     }
 }
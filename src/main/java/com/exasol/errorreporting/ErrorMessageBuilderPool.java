@@ -0,0 +1,73 @@
+package com.exasol.errorreporting;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Striped pool of {@link ErrorMessageBuilder}s.
+ * <p>
+ * The pool has a fixed number of slots. A thread always uses the slot selected by its thread ID. Taking a builder out
+ * of a slot and putting it back are single atomic operations, so the pool never blocks, never pins virtual threads to
+ * their carrier and retains at most one builder per slot, no matter how many threads use it.
+ * </p>
+ * <p>
+ * If the slot is empty, a new builder is created. If the slot is already occupied on release, the builder is left to
+ * the garbage collector. The same happens to builders whose buffers grew unusually large.
+ * </p>
+ */
+final class ErrorMessageBuilderPool {
+    /** Pool shared by all pooled builders created with {@link ExaError#pooledMessageBuilder(String)}. */
+    static final ErrorMessageBuilderPool SHARED = new ErrorMessageBuilderPool(
+            getStripesFor(Runtime.getRuntime().availableProcessors()));
+    private final AtomicReferenceArray<ErrorMessageBuilder> slots;
+    private final int mask;
+
+    /**
+     * Create a new pool.
+     *
+     * @param stripes number of slots, must be a power of two
+     */
+    ErrorMessageBuilderPool(final int stripes) {
+        this.slots = new AtomicReferenceArray<>(stripes);
+        this.mask = stripes - 1;
+    }
+
+    static int getStripesFor(final int processors) {
+        final int stripes = Integer.highestOneBit(Math.max(1, processors * 2) - 1) << 1;
+        return Math.min(Math.max(stripes, 2), 256);
+    }
+
+    /**
+     * Take a builder out of the pool or create a new one if the slot of the current thread is empty.
+     *
+     * @param errorCode Exasol error code
+     * @return empty builder for the error code
+     */
+    ErrorMessageBuilder acquire(final String errorCode) {
+        final ErrorMessageBuilder builder = this.slots.getAndSet(getSlotForCurrentThread(), null);
+        if (builder == null) {
+            return new ErrorMessageBuilder(errorCode, this);
+        } else {
+            builder.reset(errorCode);
+            return builder;
+        }
+    }
+
+    /**
+     * Return a builder to the pool.
+     *
+     * @param builder builder that is not used anymore
+     */
+    void release(final ErrorMessageBuilder builder) {
+        if (builder.isRetainable()) {
+            builder.reset(null);
+            this.slots.compareAndSet(getSlotForCurrentThread(), null, builder);
+        }
+    }
+
+    private int getSlotForCurrentThread() {
+        final long threadId = Thread.currentThread().getId();
+        int hash = (int) (threadId ^ (threadId >>> 32)) * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return hash & this.mask;
+    }
+}
@@ -0,0 +1,288 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writer that serializes error messages as JSON objects.
+ * <p>
+ * The writer streams all fields into the target in a single pass. Placeholders are filled and the result is escaped on
+ * the fly, so that neither the rendered message nor the JSON document exist as an intermediate string. The output looks
+ * like this:
+ * </p>
+ *
+ * <pre>
+ * {"errorCode":"E-TEST-1","message":"Table 'T' has 3 rows.","messageTemplate":"Table {{table}} has {{rows}} rows.",
+ *  "parameters":[{"name":"table","value":"T"},{"name":"rows","value":3}],"mitigations":["Check 'T'."]}
+ * </pre>
+ * <p>
+ * Parameter values keep their JSON type where one exists: numbers, booleans, {@code null} and collections are written
+ * as such, everything else as string. Non-finite floating point numbers are written as strings.
+ * </p>
+ * <p>
+ * Collections, other iterables and arrays are written as JSON arrays within the same {@link RenderingLimits} as in the
+ * text message. If elements are left out, the last element of the array is a string like
+ * {@code "... (499,997 more)"}.
+ * </p>
+ */
+public final class ErrorMessageJsonWriter {
+    private ErrorMessageJsonWriter() {
+        // prevent instantiation
+    }
+
+    /**
+     * Write an error message as JSON into an {@link Appendable}.
+     *
+     * @param errorMessage error message to serialize
+     * @param target       target to write to
+     * @throws IOException if writing to the target fails
+     */
+    public static void write(final ErrorMessage errorMessage, final Appendable target) throws IOException {
+        write(target, errorMessage.getErrorCode(), errorMessage.getMessage(), errorMessage.getMitigationTemplates(),
+                errorMessage.getParameterDefinitionList());
+    }
+
+    /**
+     * Write the current state of an error message builder as JSON into an {@link Appendable}.
+     *
+     * @param messageBuilder builder containing the error message
+     * @param target         target to write to
+     * @throws IOException if writing to the target fails
+     */
+    public static void write(final ErrorMessageBuilder messageBuilder, final Appendable target) throws IOException {
+        write(target, messageBuilder.getErrorCode(), messageBuilder.getMessage(), messageBuilder.getMitigations(),
+                messageBuilder.getParameterDefinitions());
+    }
+
+    /**
+     * Write an error message as UTF-8 encoded JSON into a {@link ByteBuffer}.
+     * <p>
+     * If the JSON does not fit into the remaining space of the buffer, the position of the buffer stays unchanged and
+     * the return value tells how much space is needed. The bytes between the position and the limit may have been
+     * overwritten in that case.
+     * </p>
+     *
+     * @param errorMessage error message to serialize
+     * @param target       buffer to write to
+     * @return number of bytes the JSON needs; if this is larger than the space that was remaining in the buffer,
+     *         the position was not advanced
+     */
+    public static int write(final ErrorMessage errorMessage, final ByteBuffer target) {
+        final Utf8Sink sink = new Utf8Sink(target);
+        try {
+            write(errorMessage, sink);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Writing to a ByteBuffer does not throw I/O exceptions.", exception);
+        }
+        return sink.finish();
+    }
+
+    /**
+     * Write the current state of an error message builder as UTF-8 encoded JSON into a {@link ByteBuffer}.
+     *
+     * @param messageBuilder builder containing the error message
+     * @param target         buffer to write to
+     * @return number of bytes the JSON needs; if this is larger than the space that was remaining in the buffer,
+     *         the position was not advanced
+     * @see #write(ErrorMessage, ByteBuffer)
+     */
+    public static int write(final ErrorMessageBuilder messageBuilder, final ByteBuffer target) {
+        final Utf8Sink sink = new Utf8Sink(target);
+        try {
+            write(messageBuilder, sink);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Writing to a ByteBuffer does not throw I/O exceptions.", exception);
+        }
+        return sink.finish();
+    }
+
+    private static void write(final Appendable target, final String errorCode, final MessageTemplate message,
+            final List<MessageTemplate> mitigations, final ParameterDefinitionList parameters) throws IOException {
+        final JsonStringEscaper escaper = new JsonStringEscaper(target);
+        target.append("{\"errorCode\":");
+        writeString(target, escaper, errorCode);
+        target.append(",\"message\":\"");
+        if (message != null) {
+            PlaceholdersFiller.fillPlaceholders(escaper, message, parameters);
+        }
+        target.append("\",\"messageTemplate\":");
+        writeString(target, escaper, (message == null) ? "" : message.getText());
+        target.append(",\"parameters\":[");
+        writeParameters(target, escaper, parameters.asList());
+        target.append("],\"mitigations\":[");
+        for (int i = 0; i < mitigations.size(); ++i) {
+            if (i > 0) {
+                target.append(',');
+            }
+            target.append('"');
+            PlaceholdersFiller.fillPlaceholders(escaper, mitigations.get(i), parameters);
+            target.append('"');
+        }
+        target.append("]}");
+    }
+
+    private static void writeParameters(final Appendable target, final JsonStringEscaper escaper,
+            final List<ParameterDefinition> parameters) throws IOException {
+        for (int i = 0; i < parameters.size(); ++i) {
+            final ParameterDefinition parameter = parameters.get(i);
+            if (i > 0) {
+                target.append(',');
+            }
+            target.append("{\"name\":");
+            writeString(target, escaper, parameter.getName());
+            target.append(",\"value\":");
+            if (parameter.hasLongValue()) {
+                Quoter.quoteLong(target, parameter.getLongValue(), Quoting.UNQUOTED);
+            } else {
+                writeValue(target, escaper, parameter.getValue());
+            }
+            if (parameter.hasDescription()) {
+                target.append(",\"description\":");
+                writeString(target, escaper, parameter.getDescription());
+            }
+            target.append('}');
+        }
+    }
+
+    private static void writeValue(final Appendable target, final JsonStringEscaper escaper, final Object value)
+            throws IOException {
+        if (value == null) {
+            target.append("null");
+        } else if (value instanceof Boolean) {
+            target.append(((Boolean) value) ? "true" : "false");
+        } else if (isIntegral(value) || isFinite(value)) {
+            writeNumber(target, (Number) value);
+        } else if (isJsonArray(value)) {
+            writeArray(target, value);
+        } else {
+            target.append('"');
+            Quoter.quoteObject(escaper, value, Quoting.UNQUOTED);
+            target.append('"');
+        }
+    }
+
+    private static boolean isJsonArray(final Object value) {
+        return (value instanceof Collection)
+                || ((value instanceof Iterable) && !(value instanceof Path) && !(value instanceof Throwable))
+                || (value.getClass().isArray() && !(value instanceof byte[]));
+    }
+
+    /**
+     * Write the elements of a collection, iterable or array as JSON array, capped at the {@link RenderingLimits}.
+     * <p>
+     * If iterating fails, for example because the collection was modified concurrently, the array ends with a string
+     * that names the failed class, so that the JSON stays valid.
+     * </p>
+     */
+    private static void writeArray(final Appendable target, final Object container) throws IOException {
+        final RenderingLimits limits = RenderingLimits.getDefault();
+        final CountingAppendable counter = new CountingAppendable(target);
+        final JsonStringEscaper escaper = new JsonStringEscaper(counter);
+        counter.append('[');
+        int written = 0;
+        try {
+            final Iterator<?> iterator = iterate(container);
+            while (iterator.hasNext()) {
+                if ((written >= limits.getMaxElements()) || (counter.getCount() >= limits.getMaxContainerLength())) {
+                    separate(counter, written);
+                    writeString(counter, escaper, Quoter.getTruncationNote(getSize(container), written));
+                    break;
+                }
+                final Object element = iterator.next();
+                separate(counter, written);
+                writeValue(counter, escaper, element);
+                ++written;
+            }
+        } catch (final RuntimeException exception) {
+            separate(counter, written);
+            writeString(counter, escaper, "<rendering failed: " + container.getClass().getName() + ">");
+        }
+        counter.append(']');
+    }
+
+    private static void separate(final Appendable target, final int written) throws IOException {
+        if (written > 0) {
+            target.append(',');
+        }
+    }
+
+    private static Iterator<?> iterate(final Object container) {
+        if (container instanceof Iterable) {
+            return ((Iterable<?>) container).iterator();
+        } else {
+            final int length = Array.getLength(container);
+            return new Iterator<>() {
+                private int index = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return this.index < length;
+                }
+
+                @Override
+                public Object next() {
+                    if (this.index >= length) {
+                        throw new NoSuchElementException();
+                    }
+                    return Array.get(container, this.index++);
+                }
+            };
+        }
+    }
+
+    private static long getSize(final Object container) {
+        if (container instanceof Collection) {
+            return ((Collection<?>) container).size();
+        } else if (container instanceof Iterable) {
+            return Quoter.UNKNOWN_SIZE;
+        } else {
+            return Array.getLength(container);
+        }
+    }
+
+    /**
+     * Write a number in JSON syntax.
+     * <p>
+     * Numbers bypass the {@link ParameterRenderers} and the {@link RenderingLimits}: a custom renderer or a cut could
+     * turn them into invalid JSON.
+     * </p>
+     */
+    private static void writeNumber(final Appendable target, final Number value) throws IOException {
+        if ((value instanceof BigInteger) || (value instanceof BigDecimal)) {
+            target.append(value.toString());
+        } else if (value instanceof Double) {
+            Quoter.appendDouble(target, (Double) value);
+        } else if (value instanceof Float) {
+            Quoter.appendFloat(target, (Float) value);
+        } else {
+            Quoter.appendLong(target, value.longValue());
+        }
+    }
+
+    private static boolean isIntegral(final Object value) {
+        return (value instanceof Integer) || (value instanceof Long) || (value instanceof Short)
+                || (value instanceof Byte) || (value instanceof BigInteger) || (value instanceof BigDecimal);
+    }
+
+    private static boolean isFinite(final Object value) {
+        return ((value instanceof Double) && Double.isFinite((Double) value))
+                || ((value instanceof Float) && Float.isFinite((Float) value));
+    }
+
+    private static void writeString(final Appendable target, final JsonStringEscaper escaper, final String value)
+            throws IOException {
+        if (value == null) {
+            target.append("null");
+        } else {
+            target.append('"');
+            escaper.append(value);
+            target.append('"');
+        }
+    }
+}
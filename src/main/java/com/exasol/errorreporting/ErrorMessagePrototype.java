@@ -0,0 +1,108 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Immutable template for error messages that differ only in their arguments.
+ * <p>
+ * Create a prototype once from a configured builder with {@link ErrorMessageBuilder#freeze()} and keep it, for example
+ * in a {@code static final} field. Each call of {@link #with(Object...)} then renders a message without building
+ * mitigations and parameters again:
+ * </p>
+ *
+ * <pre>
+ * private static final ErrorMessagePrototype CONNECTION_FAILED = ExaError.messageBuilder("E-TEST-1")
+ *         .message("Connection to {{host}} on port {{port}} failed.")
+ *         .mitigation("Check that {{host}} is reachable.").freeze();
+ *
+ * throw new IllegalStateException(CONNECTION_FAILED.with(host, port));
+ * </pre>
+ * <p>
+ * The values are bound to the message placeholders in order, like the arguments of
+ * {@link ErrorMessageBuilder#message(String, Object...)}, and mitigations can refer to them by name. Values take
+ * precedence over parameters that were set on the builder. Those fixed parameters are rendered when the prototype is
+ * created.
+ * </p>
+ * <p>
+ * Prototypes can be shared between threads.
+ * </p>
+ */
+public final class ErrorMessagePrototype {
+    private final BoundMessage message;
+
+    private ErrorMessagePrototype(final BoundMessage message) {
+        this.message = message;
+    }
+
+    /**
+     * Create a prototype from the current state of a builder.
+     *
+     * @param builder builder with error code, message, mitigations and fixed parameters
+     * @return prototype
+     */
+    static ErrorMessagePrototype of(final ErrorMessageBuilder builder) {
+        return new ErrorMessagePrototype(BoundMessage.bind(builder));
+    }
+
+    BoundMessage getBoundMessage() {
+        return this.message;
+    }
+
+    /**
+     * Get the error code of the messages created from this prototype.
+     *
+     * @return error code
+     */
+    public String getErrorCode() {
+        return this.message.getErrorCode();
+    }
+
+    /**
+     * Render an error message with the given values.
+     *
+     * @param values values for the placeholders of the message in order of their appearance
+     * @return rendered error message
+     */
+    public String with(final Object... values) {
+        final StringBuilder result = new StringBuilder();
+        renderTo(result, values);
+        return result.toString();
+    }
+
+    /**
+     * Render an error message with the given values into an {@link Appendable}.
+     *
+     * @param target target to append the error message to
+     * @param values values for the placeholders of the message in order of their appearance
+     * @throws IOException if appending to the target fails
+     */
+    public void renderTo(final Appendable target, final Object... values) throws IOException {
+        if (ErrorCodeMetrics.ENABLED) {
+            this.message.recordRenders(1);
+        }
+        this.message.render(target, new BoundMessage.ArrayArguments((values == null) ? new Object[] { null } : values));
+    }
+
+    /**
+     * Render an error message with the given values into a {@link StringBuilder}.
+     * <p>
+     * This is the same as {@link #renderTo(Appendable, Object...)}, but without a checked exception.
+     * </p>
+     *
+     * @param target builder to append the error message to
+     * @param values values for the placeholders of the message in order of their appearance
+     */
+    public void renderTo(final StringBuilder target, final Object... values) {
+        try {
+            renderTo((Appendable) target, values);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ErrorMessagePrototype [errorCode=" + this.message.getErrorCode() + "]";
+    }
+}
@@ -0,0 +1,160 @@
+package com.exasol.errorreporting;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry that creates error messages from the templates in an {@link ErrorCatalog}.
+ * <p>
+ * Instead of repeating the message text at every call site, code can refer to an error by its code only and pass the
+ * arguments for the placeholders of the catalog message:
+ * </p>
+ *
+ * <pre>
+ * throw new IllegalStateException(ExaError.fromCatalog("E-TEST-1", port).toString());
+ * </pre>
+ * <p>
+ * The templates of an error code are parsed once, the first time the code is used, so that creating a registry costs
+ * the same for ten or ten thousand error codes. The registry keeps the catalog together with a concurrent cache of the
+ * templates parsed so far in a snapshot. The catalog of a snapshot never changes, and its cache only ever receives
+ * templates parsed from that catalog. Lookups read the current snapshot without locking, and
+ * {@link #reload(ErrorCatalog)} replaces the whole snapshot, including its cache, at once, so that a lookup never sees
+ * a mix of old and new templates.
+ * </p>
+ */
+public final class ErrorMessageRegistry {
+    private static final String UNKNOWN_ERROR_CODE = "UNKNOWN ERROR CODE";
+    private volatile Snapshot snapshot;
+
+    /**
+     * Create a new registry.
+     *
+     * @param catalog catalog with the templates
+     */
+    public ErrorMessageRegistry(final ErrorCatalog catalog) {
+        this.snapshot = new Snapshot(catalog);
+    }
+
+    /**
+     * Get the registry for the default catalog.
+     *
+     * @return default registry
+     * @see ErrorCatalog#getDefault()
+     */
+    public static ErrorMessageRegistry getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Replace the catalog of this registry.
+     * <p>
+     * Lookups that run concurrently use either the old or the new catalog, never a mix of both.
+     * </p>
+     *
+     * @param catalog new catalog
+     */
+    public void reload(final ErrorCatalog catalog) {
+        this.snapshot = new Snapshot(catalog);
+    }
+
+    /**
+     * Check if the registry knows an error code.
+     *
+     * @param errorCode error code
+     * @return {@code true} if the catalog contains the error code
+     */
+    public boolean contains(final String errorCode) {
+        return this.snapshot.getTemplates(errorCode) != null;
+    }
+
+    /**
+     * Get a builder for an error message from the catalog.
+     * <p>
+     * The arguments fill the placeholders of the catalog message in order of their appearance, like the arguments of
+     * {@link ErrorMessageBuilder#message(String, Object...)}. The builder also contains the mitigations of the catalog
+     * entry, and can be extended like any other builder.
+     * </p>
+     * <p>
+     * If the catalog does not contain the error code, the message says {@code UNKNOWN ERROR CODE} and lists the
+     * arguments, so that no information is lost.
+     * </p>
+     *
+     * @param errorCode error code
+     * @param arguments arguments to fill the placeholders of the message
+     * @return builder for the error message
+     */
+    public ErrorMessageBuilder messageBuilder(final String errorCode, final Object... arguments) {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder(errorCode);
+        final CatalogTemplates templates = this.snapshot.getTemplates(errorCode);
+        if (templates == null) {
+            builder.templates(createUnknownCodeTemplate(arguments), List.of(), arguments);
+        } else {
+            builder.templates(templates.getMessage(), templates.getMitigations(), arguments);
+        }
+        return builder;
+    }
+
+    private static MessageTemplate createUnknownCodeTemplate(final Object[] arguments) {
+        final StringBuilder text = new StringBuilder(UNKNOWN_ERROR_CODE);
+        if ((arguments != null) && (arguments.length > 0)) {
+            text.append(", arguments:");
+            for (int i = 0; i < arguments.length; ++i) {
+                text.append((i == 0) ? " {{" : ", {{").append(i).append("}}");
+            }
+        }
+        return MessageTemplate.compile(text.toString());
+    }
+
+    /**
+     * Catalog together with the templates parsed from it so far.
+     * <p>
+     * The catalog is fixed, the template cache fills up on the first lookup of each error code.
+     * </p>
+     */
+    private static final class Snapshot {
+        private final ErrorCatalog catalog;
+        private final Map<String, CatalogTemplates> templates = new ConcurrentHashMap<>();
+
+        private Snapshot(final ErrorCatalog catalog) {
+            this.catalog = catalog;
+        }
+
+        private CatalogTemplates getTemplates(final String errorCode) {
+            if (errorCode == null) {
+                return null;
+            }
+            final CatalogTemplates cached = this.templates.get(errorCode);
+            if (cached != null) {
+                return cached;
+            }
+            final ErrorCatalogEntry entry = this.catalog.lookup(errorCode);
+            if (entry == null) {
+                return null;
+            }
+            // Concurrent first lookups may both compile, but they produce equivalent templates.
+            final CatalogTemplates compiled = compile(entry);
+            final CatalogTemplates previous = this.templates.putIfAbsent(errorCode, compiled);
+            return (previous == null) ? compiled : previous;
+        }
+
+        private static CatalogTemplates compile(final ErrorCatalogEntry entry) {
+            final String errorCode = entry.getErrorCode();
+            final MessageTemplate message = (entry.getMessage() == null) ? null
+                    : compileText(errorCode, entry.getMessage());
+            final List<MessageTemplate> mitigations = new ArrayList<>(entry.getMitigations().size());
+            for (final String mitigation : entry.getMitigations()) {
+                mitigations.add(compileText(errorCode, mitigation));
+            }
+            return new CatalogTemplates(message, Collections.unmodifiableList(mitigations));
+        }
+
+        private static MessageTemplate compileText(final String errorCode, final String text) {
+            final MessageTemplate precompiled = PrecompiledTemplates.find(errorCode, text);
+            return (precompiled == null) ? MessageTemplate.compile(text) : precompiled;
+        }
+    }
+
+    private static final class DefaultHolder {
+        private static final ErrorMessageRegistry DEFAULT = new ErrorMessageRegistry(ErrorCatalog.getDefault());
+    }
+}
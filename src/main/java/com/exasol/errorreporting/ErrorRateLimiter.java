@@ -0,0 +1,211 @@
+package com.exasol.errorreporting;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per error code rate limit for rendering error messages.
+ * <p>
+ * During outages the same error can be raised millions of times in a short time. Rendering and logging each of these
+ * messages costs CPU and log volume without adding information. This class lets through a limited number of messages
+ * per error code and period and suppresses the rest. Suppressed messages are not rendered, but they are counted, and
+ * the next message that passes reports how often the error was repeated in the meantime:
+ * </p>
+ *
+ * <pre>
+ * E-TEST-1: Connection refused. (repeated 1234 times)
+ * </pre>
+ * <p>
+ * Each error code has its own token bucket. The bucket holds up to {@code permits} tokens and is refilled evenly over
+ * the period, so short bursts pass while the long-term rate stays bounded. The bucket is implemented lock-free as a
+ * generic cell rate algorithm: a single {@link AtomicLong} per error code stores the time when the bucket will be full
+ * again and is updated with compare-and-set.
+ * </p>
+ * <p>
+ * Error codes can be built dynamically, so the number of tracked error codes is limited. When the limit is reached,
+ * the limiter forgets error codes whose bucket is full again and that have no suppressed messages, since such a state
+ * is the same as a new one. If all tracked error codes are still active, further error codes share a single bucket.
+ * Messages in that shared bucket get no repetition summary, because the count would mix different error codes. Their
+ * suppressed messages are counted under {@link #OTHER_ERROR_CODES} instead.
+ * </p>
+ * <p>
+ * Instances are thread-safe. Use one instance per kind of output, e.g. per log sink.
+ * </p>
+ */
+public final class ErrorRateLimiter {
+    /** Key under which the suppressed messages of error codes beyond the tracking limit are counted */
+    public static final String OTHER_ERROR_CODES = "<other>";
+    static final int MAX_TRACKED_CODES = ErrorCode.MAX_INTERNED_CODES;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final long periodNanos;
+    private final LongSupplier clock;
+    private final int maxTrackedCodes;
+    private final Map<String, CodeState> states = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction;
+
+    /**
+     * Create a new rate limiter.
+     *
+     * @param permits number of messages per error code that may pass within one period
+     * @param period  period over which the permits are refilled
+     */
+    public ErrorRateLimiter(final int permits, final Duration period) {
+        this(permits, period, System::nanoTime);
+    }
+
+    ErrorRateLimiter(final int permits, final Duration period, final LongSupplier clock) {
+        this(permits, period, clock, MAX_TRACKED_CODES);
+    }
+
+    ErrorRateLimiter(final int permits, final Duration period, final LongSupplier clock, final int maxTrackedCodes) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Permits must be at least 1, but was " + permits + ".");
+        }
+        final long periodNanos = period.toNanos();
+        if (periodNanos < permits) {
+            throw new IllegalArgumentException(
+                    "Period must be at least one nanosecond per permit, but was " + period + ".");
+        }
+        this.emissionIntervalNanos = periodNanos / permits;
+        this.burstToleranceNanos = this.emissionIntervalNanos * (permits - 1);
+        this.periodNanos = this.emissionIntervalNanos * permits;
+        this.clock = clock;
+        this.maxTrackedCodes = maxTrackedCodes;
+        this.nextEviction = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Try to take a permit for an error code.
+     * <p>
+     * Use this before building a message to skip even the builder if the message would be suppressed anyway. If no
+     * permit is available, the occurrence is counted as suppressed.
+     * </p>
+     *
+     * @param errorCode error code
+     * @return {@code true} if the message may be emitted
+     */
+    public boolean tryAcquire(final String errorCode) {
+        final long now = this.clock.getAsLong();
+        final CodeState state = getState(errorCode, now);
+        if (state.tryAcquire(now, this.emissionIntervalNanos, this.burstToleranceNanos)) {
+            return true;
+        } else {
+            state.suppressed.incrementAndGet();
+            return false;
+        }
+    }
+
+    /**
+     * Render a message if the rate limit of its error code allows it.
+     * <p>
+     * If the message passes and earlier messages with the same error code were suppressed, a summary like
+     * {@code (repeated 12 times)} follows the message text, in front of the mitigations. Messages of error codes beyond
+     * the tracking limit share one bucket and get no summary. Suppressed messages are not rendered at all. Builders from {@link ExaError#pooledMessageBuilder(String)} are returned to their pool in both
+     * cases.
+     * </p>
+     *
+     * @param builder builder of the message
+     * @return rendered message or empty if the message was suppressed
+     */
+    public Optional<String> render(final ErrorMessageBuilder builder) {
+        final String errorCode = builder.getErrorCode();
+        final long now = this.clock.getAsLong();
+        final CodeState state = getState(errorCode, now);
+        if (state.tryAcquire(now, this.emissionIntervalNanos, this.burstToleranceNanos)) {
+            final long repetitions = state.shared ? 0 : state.suppressed.getAndSet(0);
+            return Optional.of(builder.render(getRepetitionSummary(repetitions)));
+        } else {
+            state.suppressed.incrementAndGet();
+            builder.discard();
+            return Optional.empty();
+        }
+    }
+
+    private static String getRepetitionSummary(final long repetitions) {
+        if (repetitions == 0) {
+            return null;
+        } else if (repetitions == 1) {
+            return " (repeated 1 time)";
+        } else {
+            return " (repeated " + repetitions + " times)";
+        }
+    }
+
+    /**
+     * Get the number of messages with an error code that were suppressed since the last message that passed.
+     * <p>
+     * Error codes beyond the tracking limit report 0. Pass {@link #OTHER_ERROR_CODES} to get the number of all their
+     * suppressed messages since the limiter was created.
+     * </p>
+     *
+     * @param errorCode error code or {@link #OTHER_ERROR_CODES}
+     * @return number of suppressed messages
+     */
+    public long getSuppressedCount(final String errorCode) {
+        final CodeState state = this.states.get(String.valueOf(errorCode));
+        return (state == null) ? 0 : state.suppressed.get();
+    }
+
+    private CodeState getState(final String errorCode, final long now) {
+        final String key = String.valueOf(errorCode);
+        final CodeState state = this.states.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (this.states.size() >= this.maxTrackedCodes) {
+            evictIdleStates(now);
+        }
+        final String trackedKey = (this.states.size() >= this.maxTrackedCodes) ? OTHER_ERROR_CODES : key;
+        return this.states.computeIfAbsent(trackedKey, code -> new CodeState(now, OTHER_ERROR_CODES.equals(code)));
+    }
+
+    /**
+     * Remove the states of error codes that are idle.
+     * <p>
+     * A bucket that received no message for a whole period is full again, so the limiter scans at most once per
+     * period. A message that arrives for an error code while its state is removed can pass one time too often.
+     * </p>
+     */
+    private void evictIdleStates(final long now) {
+        final long next = this.nextEviction.get();
+        if (((now - next) >= 0) && this.nextEviction.compareAndSet(next, now + this.periodNanos)) {
+            this.states.values().removeIf(state -> state.isIdle(now));
+        }
+    }
+
+    private static final class CodeState {
+        /** Theoretical arrival time: the point in time at which the bucket is full again */
+        private final AtomicLong theoreticalArrivalTime;
+        private final AtomicLong suppressed = new AtomicLong();
+        /** Whether several error codes share this state, so that its suppressed messages are never reported */
+        private final boolean shared;
+
+        private CodeState(final long now, final boolean shared) {
+            this.theoreticalArrivalTime = new AtomicLong(now);
+            this.shared = shared;
+        }
+
+        private boolean isIdle(final long now) {
+            return ((this.theoreticalArrivalTime.get() - now) <= 0) && (this.suppressed.get() == 0);
+        }
+
+        private boolean tryAcquire(final long now, final long emissionInterval, final long burstTolerance) {
+            while (true) {
+                final long current = this.theoreticalArrivalTime.get();
+                // Compare via difference, because nanoTime values may be negative and wrap around.
+                final long start = ((current - now) < 0) ? now : current;
+                if ((start - now) > burstTolerance) {
+                    return false;
+                }
+                if (this.theoreticalArrivalTime.compareAndSet(current, start + emissionInterval)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
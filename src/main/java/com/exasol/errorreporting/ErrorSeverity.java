@@ -0,0 +1,37 @@
+package com.exasol.errorreporting;
+
+/**
+ * This enumeration contains the severities that the first letter of an error code stands for.
+ */
+public enum ErrorSeverity {
+    /** Error, code prefix {@code E} */
+    ERROR('E'),
+    /** Warning, code prefix {@code W} */
+    WARNING('W');
+
+    private final char prefix;
+
+    ErrorSeverity(final char prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Get the letter that error codes of this severity start with.
+     *
+     * @return prefix letter
+     */
+    public char getPrefix() {
+        return this.prefix;
+    }
+
+    static ErrorSeverity fromPrefix(final char prefix) {
+        switch (prefix) {
+        case 'E':
+            return ERROR;
+        case 'W':
+            return WARNING;
+        default:
+            return null;
+        }
+    }
+}
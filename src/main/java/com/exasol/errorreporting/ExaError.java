@@ -16,6 +16,47 @@ public class ExaError {
      * @return built error message
      */
     public static ErrorMessageBuilder messageBuilder(final String errorCode) {
+        if (ErrorCodeMetrics.ENABLED) {
+            ErrorCodeMetrics.recordConstruction(errorCode);
+        }
         return new ErrorMessageBuilder(errorCode);
     }
+
+    /**
+     * Get a builder for error messages that is taken from a pool and returned to it by
+     * {@link ErrorMessageBuilder#render()}.
+     * <p>
+     * Use this on hot error paths where many messages are created in a short time. Always finish the builder with
+     * {@link ErrorMessageBuilder#render()} and do not keep references to it. A builder that is not finished with
+     * {@code render()} is simply not reused.
+     * </p>
+     *
+     * @param errorCode Exasol error code
+     * @return pooled builder for the error message
+     */
+    public static ErrorMessageBuilder pooledMessageBuilder(final String errorCode) {
+        if (ErrorCodeMetrics.ENABLED) {
+            ErrorCodeMetrics.recordConstruction(errorCode);
+        }
+        return ErrorMessageBuilderPool.SHARED.acquire(errorCode);
+    }
+
+    /**
+     * Get a builder for an error message whose message and mitigations are taken from the default error catalog.
+     * <p>
+     * The arguments fill the placeholders of the catalog message in order of their appearance, like the arguments of
+     * {@link ErrorMessageBuilder#message(String, Object...)}.
+     * </p>
+     *
+     * @param errorCode Exasol error code
+     * @param arguments arguments to fill the placeholders of the message
+     * @return builder for the error message
+     * @see ErrorMessageRegistry
+     */
+    public static ErrorMessageBuilder fromCatalog(final String errorCode, final Object... arguments) {
+        if (ErrorCodeMetrics.ENABLED) {
+            ErrorCodeMetrics.recordConstruction(errorCode);
+        }
+        return ErrorMessageRegistry.getDefault().messageBuilder(errorCode, arguments);
+    }
 }
@@ -0,0 +1,87 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+
+/**
+ * {@link Appendable} that escapes everything appended to it for the use inside a JSON string literal.
+ * <p>
+ * The escaper does not write the surrounding quotes.
+ * </p>
+ */
+final class JsonStringEscaper implements Appendable {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private final Appendable target;
+
+    /**
+     * Create a new escaper.
+     *
+     * @param target target the escaped characters are written to
+     */
+    JsonStringEscaper(final Appendable target) {
+        this.target = target;
+    }
+
+    @Override
+    public JsonStringEscaper append(final CharSequence sequence) throws IOException {
+        final CharSequence text = (sequence == null) ? "null" : sequence;
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public JsonStringEscaper append(final CharSequence sequence, final int start, final int end)
+            throws IOException {
+        final CharSequence text = (sequence == null) ? "null" : sequence;
+        int unescapedStart = start;
+        for (int i = start; i < end; ++i) {
+            if (needsEscaping(text.charAt(i))) {
+                this.target.append(text, unescapedStart, i);
+                appendEscaped(text.charAt(i));
+                unescapedStart = i + 1;
+            }
+        }
+        this.target.append(text, unescapedStart, end);
+        return this;
+    }
+
+    @Override
+    public JsonStringEscaper append(final char character) throws IOException {
+        if (needsEscaping(character)) {
+            appendEscaped(character);
+        } else {
+            this.target.append(character);
+        }
+        return this;
+    }
+
+    private static boolean needsEscaping(final char character) {
+        return (character < 0x20) || (character == '"') || (character == '\\');
+    }
+
+    private void appendEscaped(final char character) throws IOException {
+        switch (character) {
+        case '"':
+            this.target.append("\\\"");
+            break;
+        case '\\':
+            this.target.append("\\\\");
+            break;
+        case '\n':
+            this.target.append("\\n");
+            break;
+        case '\r':
+            this.target.append("\\r");
+            break;
+        case '\t':
+            this.target.append("\\t");
+            break;
+        case '\b':
+            this.target.append("\\b");
+            break;
+        case '\f':
+            this.target.append("\\f");
+            break;
+        default:
+            this.target.append("\\u00").append(HEX_DIGITS[character >> 4]).append(HEX_DIGITS[character & 0xF]);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.exasol.errorreporting;
+
+import java.util.function.Supplier;
+
+/**
+ * Error message that is rendered when its text is accessed for the first time.
+ * <p>
+ * Filling the placeholders and quoting the parameter values happens only once, on first access. Instances are created
+ * with {@link ErrorMessageBuilder#lazy()} and are safe to share between threads.
+ * </p>
+ */
+public final class LazyErrorMessage implements CharSequence, Supplier<String> {
+    private final ErrorMessage errorMessage;
+
+    LazyErrorMessage(final ErrorMessage errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Get the structured error message this lazy message renders.
+     *
+     * @return structured error message
+     */
+    public ErrorMessage getErrorMessage() {
+        return this.errorMessage;
+    }
+
+    /**
+     * Get the rendered error message.
+     *
+     * @return rendered error message
+     */
+    @Override
+    public String get() {
+        return this.errorMessage.toString();
+    }
+
+    /**
+     * Check if the message was rendered already.
+     *
+     * @return {@code true} if the text was accessed before
+     */
+    public boolean isRendered() {
+        return this.errorMessage.isRendered();
+    }
+
+    @Override
+    public int length() {
+        return get().length();
+    }
+
+    @Override
+    public char charAt(final int index) {
+        return get().charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return get().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return get();
+    }
+}
@@ -0,0 +1,73 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+/**
+ * Base class for exceptions that render their error message only when it is read.
+ * <p>
+ * Exceptions that are caught and handled without ever looking at their message do not pay for filling placeholders
+ * and quoting parameters. The message is rendered at most once.
+ * </p>
+ * <p>
+ * When the exception is serialized, the message is rendered and serialized as text.
+ * </p>
+ */
+public class LazyMessageException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    private final transient LazyErrorMessage errorMessage;
+    private String serializedMessage;
+
+    /**
+     * Create a new instance of {@link LazyMessageException}.
+     *
+     * @param errorMessage lazily rendered error message
+     */
+    public LazyMessageException(final LazyErrorMessage errorMessage) {
+        this(errorMessage, null);
+    }
+
+    /**
+     * Create a new instance of {@link LazyMessageException}.
+     *
+     * @param errorMessage lazily rendered error message
+     * @param cause        exception that caused this one
+     */
+    public LazyMessageException(final LazyErrorMessage errorMessage, final Throwable cause) {
+        super(null, cause);
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Create a new instance of {@link LazyMessageException} from the current state of a message builder.
+     *
+     * @param messageBuilder builder containing the error message
+     */
+    public LazyMessageException(final ErrorMessageBuilder messageBuilder) {
+        this(messageBuilder.lazy());
+    }
+
+    /**
+     * Create a new instance of {@link LazyMessageException} from the current state of a message builder.
+     *
+     * @param messageBuilder builder containing the error message
+     * @param cause          exception that caused this one
+     */
+    public LazyMessageException(final ErrorMessageBuilder messageBuilder, final Throwable cause) {
+        this(messageBuilder.lazy(), cause);
+    }
+
+    @Override
+    public String getMessage() {
+        if (this.errorMessage != null) {
+            return this.errorMessage.get();
+        } else {
+            return this.serializedMessage;
+        }
+    }
+
+    private void writeObject(final ObjectOutputStream stream) throws IOException {
+        this.serializedMessage = getMessage();
+        stream.defaultWriteObject();
+    }
+}
@@ -0,0 +1,83 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+
+/**
+ * Appendable that passes at most a given number of characters on to its target.
+ * <p>
+ * When the budget is exhausted the appendable writes a truncation marker and ignores everything that is appended
+ * afterwards. Surrogate pairs are never split.
+ * </p>
+ */
+final class LengthCappingAppendable implements Appendable {
+    static final String TRUNCATION_MARKER = "...";
+    private final Appendable target;
+    private int remaining;
+    private boolean truncated = false;
+
+    /**
+     * Create a new length-capping appendable.
+     *
+     * @param target target to pass the characters on to
+     * @param budget maximum number of characters to pass on, not counting the truncation marker
+     */
+    LengthCappingAppendable(final Appendable target, final int budget) {
+        this.target = target;
+        this.remaining = budget;
+    }
+
+    /**
+     * Check if characters were dropped because the budget was exhausted.
+     *
+     * @return {@code true} if the output was truncated
+     */
+    boolean isTruncated() {
+        return this.truncated;
+    }
+
+    @Override
+    public Appendable append(final CharSequence text) throws IOException {
+        final CharSequence nonNullText = (text == null) ? "null" : text;
+        return append(nonNullText, 0, nonNullText.length());
+    }
+
+    @Override
+    public Appendable append(final CharSequence text, final int start, final int end) throws IOException {
+        if (!this.truncated) {
+            final CharSequence nonNullText = (text == null) ? "null" : text;
+            final int length = end - start;
+            if ((length < this.remaining) || ((length == this.remaining)
+                    && ((length == 0) || !Character.isHighSurrogate(nonNullText.charAt(end - 1))))) {
+                this.target.append(nonNullText, start, end);
+                this.remaining -= length;
+            } else {
+                int cut = start + this.remaining;
+                if ((cut > start) && Character.isHighSurrogate(nonNullText.charAt(cut - 1))) {
+                    --cut;
+                }
+                this.target.append(nonNullText, start, cut);
+                truncate();
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(final char character) throws IOException {
+        if (!this.truncated) {
+            if ((this.remaining > 1) || ((this.remaining == 1) && !Character.isHighSurrogate(character))) {
+                this.target.append(character);
+                --this.remaining;
+            } else {
+                truncate();
+            }
+        }
+        return this;
+    }
+
+    private void truncate() throws IOException {
+        this.truncated = true;
+        this.remaining = 0;
+        this.target.append(TRUNCATION_MARKER);
+    }
+}
@@ -0,0 +1,240 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * This class renders the parts of an error message into the final text.
+ * <p>
+ * It owns the layout of the text: the separator between error code and message, and how mitigations are attached.
+ * Other renderers that fill placeholders in their own way use {@link #appendMessageSeparator(Appendable)} and
+ * {@link #appendMitigationSeparator(Appendable, int, int)}, so that all of them produce the same layout.
+ * </p>
+ */
+final class MessageRenderer {
+    private static final String MESSAGE_SEPARATOR = ": ";
+    private static final String SINGLE_MITIGATION_SEPARATOR = " ";
+    private static final String MITIGATIONS_HEADER = " Known mitigations:";
+    private static final String MITIGATION_BULLET = "\n* ";
+    private static final byte[] MESSAGE_SEPARATOR_UTF8 = MESSAGE_SEPARATOR.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SINGLE_MITIGATION_SEPARATOR_UTF8 = SINGLE_MITIGATION_SEPARATOR
+            .getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MITIGATIONS_HEADER_UTF8 = MITIGATIONS_HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MITIGATION_BULLET_UTF8 = MITIGATION_BULLET.getBytes(StandardCharsets.US_ASCII);
+
+    private MessageRenderer() {
+        // prevent instantiation
+    }
+
+    /**
+     * Render an error message.
+     *
+     * @param errorCode   Exasol error code
+     * @param message     message template or {@code null} if there is no message
+     * @param mitigations mitigation templates
+     * @param parameters  parameters to fill the placeholders with
+     * @return rendered error message
+     */
+    static String render(final String errorCode, final MessageTemplate message,
+            final List<MessageTemplate> mitigations, final ParameterDefinitionList parameters) {
+        final StringBuilder result = new StringBuilder();
+        render(result, errorCode, message, mitigations, parameters);
+        return result.toString();
+    }
+
+    /**
+     * Render an error message into a {@link StringBuilder}.
+     *
+     * @param target      builder to append the message to
+     * @param errorCode   Exasol error code
+     * @param message     message template or {@code null} if there is no message
+     * @param mitigations mitigation templates
+     * @param parameters  parameters to fill the placeholders with
+     */
+    static void render(final StringBuilder target, final String errorCode, final MessageTemplate message,
+            final List<MessageTemplate> mitigations, final ParameterDefinitionList parameters) {
+        try {
+            render((Appendable) target, errorCode, message, mitigations, parameters);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+        }
+    }
+
+    /**
+     * Render an error message into an {@link Appendable}.
+     *
+     * @param target      target to append the message to
+     * @param errorCode   Exasol error code
+     * @param message     message template or {@code null} if there is no message
+     * @param mitigations mitigation templates
+     * @param parameters  parameters to fill the placeholders with
+     * @throws IOException if appending to the target fails
+     */
+    static void render(final Appendable target, final String errorCode, final MessageTemplate message,
+            final List<MessageTemplate> mitigations, final ParameterDefinitionList parameters) throws IOException {
+        render(target, errorCode, message, null, mitigations, parameters);
+    }
+
+    /**
+     * Render an error message whose message placeholders are filled with positional arguments.
+     * <p>
+     * The mitigations must not contain placeholders that refer to the message arguments, because those are not
+     * available by name.
+     * </p>
+     *
+     * @param target           target to append the message to
+     * @param errorCode        Exasol error code
+     * @param message          message template or {@code null} if there is no message
+     * @param messageArguments arguments for the message placeholders or {@code null} to use only the parameters
+     * @param mitigations      mitigation templates
+     * @param parameters       parameters to fill the remaining placeholders with
+     * @throws IOException if appending to the target fails
+     */
+    static void render(final Appendable target, final String errorCode, final MessageTemplate message,
+            final Object[] messageArguments, final List<MessageTemplate> mitigations,
+            final ParameterDefinitionList parameters) throws IOException {
+        render(target, errorCode, message, messageArguments, null, mitigations, parameters);
+    }
+
+    /**
+     * Render an error message with an additional text directly after the message text, in front of the mitigations.
+     *
+     * @param target           target to append the message to
+     * @param errorCode        Exasol error code
+     * @param message          message template or {@code null} if there is no message
+     * @param messageArguments arguments for the message placeholders or {@code null} to use only the parameters
+     * @param messageSuffix    text appended after the message text or {@code null} for none
+     * @param mitigations      mitigation templates
+     * @param parameters       parameters to fill the remaining placeholders with
+     * @throws IOException if appending to the target fails
+     */
+    static void render(final Appendable target, final String errorCode, final MessageTemplate message,
+            final Object[] messageArguments, final String messageSuffix, final List<MessageTemplate> mitigations,
+            final ParameterDefinitionList parameters) throws IOException {
+        if (ErrorCodeMetrics.ENABLED) {
+            ErrorCodeMetrics.recordRender(errorCode);
+        }
+        target.append(errorCode);
+        if ((message != null) && !message.isEmpty()) {
+            appendMessageSeparator(target);
+            if (messageArguments == null) {
+                PlaceholdersFiller.fillPlaceholders(target, message, parameters);
+            } else {
+                PlaceholdersFiller.fillPlaceholders(target, message, messageArguments, parameters);
+            }
+        }
+        if (messageSuffix != null) {
+            target.append(messageSuffix);
+        }
+        final int mitigationCount = mitigations.size();
+        for (int i = 0; i < mitigationCount; ++i) {
+            appendMitigationSeparator(target, mitigationCount, i);
+            PlaceholdersFiller.fillPlaceholders(target, mitigations.get(i), parameters);
+        }
+    }
+
+    /**
+     * Append the separator between the error code and the message text.
+     *
+     * @param target target to append to
+     * @throws IOException if appending to the target fails
+     */
+    static void appendMessageSeparator(final Appendable target) throws IOException {
+        target.append(MESSAGE_SEPARATOR);
+    }
+
+    /**
+     * Append the text in front of a mitigation.
+     * <p>
+     * A single mitigation follows the message directly. Several mitigations are listed as bullet points under a
+     * header.
+     * </p>
+     *
+     * @param target          target to append to
+     * @param mitigationCount number of mitigations of the message
+     * @param index           index of the mitigation that follows
+     * @throws IOException if appending to the target fails
+     */
+    static void appendMitigationSeparator(final Appendable target, final int mitigationCount, final int index)
+            throws IOException {
+        if (mitigationCount == 1) {
+            target.append(SINGLE_MITIGATION_SEPARATOR);
+        } else {
+            if (index == 0) {
+                target.append(MITIGATIONS_HEADER);
+            }
+            target.append(MITIGATION_BULLET);
+        }
+    }
+
+    private static void writeMitigationSeparator(final Utf8Sink sink, final int mitigationCount, final int index) {
+        if (mitigationCount == 1) {
+            sink.writeEncoded(SINGLE_MITIGATION_SEPARATOR_UTF8);
+        } else {
+            if (index == 0) {
+                sink.writeEncoded(MITIGATIONS_HEADER_UTF8);
+            }
+            sink.writeEncoded(MITIGATION_BULLET_UTF8);
+        }
+    }
+
+    /**
+     * Render an error message as UTF-8 into a {@link ByteBuffer}.
+     * <p>
+     * Literal parts of the templates are copied as pre-encoded bytes. Only the error code and the parameter values are
+     * encoded during rendering.
+     * </p>
+     *
+     * @param target           buffer to write to
+     * @param overflowHandling what to do if the message does not fit into the remaining space of the buffer
+     * @param errorCode        Exasol error code
+     * @param message          message template or {@code null} if there is no message
+     * @param mitigations      mitigation templates
+     * @param parameters       parameters to fill the placeholders with
+     * @return number of bytes the complete message needs
+     */
+    static int renderUtf8(final ByteBuffer target, final OverflowHandling overflowHandling, final String errorCode,
+            final MessageTemplate message, final List<MessageTemplate> mitigations,
+            final ParameterDefinitionList parameters) {
+        return renderUtf8(target, overflowHandling, errorCode, message, null, mitigations, parameters);
+    }
+
+    /**
+     * Render an error message whose message placeholders are filled with positional arguments as UTF-8.
+     *
+     * @param target           buffer to write to
+     * @param overflowHandling what to do if the message does not fit into the remaining space of the buffer
+     * @param errorCode        Exasol error code
+     * @param message          message template or {@code null} if there is no message
+     * @param messageArguments arguments for the message placeholders or {@code null} to use only the parameters
+     * @param mitigations      mitigation templates
+     * @param parameters       parameters to fill the remaining placeholders with
+     * @return number of bytes the complete message needs
+     */
+    static int renderUtf8(final ByteBuffer target, final OverflowHandling overflowHandling, final String errorCode,
+            final MessageTemplate message, final Object[] messageArguments, final List<MessageTemplate> mitigations,
+            final ParameterDefinitionList parameters) {
+        if (ErrorCodeMetrics.ENABLED) {
+            ErrorCodeMetrics.recordRender(errorCode);
+        }
+        final Utf8Sink sink = new Utf8Sink(target, overflowHandling);
+        sink.append(errorCode);
+        if ((message != null) && !message.isEmpty()) {
+            sink.writeEncoded(MESSAGE_SEPARATOR_UTF8);
+            if (messageArguments == null) {
+                PlaceholdersFiller.fillPlaceholders(sink, message, parameters);
+            } else {
+                PlaceholdersFiller.fillPlaceholders(sink, message, messageArguments, parameters);
+            }
+        }
+        final int mitigationCount = mitigations.size();
+        for (int i = 0; i < mitigationCount; ++i) {
+            writeMitigationSeparator(sink, mitigationCount, i);
+            PlaceholdersFiller.fillPlaceholders(sink, mitigations.get(i), parameters);
+        }
+        return sink.finish();
+    }
+}
@@ -0,0 +1,189 @@
+package com.exasol.errorreporting;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Pre-parsed text that may contain placeholders.
+ * <p>
+ * A template splits the text into the literal segments and the {@link Placeholder}s between them, so that the text
+ * needs to be parsed only once, no matter how often it is filled.
+ * </p>
+ * <p>
+ * Templates are immutable and can be shared between threads.
+ * </p>
+ */
+public final class MessageTemplate {
+    private final String text;
+    private final String[] literals;
+    private final Placeholder[] placeholders;
+    private final int[] firstSlots;
+    private volatile byte[][] utf8Literals;
+
+    private MessageTemplate(final String text, final String[] literals, final Placeholder[] placeholders) {
+        this.text = text;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.firstSlots = findFirstSlots(placeholders);
+    }
+
+    private static int[] findFirstSlots(final Placeholder[] placeholders) {
+        final int[] slots = new int[placeholders.length];
+        final Map<String, Integer> firstSlotByReference = new HashMap<>();
+        for (int i = 0; i < placeholders.length; ++i) {
+            final Integer firstSlot = firstSlotByReference.putIfAbsent(placeholders[i].getReference(), i);
+            slots[i] = (firstSlot == null) ? i : firstSlot;
+        }
+        return slots;
+    }
+
+    /**
+     * Compile a text that may contain placeholders into a template.
+     *
+     * @param text text that may contain placeholders
+     * @return compiled template
+     */
+    public static MessageTemplate compile(final String text) {
+        final List<Placeholder> foundPlaceholders = new ArrayList<>();
+        final List<String> foundLiterals = new ArrayList<>();
+        final PlaceholderScanner scanner = new PlaceholderScanner(text);
+        int previousPlaceholderEndPosition = 0;
+        while (scanner.find()) {
+            foundLiterals.add(text.substring(previousPlaceholderEndPosition, scanner.getStartIndex()));
+            foundPlaceholders.add(scanner.toPlaceholder());
+            previousPlaceholderEndPosition = scanner.getEndIndex();
+        }
+        foundLiterals.add(text.substring(previousPlaceholderEndPosition));
+        return new MessageTemplate(text, foundLiterals.toArray(new String[0]),
+                foundPlaceholders.toArray(new Placeholder[0]));
+    }
+
+    /**
+     * Create a template from parts that were parsed before, e.g. at build time.
+     * <p>
+     * This is meant for generated code. The parts must be exactly what {@link #compile(String)} produces for the text.
+     * </p>
+     *
+     * @param text         text the template was compiled from
+     * @param literals     literal text segments around the placeholders
+     * @param placeholders placeholders in order of their appearance in the text
+     * @return template
+     * @throws IllegalArgumentException if there is not exactly one literal segment more than placeholders
+     */
+    public static MessageTemplate fromParts(final String text, final List<String> literals,
+            final List<Placeholder> placeholders) {
+        if (literals.size() != (placeholders.size() + 1)) {
+            throw new IllegalArgumentException("Expected " + (placeholders.size() + 1) + " literal segments for "
+                    + placeholders.size() + " placeholders, but got " + literals.size() + ".");
+        }
+        return new MessageTemplate(text, literals.toArray(new String[0]), placeholders.toArray(new Placeholder[0]));
+    }
+
+    /**
+     * Get the text this template was compiled from.
+     *
+     * @return original text including the placeholders
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * Check if the template text is empty.
+     *
+     * @return {@code true} if the template was compiled from an empty text
+     */
+    public boolean isEmpty() {
+        return this.text.isEmpty();
+    }
+
+    /**
+     * Get the placeholders in order of their appearance in the text.
+     *
+     * @return placeholders
+     */
+    public List<Placeholder> getPlaceholders() {
+        return List.of(this.placeholders);
+    }
+
+    /**
+     * Get the literal text segments around the placeholders.
+     * <p>
+     * A template with {@code n} placeholders always has {@code n + 1} literal segments. The segment with index
+     * {@code i} precedes the placeholder with index {@code i}, the last segment follows the last placeholder. Segments
+     * can be empty.
+     * </p>
+     *
+     * @return literal text segments
+     */
+    public List<String> getLiterals() {
+        return List.of(this.literals);
+    }
+
+    int getPlaceholderCount() {
+        return this.placeholders.length;
+    }
+
+    Placeholder getPlaceholder(final int index) {
+        return this.placeholders[index];
+    }
+
+    /**
+     * Get the index of the first placeholder with the same reference as a given placeholder.
+     * <p>
+     * Positional arguments are bound to placeholders by index, and the first argument for a reference wins. So the
+     * value of a placeholder is the argument at the index of the first placeholder with the same reference.
+     * </p>
+     *
+     * @param index index of the placeholder
+     * @return index of the first placeholder with the same reference; equal to {@code index} if there is none before
+     */
+    int getFirstSlot(final int index) {
+        return this.firstSlots[index];
+    }
+
+    String getLiteral(final int index) {
+        return this.literals[index];
+    }
+
+    /**
+     * Get a literal text segment encoded as UTF-8.
+     * <p>
+     * The segments are encoded on the first call, so that templates that are only rendered as text never pay for the
+     * encoding. Callers must not modify the returned array.
+     * </p>
+     *
+     * @param index index of the segment
+     * @return UTF-8 bytes of the segment
+     */
+    byte[] getUtf8Literal(final int index) {
+        byte[][] encoded = this.utf8Literals;
+        if (encoded == null) {
+            // Concurrent first calls encode the same bytes, so it does not matter which result is kept.
+            encoded = new byte[this.literals.length][];
+            for (int i = 0; i < this.literals.length; ++i) {
+                encoded[i] = this.literals[i].getBytes(StandardCharsets.UTF_8);
+            }
+            this.utf8Literals = encoded;
+        }
+        return encoded[index];
+    }
+
+    /**
+     * Create a template for the concatenation of this template's text and the text of another template.
+     * <p>
+     * The combined text is parsed again, because placeholders can span the border between the two texts.
+     * </p>
+     *
+     * @param other template to append
+     * @return template for the concatenated text
+     */
+    MessageTemplate concat(final MessageTemplate other) {
+        return compile(this.text + other.text);
+    }
+
+    @Override
+    public String toString() {
+        return "MessageTemplate [text=" + this.text + ", placeholders=" + Arrays.toString(this.placeholders) + "]";
+    }
+}
@@ -0,0 +1,65 @@
+package com.exasol.errorreporting;
+
+/**
+ * Bounded cache for {@link MessageTemplate}s.
+ * <p>
+ * Message texts are usually string literals, so the same text arrives as the same {@link String} instance on every
+ * call. The cache therefore compares keys by identity and never has to hash or compare the characters of the text.
+ * </p>
+ * <p>
+ * The cache is direct-mapped: each text has exactly one slot, and a new entry simply replaces the old one. Entries are
+ * immutable, so concurrent readers see either the old or the new entry, both of which are valid.
+ * </p>
+ * <p>
+ * On a miss the cache first asks the {@link PrecompiledTemplates} for a template that was parsed at build time and
+ * parses the text only if there is none.
+ * </p>
+ */
+final class MessageTemplateCache {
+    private static final int SIZE = 1024;
+    private static final Entry[] ENTRIES = new Entry[SIZE];
+
+    private MessageTemplateCache() {
+        // prevent instantiation
+    }
+
+    /**
+     * Get the compiled template for a text, compiling it if it is not cached yet.
+     *
+     * @param text text that may contain placeholders
+     * @return compiled template
+     */
+    static MessageTemplate get(final String text) {
+        return get(null, text);
+    }
+
+    /**
+     * Get the compiled template for a text, compiling it if it is neither cached nor pre-parsed at build time.
+     *
+     * @param errorCode error code the text is used with, or {@code null} if unknown
+     * @param text      text that may contain placeholders
+     * @return compiled template
+     */
+    static MessageTemplate get(final String errorCode, final String text) {
+        final int slot = System.identityHashCode(text) & (SIZE - 1);
+        final Entry entry = ENTRIES[slot];
+        if ((entry != null) && (entry.text == text)) {
+            return entry.template;
+        } else {
+            final MessageTemplate precompiled = (errorCode == null) ? null : PrecompiledTemplates.find(errorCode, text);
+            final MessageTemplate template = (precompiled == null) ? MessageTemplate.compile(text) : precompiled;
+            ENTRIES[slot] = new Entry(text, template);
+            return template;
+        }
+    }
+
+    private static final class Entry {
+        private final String text;
+        private final MessageTemplate template;
+
+        private Entry(final String text, final MessageTemplate template) {
+            this.text = text;
+            this.template = template;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.exasol.errorreporting;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the producer index with a compare-and-set and then publish the element into the
+ * slot. The consumer reads slots in order and treats an empty slot as the end of the queue, even if a producer has
+ * already claimed it but not yet published its element. Neither side ever blocks or takes a lock, which keeps the
+ * queue safe for virtual threads.
+ * </p>
+ *
+ * @param <E> type of the elements
+ */
+final class MpscQueue<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Create a new queue.
+     *
+     * @param requestedCapacity minimum capacity; the actual capacity is the next power of two
+     */
+    MpscQueue(final int requestedCapacity) {
+        if (requestedCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1, but was " + requestedCapacity + ".");
+        }
+        final int capacity = (requestedCapacity == 1) ? 1 : Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Get the capacity of the queue.
+     *
+     * @return maximum number of elements
+     */
+    int capacity() {
+        return this.mask + 1;
+    }
+
+    /**
+     * Get the approximate number of elements in the queue.
+     *
+     * @return number of elements; may be outdated as soon as it is returned
+     */
+    int size() {
+        final long consumed = this.consumerIndex.get();
+        return (int) Math.max(0, Math.min(this.producerIndex.get() - consumed, capacity()));
+    }
+
+    /**
+     * Add an element if there is space. Safe to call from any thread.
+     *
+     * @param element element to add, not {@code null}
+     * @return {@code true} if the element was added, {@code false} if the queue is full
+     */
+    boolean offer(final E element) {
+        final int capacity = capacity();
+        while (true) {
+            final long producer = this.producerIndex.get();
+            if ((producer - this.consumerIndex.get()) >= capacity) {
+                return false;
+            }
+            if (this.producerIndex.compareAndSet(producer, producer + 1)) {
+                this.slots.lazySet((int) (producer & this.mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element. Must only be called from the consumer thread.
+     *
+     * @return oldest element or {@code null} if no element is available
+     */
+    E poll() {
+        final long consumer = this.consumerIndex.get();
+        final int slot = (int) (consumer & this.mask);
+        final E element = this.slots.get(slot);
+        if (element != null) {
+            this.slots.lazySet(slot, null);
+            this.consumerIndex.lazySet(consumer + 1);
+        }
+        return element;
+    }
+
+    /**
+     * Check if the queue is empty. Claimed slots whose elements are not yet published count as not empty.
+     *
+     * @return {@code true} if no producer has claimed a slot that was not consumed yet
+     */
+    boolean isEmpty() {
+        return this.producerIndex.get() == this.consumerIndex.get();
+    }
+}
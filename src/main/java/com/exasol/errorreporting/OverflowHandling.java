@@ -0,0 +1,14 @@
+package com.exasol.errorreporting;
+
+/**
+ * This enumeration contains options for handling error messages that do not fit into a fixed-size buffer.
+ */
+public enum OverflowHandling {
+    /**
+     * Leave the position of the buffer unchanged, so that the caller can retry with a larger buffer; the bytes after
+     * the position may have been overwritten
+     */
+    REJECT,
+    /** Write as much as fits and end the output with a truncation marker */
+    TRUNCATE
+}
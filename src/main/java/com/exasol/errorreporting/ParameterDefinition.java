@@ -9,11 +9,17 @@ public class ParameterDefinition {
             .build();
     private final String name;
     private final Object value;
+    private final boolean longValuePresent;
+    private final boolean intWidth;
+    private final long longValue;
     private final String description;
 
     private ParameterDefinition(final Builder builder) {
         this.name = builder.name;
         this.value = builder.value;
+        this.longValuePresent = builder.longValuePresent;
+        this.intWidth = builder.intWidth;
+        this.longValue = builder.longValue;
         this.description = builder.description;
     }
 
@@ -38,11 +44,38 @@ public class ParameterDefinition {
 
     /**
      * Get the parameter value.
+     * <p>
+     * Parameters defined with a primitive {@code int} value return that value as {@link Integer}, parameters defined
+     * with a primitive {@code long} value as {@link Long}.
+     * </p>
      *
      * @return value assigned to the parameter
      */
     public Object getValue() {
-        return this.value;
+        if (this.longValuePresent) {
+            return this.intWidth ? (Object) Integer.valueOf((int) this.longValue)
+                    : (Object) Long.valueOf(this.longValue);
+        } else {
+            return this.value;
+        }
+    }
+
+    /**
+     * Check if the value was defined as a primitive integer.
+     *
+     * @return {@code true} if the value is stored unboxed
+     */
+    boolean hasLongValue() {
+        return this.longValuePresent;
+    }
+
+    /**
+     * Get the unboxed value of a parameter defined as a primitive integer.
+     *
+     * @return unboxed value
+     */
+    long getLongValue() {
+        return this.longValue;
     }
 
     /**
@@ -69,7 +102,7 @@ public class ParameterDefinition {
      * @return {@code true} if the value is set.
      */
     public boolean hasValue() {
-        return this.value != null;
+        return this.longValuePresent || (this.value != null);
     }
 
     /**
@@ -83,10 +116,11 @@ public class ParameterDefinition {
 
     @Override
     public String toString() {
-        if(hasValue()) {
-            return this.value.toString();
-        }
-        else {
+        if (this.longValuePresent) {
+            return Long.toString(this.longValue);
+        } else if (hasValue()) {
+            return Quoter.quoteObject(this.value, Quoting.UNQUOTED);
+        } else {
             return "<null>";
         }
     }
@@ -97,6 +131,9 @@ public class ParameterDefinition {
     public static class Builder {
         private final String name;
         private Object value;
+        private boolean longValuePresent;
+        private boolean intWidth;
+        private long longValue;
         private String description;
 
 
@@ -112,6 +149,38 @@ public class ParameterDefinition {
          */
         public Builder value(final Object value) {
             this.value = value;
+            this.longValuePresent = false;
+            this.intWidth = false;
+            return this;
+        }
+
+        /**
+         * Set a primitive integer value without boxing it.
+         *
+         * @param value value of the parameter
+         * @return self for fluent programming
+         */
+        Builder longValue(final long value) {
+            this.value = null;
+            this.longValue = value;
+            this.longValuePresent = true;
+            this.intWidth = false;
+            return this;
+        }
+
+        /**
+         * Set a primitive {@code int} value without boxing it.
+         * <p>
+         * The value is stored like a {@code long}, but {@link ParameterDefinition#getValue()} returns it as
+         * {@link Integer}, like the boxed value callers passed before.
+         * </p>
+         *
+         * @param value value of the parameter
+         * @return self for fluent programming
+         */
+        Builder intValue(final int value) {
+            longValue(value);
+            this.intWidth = true;
             return this;
         }
 
@@ -1,16 +1,21 @@
 package com.exasol.errorreporting;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * List of {@link ParameterDefinition}s.
  * <p>
  * This class exists to make the definitions more fault tolerant in case of missing or duplicate definitions.
  * </p>
+ * <p>
+ * Small lists are searched linearly. Once a list grows beyond a few entries, it builds a hash index over the names, so
+ * that lookups take constant time. In both cases the first definition for a name wins.
+ * </p>
  */
 public class ParameterDefinitionList {
+    private static final int INDEX_THRESHOLD = 8;
     private final List<ParameterDefinition> parameterDefinitions = new ArrayList<>();
+    private Map<String, ParameterDefinition> index = null;
 
     /**
      * Add a parameter definition to the list.
@@ -19,24 +24,61 @@ public class ParameterDefinitionList {
      */
     public void add(final ParameterDefinition parameterDefinition) {
         this.parameterDefinitions.add(parameterDefinition);
+        if (this.index != null) {
+            addToIndex(parameterDefinition);
+        } else if (this.parameterDefinitions.size() > INDEX_THRESHOLD) {
+            buildIndex();
+        }
+    }
+
+    private void buildIndex() {
+        this.index = new HashMap<>();
+        for (final ParameterDefinition definition : this.parameterDefinitions) {
+            addToIndex(definition);
+        }
+    }
+
+    private void addToIndex(final ParameterDefinition parameterDefinition) {
+        if (parameterDefinition.hasName()) {
+            this.index.putIfAbsent(parameterDefinition.getName(), parameterDefinition);
+        }
     }
 
     /**
-     * Get a parameter definition by the name of the parameter.
+     * Look up a parameter definition by the name of the parameter.
+     * <p>
+     * In contrast to {@link #get(String)} this method distinguishes a missing parameter from a defined one in a single
+     * probe.
+     * </p>
      *
      * @param name parameter name to search for
-     * @return first parameter definition where the name matches, or {@link ParameterDefinition#UNDEFINED_PARAMETER} if
-     * no parameter matches
+     * @return first parameter definition where the name matches, or {@code null} if no parameter matches
      */
-    public ParameterDefinition get(final String name) {
-        if(name != null) {
-            for(ParameterDefinition definition : this.parameterDefinitions) {
+    public ParameterDefinition lookup(final String name) {
+        if (name == null) {
+            return null;
+        } else if (this.index != null) {
+            return this.index.get(name);
+        } else {
+            for (final ParameterDefinition definition : this.parameterDefinitions) {
                 if (name.equals(definition.getName())) {
                     return definition;
                 }
             }
+            return null;
         }
-        return ParameterDefinition.UNDEFINED_PARAMETER;
+    }
+
+    /**
+     * Get a parameter definition by the name of the parameter.
+     *
+     * @param name parameter name to search for
+     * @return first parameter definition where the name matches, or {@link ParameterDefinition#UNDEFINED_PARAMETER} if
+     * no parameter matches
+     */
+    public ParameterDefinition get(final String name) {
+        final ParameterDefinition definition = lookup(name);
+        return (definition == null) ? ParameterDefinition.UNDEFINED_PARAMETER : definition;
     }
 
     /**
@@ -47,13 +89,46 @@ public class ParameterDefinitionList {
      * searched for is {@code null} or does not exist
      */
     public boolean containsKey(final String name) {
-        if(name != null) {
-            for(ParameterDefinition definition : this.parameterDefinitions) {
-                if(name.equals(definition.getName())) {
-                    return true;
-                }
-            }
+        return lookup(name) != null;
+    }
+
+    /**
+     * Get the number of parameter definitions.
+     *
+     * @return number of definitions, including duplicates
+     */
+    int size() {
+        return this.parameterDefinitions.size();
+    }
+
+    /**
+     * Get a read-only view of the parameter definitions in the order in which they were added.
+     *
+     * @return parameter definitions
+     */
+    List<ParameterDefinition> asList() {
+        return Collections.unmodifiableList(this.parameterDefinitions);
+    }
+
+    /**
+     * Remove all parameter definitions.
+     */
+    void clear() {
+        this.parameterDefinitions.clear();
+        this.index = null;
+    }
+
+    /**
+     * Create a copy of this list.
+     *
+     * @return independent list with the same parameter definitions
+     */
+    ParameterDefinitionList copy() {
+        final ParameterDefinitionList copy = new ParameterDefinitionList();
+        copy.parameterDefinitions.addAll(this.parameterDefinitions);
+        if (this.index != null) {
+            copy.index = new HashMap<>(this.index);
         }
-        return false;
+        return copy;
     }
 }
@@ -0,0 +1,30 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+
+/**
+ * Renders parameter values of a certain type into error messages.
+ * <p>
+ * Register renderers with {@link ParameterRenderers#register(Class, ParameterRenderer)} for types whose
+ * {@link Object#toString()} is expensive, too verbose or not helpful in an error message, for example to render only
+ * the size and the first row of a result set.
+ * </p>
+ * <p>
+ * Renderers are called from any thread that renders a message, so they must be thread-safe. They should write
+ * directly to the target instead of building the complete text first, because the target may discard everything
+ * beyond the configured {@link RenderingLimits#getMaxParameterLength() parameter length}.
+ * </p>
+ *
+ * @param <T> type of the rendered values
+ */
+@FunctionalInterface
+public interface ParameterRenderer<T> {
+    /**
+     * Render a value without quotes.
+     *
+     * @param target target to append the rendered value to
+     * @param value  value to render, never {@code null}
+     * @throws IOException if appending to the target fails
+     */
+    void render(Appendable target, T value) throws IOException;
+}
@@ -0,0 +1,274 @@
+package com.exasol.errorreporting;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link ParameterRenderer}s for parameter types.
+ * <p>
+ * Each renderer decides how values of its type are formatted and how they are quoted by placeholders without quoting
+ * switches. The library registers renderers for common types, for example strings and paths in single quotes, numbers
+ * without quotes, {@code byte[]} as hexadecimal number, and {@link SqlIdentifier}s in double quotes. Renderers that
+ * you register take precedence over the built-in ones.
+ * </p>
+ * <p>
+ * The renderer for a class is resolved in this order:
+ * </p>
+ * <ol>
+ * <li>a renderer registered for the class itself or its closest superclass</li>
+ * <li>the renderer for arrays, if the class is an array type</li>
+ * <li>a renderer registered for an interface the class implements, searched breadth-first</li>
+ * <li>{@link Object#toString()} without quotes</li>
+ * </ol>
+ * <p>
+ * The resolved renderer is cached per class, so that rendering a value costs a single lookup no matter how many types
+ * are registered. Registering or removing a renderer discards the cache.
+ * </p>
+ * <p>
+ * The {@link ErrorMessageJsonWriter} writes numbers and booleans in JSON syntax and does not use these renderers for
+ * them, so that the JSON stays valid.
+ * </p>
+ */
+public final class ParameterRenderers {
+    private static final ParameterRenderer<Object> TO_STRING_TEXT = (target, value) -> target
+            .append(value.toString());
+    private static final TypeRenderer TO_STRING = new ValueRenderer(Quoting.UNQUOTED, TO_STRING_TEXT);
+    private static final TypeRenderer ARRAY = Quoter::quoteArray;
+    private static final Map<Class<?>, TypeRenderer> BUILT_IN = createBuiltInRenderers();
+    private static final Map<Class<?>, TypeRenderer> CUSTOM = new ConcurrentHashMap<>();
+    private static volatile ClassValue<TypeRenderer> cache = createCache();
+
+    private ParameterRenderers() {
+        // prevent instantiation
+    }
+
+    /**
+     * Register a renderer for a type that renders values without quotes, unless the placeholder requests quotes.
+     * <p>
+     * This replaces any renderer registered for the same type before.
+     * </p>
+     *
+     * @param <T>      type of the rendered values
+     * @param type     type of the rendered values
+     * @param renderer renderer for the values
+     */
+    public static <T> void register(final Class<T> type, final ParameterRenderer<? super T> renderer) {
+        register(type, Quoting.UNQUOTED, renderer);
+    }
+
+    /**
+     * Register a renderer for a type, replacing any renderer registered for the same type before.
+     *
+     * @param <T>              type of the rendered values
+     * @param type             type of the rendered values
+     * @param automaticQuoting quoting used by placeholders without quoting switches; {@link Quoting#AUTOMATIC} is
+     *                         treated like {@link Quoting#UNQUOTED}
+     * @param renderer         renderer for the values
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void register(final Class<T> type, final Quoting automaticQuoting,
+            final ParameterRenderer<? super T> renderer) {
+        if ((type == null) || (automaticQuoting == null) || (renderer == null)) {
+            throw new IllegalArgumentException("Type, quoting and renderer must not be null.");
+        }
+        CUSTOM.put(type, new ValueRenderer(automaticQuoting, (ParameterRenderer<Object>) renderer, "rendering"));
+        cache = createCache();
+    }
+
+    /**
+     * Remove the renderer registered for a type.
+     * <p>
+     * Built-in renderers cannot be removed, but they can be replaced with {@link #register(Class, ParameterRenderer)}.
+     * </p>
+     *
+     * @param type type to remove the renderer for
+     */
+    public static void unregister(final Class<?> type) {
+        if (CUSTOM.remove(type) != null) {
+            cache = createCache();
+        }
+    }
+
+    /**
+     * Get the renderer for a class.
+     *
+     * @param type class of the value to render
+     * @return renderer, never {@code null}
+     */
+    static TypeRenderer resolve(final Class<?> type) {
+        return cache.get(type);
+    }
+
+    private static ClassValue<TypeRenderer> createCache() {
+        return new ClassValue<>() {
+            @Override
+            protected TypeRenderer computeValue(final Class<?> type) {
+                return lookUp(type);
+            }
+        };
+    }
+
+    private static TypeRenderer lookUp(final Class<?> type) {
+        for (Class<?> current = type; (current != null) && (current != Object.class); current = current
+                .getSuperclass()) {
+            final TypeRenderer renderer = findRegistered(current);
+            if (renderer != null) {
+                return renderer;
+            }
+        }
+        if (type.isArray()) {
+            return ARRAY;
+        }
+        final TypeRenderer interfaceRenderer = lookUpInterfaces(type);
+        return (interfaceRenderer == null) ? TO_STRING : interfaceRenderer;
+    }
+
+    private static TypeRenderer lookUpInterfaces(final Class<?> type) {
+        final Deque<Class<?>> pending = new ArrayDeque<>();
+        final Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            pending.addAll(List.of(current.getInterfaces()));
+        }
+        while (!pending.isEmpty()) {
+            final Class<?> candidate = pending.removeFirst();
+            if (visited.add(candidate)) {
+                final TypeRenderer renderer = findRegistered(candidate);
+                if (renderer != null) {
+                    return renderer;
+                }
+                pending.addAll(List.of(candidate.getInterfaces()));
+            }
+        }
+        return null;
+    }
+
+    private static TypeRenderer findRegistered(final Class<?> type) {
+        final TypeRenderer custom = CUSTOM.get(type);
+        return (custom == null) ? BUILT_IN.get(type) : custom;
+    }
+
+    private static Map<Class<?>, TypeRenderer> createBuiltInRenderers() {
+        final Map<Class<?>, TypeRenderer> renderers = new HashMap<>();
+        renderers.put(String.class, new ValueRenderer(Quoting.SINGLE_QUOTES,
+                (target, value) -> target.append((String) value)));
+        renderers.put(CharSequence.class,
+                new ValueRenderer(Quoting.UNQUOTED, (target, value) -> target.append((CharSequence) value)));
+        renderers.put(Character.class,
+                new ValueRenderer(Quoting.SINGLE_QUOTES, (target, value) -> target.append((Character) value)));
+        final ParameterRenderer<Object> integral = (target, value) -> Quoter.appendLong(target,
+                ((Number) value).longValue());
+        renderers.put(Integer.class, new ValueRenderer(Quoting.UNQUOTED, integral));
+        renderers.put(Long.class, new ValueRenderer(Quoting.UNQUOTED, integral));
+        renderers.put(Short.class, new ValueRenderer(Quoting.UNQUOTED, integral));
+        renderers.put(Byte.class, new ValueRenderer(Quoting.UNQUOTED, integral));
+        renderers.put(Double.class, new ValueRenderer(Quoting.UNQUOTED,
+                (target, value) -> Quoter.appendDouble(target, (Double) value)));
+        renderers.put(Float.class, new ValueRenderer(Quoting.UNQUOTED,
+                (target, value) -> Quoter.appendFloat(target, (Float) value)));
+        renderers.put(Boolean.class, new ValueRenderer(Quoting.UNQUOTED,
+                (target, value) -> target.append(((Boolean) value) ? "true" : "false")));
+        renderers.put(Path.class, new ValueRenderer(Quoting.SINGLE_QUOTES, TO_STRING_TEXT));
+        renderers.put(File.class, new ValueRenderer(Quoting.SINGLE_QUOTES, TO_STRING_TEXT));
+        renderers.put(URL.class, new ValueRenderer(Quoting.SINGLE_QUOTES, TO_STRING_TEXT));
+        renderers.put(URI.class, new ValueRenderer(Quoting.SINGLE_QUOTES, TO_STRING_TEXT));
+        renderers.put(Instant.class, new ValueRenderer(Quoting.UNQUOTED, TO_STRING_TEXT));
+        renderers.put(Duration.class, new ValueRenderer(Quoting.UNQUOTED, TO_STRING_TEXT));
+        renderers.put(byte[].class, new ValueRenderer(Quoting.UNQUOTED,
+                (target, value) -> Quoter.appendHex(target, (byte[]) value)));
+        renderers.put(SqlIdentifier.class, new ValueRenderer(Quoting.UNQUOTED,
+                (target, value) -> ((SqlIdentifier) value).appendQuoted(target)));
+        // Exceptions like SQLException are iterable, but their own text is more useful than their elements.
+        renderers.put(Throwable.class, TO_STRING);
+        renderers.put(Optional.class, ParameterRenderers::renderOptional);
+        renderers.put(Collection.class, (target, value, quoting) -> {
+            final Collection<?> collection = (Collection<?>) value;
+            Quoter.quoteElements(target, collection.iterator(), collection.size(), quoting);
+        });
+        renderers.put(Iterable.class, (target, value, quoting) -> Quoter.quoteElements(target,
+                ((Iterable<?>) value).iterator(), Quoter.UNKNOWN_SIZE, quoting));
+        renderers.put(Map.class, (target, value, quoting) -> Quoter.quoteMap(target, (Map<?, ?>) value, quoting));
+        return Map.copyOf(renderers);
+    }
+
+    private static void renderOptional(final StringBuilder target, final Object value, final Quoting quoting)
+            throws IOException {
+        final Optional<?> optional = (Optional<?>) value;
+        if (optional.isPresent()) {
+            Quoter.quoteObject(target, optional.get(), quoting);
+        } else {
+            target.append("<empty>");
+        }
+    }
+
+    /**
+     * Renderer for single values that encloses the text in quotes as requested.
+     * <p>
+     * An error message is usually created while handling another error, so a failing renderer or {@code toString()}
+     * must not replace that error with a new exception. Instead the text written so far is removed and replaced by a
+     * text that shows which class failed, so that the quotes stay balanced.
+     * </p>
+     * <p>
+     * The {@link RenderingLimits#getMaxParameterLength() maximum parameter length} applies to the text between the
+     * quotes, so that a cut value is still enclosed in quotes. It limits the length of the message, not the cost of
+     * rendering: renderers that append a whole {@code toString()} result, like the default one, still build the
+     * complete string before it is cut.
+     * </p>
+     */
+    private static final class ValueRenderer implements TypeRenderer {
+        private final Quoting automaticQuoting;
+        private final ParameterRenderer<Object> renderer;
+        private final String operation;
+
+        private ValueRenderer(final Quoting automaticQuoting, final ParameterRenderer<Object> renderer) {
+            this(automaticQuoting, renderer, "toString");
+        }
+
+        private ValueRenderer(final Quoting automaticQuoting, final ParameterRenderer<Object> renderer,
+                final String operation) {
+            this.automaticQuoting = automaticQuoting;
+            this.renderer = renderer;
+            this.operation = operation;
+        }
+
+        @Override
+        public void render(final StringBuilder target, final Object value, final Quoting quoting)
+                throws IOException {
+            final Quoting effectiveQuoting = (quoting == Quoting.AUTOMATIC) ? this.automaticQuoting : quoting;
+            switch (effectiveQuoting) {
+            case SINGLE_QUOTES:
+                target.append('\'');
+                renderGuarded(target, value);
+                target.append('\'');
+                break;
+            case DOUBLE_QUOTES:
+                target.append('"');
+                renderGuarded(target, value);
+                target.append('"');
+                break;
+            default:
+                renderGuarded(target, value);
+            }
+        }
+
+        private void renderGuarded(final StringBuilder target, final Object value) throws IOException {
+            final int maxLength = RenderingLimits.getDefault().getMaxParameterLength();
+            final Appendable cappedTarget = (maxLength == RenderingLimits.UNLIMITED) ? target
+                    : new LengthCappingAppendable(target, maxLength);
+            final int start = target.length();
+            try {
+                this.renderer.render(cappedTarget, value);
+            } catch (final RuntimeException exception) {
+                target.setLength(start);
+                target.append('<').append(this.operation).append(" failed: ").append(value.getClass().getName())
+                        .append('>');
+            }
+        }
+    }
+}
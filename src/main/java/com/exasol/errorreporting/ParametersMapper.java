@@ -4,7 +4,7 @@ package com.exasol.errorreporting;
  * Class for parsing a text with placeholders and setting the right parameter mapping in an {@link ErrorMessageBuilder}.
  */
 class ParametersMapper {
-    private final String text;
+    private final MessageTemplate template;
     private final Object[] parameters;
     private int parameterIndex;
     private final ErrorMessageBuilder errorMessageBuilder;
@@ -13,27 +13,26 @@ class ParametersMapper {
      * Given a text that may contain placeholders, and an array of parameters, and an {@link ErrorMessageBuilder},
      * generates a map with the placeholders and the parameters by adding them to the {@link ErrorMessageBuilder}.
      *
-     * @param text                text that may contain placeholders
+     * @param template            compiled text that may contain placeholders
      * @param parameters          parameters to be mapped
      * @param errorMessageBuilder {@link ErrorMessageBuilder} to add the parameters to
      */
-    static void mapParametersByName(final String text, final Object[] parameters,
+    static void mapParametersByName(final MessageTemplate template, final Object[] parameters,
             final ErrorMessageBuilder errorMessageBuilder) {
-        new ParametersMapper(text, parameters, errorMessageBuilder).mapParameters();
+        new ParametersMapper(template, parameters, errorMessageBuilder).mapParameters();
     }
 
-    private ParametersMapper(final String text, final Object[] arguments,
+    private ParametersMapper(final MessageTemplate template, final Object[] arguments,
             final ErrorMessageBuilder errorMessageBuilder) {
         this.parameters = arguments;
         this.parameterIndex = 0;
         this.errorMessageBuilder = errorMessageBuilder;
-        this.text = text;
+        this.template = template;
     }
 
     private void mapParameters() {
-        final Iterable<Placeholder> placeholders = PlaceholderMatcher.findPlaceholders(this.text);
-        for (final Placeholder placeholder : placeholders) {
-            this.mapParameter(placeholder);
+        for (int i = 0; i < this.template.getPlaceholderCount(); ++i) {
+            this.mapParameter(this.template.getPlaceholder(i));
             this.moveToNextParameter();
         }
     }
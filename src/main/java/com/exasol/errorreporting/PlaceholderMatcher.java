@@ -2,8 +2,6 @@ package com.exasol.errorreporting;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * An iterable for placeholder in a given text.
@@ -32,8 +30,7 @@ public class PlaceholderMatcher implements Iterable<Placeholder> {
     }
 
     private static class PlaceholderIterator implements Iterator<Placeholder> {
-        private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("\\{\\{([^}]*)}+");
-        private final Matcher matcher;
+        private final PlaceholderScanner scanner;
         private boolean hasNext;
 
         /**
@@ -42,19 +39,8 @@ public class PlaceholderMatcher implements Iterable<Placeholder> {
          * @param text containing placeholders to iterate.
          */
         private PlaceholderIterator(final String text) {
-            this.matcher = PLACEHOLDER_PATTERN.matcher(text);
-            this.hasNext = this.matcher.find();
-        }
-
-        /**
-         * Get the current placeholder.
-         *
-         * @return current {@link Placeholder}.
-         */
-        private Placeholder getPlaceholder() {
-            final String placeholderString = this.matcher.group(1);
-            final Placeholder.Builder builder = Placeholder.parse(placeholderString);
-            return builder.startIndex(this.matcher.start()).endIndex(this.matcher.end()).build();
+            this.scanner = new PlaceholderScanner(text);
+            this.hasNext = this.scanner.find();
         }
 
         @Override
@@ -65,8 +51,8 @@ public class PlaceholderMatcher implements Iterable<Placeholder> {
         @Override
         public Placeholder next() {
             if (this.hasNext()) {
-                final Placeholder placeholder = getPlaceholder();
-                this.hasNext = this.matcher.find();
+                final Placeholder placeholder = this.scanner.toPlaceholder();
+                this.hasNext = this.scanner.find();
                 return placeholder;
             } else {
                 throw new NoSuchElementException();
@@ -0,0 +1,195 @@
+package com.exasol.errorreporting;
+
+/**
+ * Single-pass scanner that finds placeholders in a text.
+ * <p>
+ * The scanner reports the positions of the placeholder it found last as offsets into the original text, so that no
+ * intermediate strings need to be created. It recognizes exactly the same placeholders as the regular expression
+ * <code>\{\{([^}]*)}+</code>: a placeholder starts with two opening braces, the content reaches up to the first closing
+ * brace, and all directly following closing braces belong to the placeholder.
+ * </p>
+ * <p>
+ * The content consists of the reference, optionally followed by a pipe symbol and switches that control quoting.
+ * </p>
+ */
+final class PlaceholderScanner {
+    private static final int NOT_FOUND = -1;
+    private final String text;
+    private int position = 0;
+    private int startIndex = NOT_FOUND;
+    private int endIndex = NOT_FOUND;
+    private int contentEndIndex = NOT_FOUND;
+    private int separatorIndex = NOT_FOUND;
+
+    /**
+     * Create a new scanner for a text.
+     *
+     * @param text text to be scanned for placeholders
+     */
+    PlaceholderScanner(final String text) {
+        this.text = text;
+    }
+
+    /**
+     * Advance to the next placeholder.
+     *
+     * @return {@code true} if another placeholder was found
+     */
+    boolean find() {
+        final int length = this.text.length();
+        final int openingIndex = this.text.indexOf("{{", this.position);
+        if (openingIndex < 0) {
+            return reachEnd(length);
+        }
+        int index = openingIndex + 2;
+        int firstSeparatorIndex = NOT_FOUND;
+        while ((index < length) && (this.text.charAt(index) != '}')) {
+            if ((firstSeparatorIndex == NOT_FOUND) && (this.text.charAt(index) == '|')) {
+                firstSeparatorIndex = index;
+            }
+            ++index;
+        }
+        if (index == length) {
+            // No closing brace after this opening, so no later opening can have one either.
+            return reachEnd(length);
+        }
+        this.startIndex = openingIndex;
+        this.contentEndIndex = index;
+        this.separatorIndex = firstSeparatorIndex;
+        while ((index < length) && (this.text.charAt(index) == '}')) {
+            ++index;
+        }
+        this.endIndex = index;
+        this.position = index;
+        return true;
+    }
+
+    private boolean reachEnd(final int length) {
+        this.position = length;
+        this.startIndex = NOT_FOUND;
+        this.endIndex = NOT_FOUND;
+        this.contentEndIndex = NOT_FOUND;
+        this.separatorIndex = NOT_FOUND;
+        return false;
+    }
+
+    /**
+     * Get the index of the first opening brace of the current placeholder.
+     *
+     * @return start index (inclusive)
+     */
+    int getStartIndex() {
+        return this.startIndex;
+    }
+
+    /**
+     * Get the index directly after the last closing brace of the current placeholder.
+     *
+     * @return end index (exclusive)
+     */
+    int getEndIndex() {
+        return this.endIndex;
+    }
+
+    /**
+     * Get the index where the reference of the current placeholder starts.
+     *
+     * @return reference start index (inclusive)
+     */
+    int getReferenceStartIndex() {
+        return this.startIndex + 2;
+    }
+
+    /**
+     * Get the index where the reference of the current placeholder ends.
+     *
+     * @return reference end index (exclusive)
+     */
+    int getReferenceEndIndex() {
+        return hasSwitches() ? this.separatorIndex : this.contentEndIndex;
+    }
+
+    /**
+     * Check if the current placeholder has a switches section.
+     *
+     * @return {@code true} if the placeholder contains a pipe symbol
+     */
+    boolean hasSwitches() {
+        return this.separatorIndex != NOT_FOUND;
+    }
+
+    /**
+     * Get the index where the switches of the current placeholder start.
+     *
+     * @return switches start index (inclusive) or -1 if the placeholder has no switches
+     */
+    int getSwitchesStartIndex() {
+        return hasSwitches() ? this.separatorIndex + 1 : NOT_FOUND;
+    }
+
+    /**
+     * Get the index where the switches of the current placeholder end.
+     *
+     * @return switches end index (exclusive) or -1 if the placeholder has no switches
+     */
+    int getSwitchesEndIndex() {
+        return hasSwitches() ? this.contentEndIndex : NOT_FOUND;
+    }
+
+    /**
+     * Get the reference of the current placeholder.
+     *
+     * @return reference
+     */
+    String getReference() {
+        return this.text.substring(getReferenceStartIndex(), getReferenceEndIndex());
+    }
+
+    /**
+     * Get the quoting selected by the switches of the current placeholder.
+     * <p>
+     * The rules are the same as in {@link Placeholder#parse(String)}.
+     * </p>
+     *
+     * @return quoting
+     */
+    Quoting getQuoting() {
+        if (hasSwitches()) {
+            boolean singleQuotes = false;
+            boolean doubleQuotes = false;
+            for (int index = getSwitchesStartIndex(); index < this.contentEndIndex; ++index) {
+                switch (this.text.charAt(index)) {
+                case 'u':
+                    return Quoting.UNQUOTED;
+                case 'q':
+                    singleQuotes = true;
+                    break;
+                case 'd':
+                    doubleQuotes = true;
+                    break;
+                default:
+                    break;
+                }
+            }
+            if (singleQuotes) {
+                return Quoting.SINGLE_QUOTES;
+            } else if (doubleQuotes) {
+                return Quoting.DOUBLE_QUOTES;
+            }
+        }
+        return Quoting.AUTOMATIC;
+    }
+
+    /**
+     * Create a {@link Placeholder} from the current scan position.
+     *
+     * @return placeholder
+     */
+    Placeholder toPlaceholder() {
+        return new Placeholder.Builder(getReference()) //
+                .quoting(getQuoting()) //
+                .startIndex(this.startIndex) //
+                .endIndex(this.endIndex) //
+                .build();
+    }
+}
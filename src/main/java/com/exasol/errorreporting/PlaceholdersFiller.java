@@ -1,97 +1,138 @@
 package com.exasol.errorreporting;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 /**
  * This class replaces the placeholders in a text.
  */
 class PlaceholdersFiller {
-    private final StringBuilder result;
-    private final String text;
-    private final ParameterDefinitionList parameters;
-    private int previousPlaceholderEndPosition;
+    private PlaceholdersFiller() {
+        // prevent instantiation
+    }
 
     /**
-     * Fill the placeholders, if any, of the passed text with the passed parameters.
+     * Fill the placeholders, if any, of the passed template with the passed parameters and append the result to a
+     * target.
      *
-     * @param text               text that may contain placeholders
-     * @param parameters         parameters to fill the placeholders in the text passed
-     * @return text with its placeholders filled
+     * @param target     target to append the filled text to
+     * @param template   compiled text that may contain placeholders
+     * @param parameters parameters to fill the placeholders in the template passed
+     * @throws IOException if appending to the target fails
      */
-    static String fillPlaceholders(final String text, final ParameterDefinitionList parameters) {
-        return new PlaceholdersFiller(text, parameters).fillPlaceholders();
-    }
-
-    private PlaceholdersFiller(final String text, final ParameterDefinitionList parameters) {
-        this.parameters = parameters;
-        this.result = new StringBuilder();
-        this.text = text;
-        this.previousPlaceholderEndPosition = 0;
-    }
-
-    private String fillPlaceholders() {
-        final Iterable<Placeholder> placeholders = PlaceholderMatcher.findPlaceholders(this.text);
-        for (final Placeholder placeholder : placeholders) {
-            this.appendSectionBeforePlaceholder(placeholder);
-            this.fillPlaceholder(placeholder);
-            this.moveToNextPlaceholder(placeholder);
+    static void fillPlaceholders(final Appendable target, final MessageTemplate template,
+            final ParameterDefinitionList parameters) throws IOException {
+        final int placeholderCount = template.getPlaceholderCount();
+        for (int i = 0; i < placeholderCount; ++i) {
+            target.append(template.getLiteral(i));
+            fillPlaceholder(target, template.getPlaceholder(i), parameters);
         }
-        this.appendRestOfTheMessage();
-        return this.getFullMessage();
-    }
-
-    private void appendSectionBeforePlaceholder(final Placeholder placeholder) {
-        this.append(this.getSectionBeforePlaceholder(placeholder));
-    }
-
-    private void fillPlaceholder(final Placeholder placeholder) {
-        this.append(this.getPlaceholderFilling(placeholder));
+        target.append(template.getLiteral(placeholderCount));
     }
 
-    private void append(final String text) {
-        this.result.append(text);
-    }
-
-    private void appendRestOfTheMessage() {
-        this.append(this.getRestOfTheMessage());
-    }
-
-    private String getSectionBeforePlaceholder(final Placeholder placeholder) {
-        return this.text.substring(this.previousPlaceholderEndPosition, placeholder.getStartIndex());
-    }
-
-    private String getRestOfTheMessage() {
-        return this.text.substring(this.previousPlaceholderEndPosition);
-    }
-
-    private void moveToNextPlaceholder(final Placeholder placeholder) {
-        this.previousPlaceholderEndPosition = placeholder.getEndIndex();
+    /**
+     * Fill the placeholders of the passed template with positional arguments and append the result to a target.
+     * <p>
+     * This gives the same result as mapping the arguments to parameters named like the placeholders and filling the
+     * template with those parameters followed by the passed parameters, but without creating parameter definitions.
+     * </p>
+     *
+     * @param target     target to append the filled text to
+     * @param template   compiled text that may contain placeholders
+     * @param arguments  arguments for the placeholders in order of their appearance
+     * @param parameters parameters for placeholders that have no argument
+     * @throws IOException if appending to the target fails
+     */
+    static void fillPlaceholders(final Appendable target, final MessageTemplate template, final Object[] arguments,
+            final ParameterDefinitionList parameters) throws IOException {
+        final int placeholderCount = template.getPlaceholderCount();
+        for (int i = 0; i < placeholderCount; ++i) {
+            target.append(template.getLiteral(i));
+            fillPlaceholder(target, template, i, arguments, parameters);
+        }
+        target.append(template.getLiteral(placeholderCount));
     }
 
-    private String getFullMessage() {
-        return this.result.toString();
+    /**
+     * Fill the placeholders of the passed template with positional arguments and write the result as UTF-8.
+     *
+     * @param target     sink to write the filled text to
+     * @param template   compiled text that may contain placeholders
+     * @param arguments  arguments for the placeholders in order of their appearance
+     * @param parameters parameters for placeholders that have no argument
+     */
+    static void fillPlaceholders(final Utf8Sink target, final MessageTemplate template, final Object[] arguments,
+            final ParameterDefinitionList parameters) {
+        final int placeholderCount = template.getPlaceholderCount();
+        try {
+            for (int i = 0; i < placeholderCount; ++i) {
+                target.writeEncoded(template.getUtf8Literal(i));
+                fillPlaceholder(target, template, i, arguments, parameters);
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Writing to a ByteBuffer does not throw I/O exceptions.", exception);
+        }
+        target.writeEncoded(template.getUtf8Literal(placeholderCount));
     }
 
-    private String getPlaceholderFilling(final Placeholder placeholder) {
-        if (this.isParameterPresent(placeholder)) {
-            return getPresentParameterPlaceholderFilling(placeholder);
+    private static void fillPlaceholder(final Appendable target, final MessageTemplate template, final int index,
+            final Object[] arguments, final ParameterDefinitionList parameters) throws IOException {
+        final int slot = template.getFirstSlot(index);
+        final Placeholder placeholder = template.getPlaceholder(index);
+        if (slot < arguments.length) {
+            Quoter.quoteObject(target, arguments[slot], placeholder.getQuoting());
         } else {
-            return getUnknownPlaceholderTextFor(placeholder);
+            fillPlaceholder(target, placeholder, parameters);
         }
     }
 
-    private boolean isParameterPresent(final Placeholder placeholder) {
-        return this.parameters.containsKey(placeholder.getReference());
-    }
-
-    private String getPresentParameterPlaceholderFilling(final Placeholder placeholder) {
-        return quoteParameterValue(placeholder);
+    /**
+     * Fill the placeholders, if any, of the passed template and write the result as UTF-8.
+     * <p>
+     * The literal text segments are copied from the pre-encoded bytes of the template. Only the parameter values are
+     * encoded.
+     * </p>
+     *
+     * @param target     sink to write the filled text to
+     * @param template   compiled text that may contain placeholders
+     * @param parameters parameters to fill the placeholders in the template passed
+     */
+    static void fillPlaceholders(final Utf8Sink target, final MessageTemplate template,
+            final ParameterDefinitionList parameters) {
+        final int placeholderCount = template.getPlaceholderCount();
+        try {
+            for (int i = 0; i < placeholderCount; ++i) {
+                target.writeEncoded(template.getUtf8Literal(i));
+                fillPlaceholder(target, template.getPlaceholder(i), parameters);
+            }
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("Writing to a ByteBuffer does not throw I/O exceptions.", exception);
+        }
+        target.writeEncoded(template.getUtf8Literal(placeholderCount));
     }
 
-    private String quoteParameterValue(final Placeholder placeholder) {
-        final ParameterDefinition parameter = this.parameters.get(placeholder.getReference());
-        return Quoter.quoteObject(parameter.getValue(), placeholder.getQuoting());
+    /**
+     * Fill a single placeholder with the matching parameter and append the result to a target.
+     *
+     * @param target      target to append the filled placeholder to
+     * @param placeholder placeholder to fill
+     * @param parameters  parameters to look up the placeholder's reference in
+     * @throws IOException if appending to the target fails
+     */
+    static void fillPlaceholder(final Appendable target, final Placeholder placeholder,
+            final ParameterDefinitionList parameters) throws IOException {
+        final ParameterDefinition parameter = parameters.lookup(placeholder.getReference());
+        if (parameter == null) {
+            appendUnknownPlaceholderText(target, placeholder);
+        } else if (parameter.hasLongValue()) {
+            Quoter.quoteLong(target, parameter.getLongValue(), placeholder.getQuoting());
+        } else {
+            Quoter.quoteObject(target, parameter.getValue(), placeholder.getQuoting());
+        }
     }
 
-    private String getUnknownPlaceholderTextFor(final Placeholder placeholder) {
-        return "UNKNOWN PLACEHOLDER('" + placeholder.getReference() + "')";
+    private static void appendUnknownPlaceholderText(final Appendable target, final Placeholder placeholder)
+            throws IOException {
+        target.append("UNKNOWN PLACEHOLDER('").append(placeholder.getReference()).append("')");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.exasol.errorreporting;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service that provides message templates which were parsed at build time.
+ * <p>
+ * Implementations are usually generated by the {@code error-reporting-java-processor} annotation processor and found
+ * via {@link java.util.ServiceLoader}. Whenever a builder sees a message or mitigation text for the first time, it
+ * looks up the template under the builder's error code before parsing the text itself.
+ * </p>
+ */
+public interface PrecompiledTemplateProvider {
+    /**
+     * Get the pre-parsed templates.
+     *
+     * @return map from error code to the templates of the messages and mitigations used with that error code
+     */
+    Map<String, List<MessageTemplate>> getTemplates();
+}
@@ -0,0 +1,78 @@
+package com.exasol.errorreporting;
+
+import java.util.*;
+
+/**
+ * Registry of the templates from all {@link PrecompiledTemplateProvider}s on the class path.
+ * <p>
+ * The providers are loaded once, the first time a template is looked up.
+ * </p>
+ */
+final class PrecompiledTemplates {
+    private static final PrecompiledTemplates INSTANCE = new PrecompiledTemplates(loadProviders());
+    private final Map<String, MessageTemplate[]> templates = new HashMap<>();
+
+    /**
+     * Create a registry of the templates of the given providers.
+     *
+     * @param providers providers of pre-parsed templates
+     */
+    PrecompiledTemplates(final List<PrecompiledTemplateProvider> providers) {
+        final Map<String, List<MessageTemplate>> collected = new HashMap<>();
+        for (final PrecompiledTemplateProvider provider : providers) {
+            for (final Map.Entry<String, List<MessageTemplate>> entry : provider.getTemplates().entrySet()) {
+                collected.computeIfAbsent(entry.getKey(), code -> new ArrayList<>()).addAll(entry.getValue());
+            }
+        }
+        for (final Map.Entry<String, List<MessageTemplate>> entry : collected.entrySet()) {
+            this.templates.put(entry.getKey(), entry.getValue().toArray(new MessageTemplate[0]));
+        }
+    }
+
+    private static List<PrecompiledTemplateProvider> loadProviders() {
+        final List<PrecompiledTemplateProvider> providers = new ArrayList<>();
+        final Iterator<PrecompiledTemplateProvider> iterator = ServiceLoader.load(PrecompiledTemplateProvider.class)
+                .iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    return providers;
+                }
+                providers.add(iterator.next());
+            } catch (final ServiceConfigurationError error) {
+                // A broken provider only means that its templates are parsed at runtime.
+            }
+        }
+    }
+
+    /**
+     * Find the pre-parsed template for a text used with an error code in the templates of all providers.
+     *
+     * @param errorCode error code of the builder
+     * @param text      message or mitigation text
+     * @return pre-parsed template or {@code null} if there is none
+     */
+    static MessageTemplate find(final String errorCode, final String text) {
+        return INSTANCE.lookup(errorCode, text);
+    }
+
+    /**
+     * Look up the pre-parsed template for a text used with an error code.
+     *
+     * @param errorCode error code of the builder
+     * @param text      message or mitigation text
+     * @return pre-parsed template or {@code null} if there is none
+     */
+    MessageTemplate lookup(final String errorCode, final String text) {
+        final MessageTemplate[] candidates = this.templates.get(errorCode);
+        if (candidates != null) {
+            for (final MessageTemplate candidate : candidates) {
+                // Texts are usually constants, so the identity check in equals() succeeds without comparing characters.
+                if (candidate.getText().equals(text)) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -1,12 +1,18 @@
 package com.exasol.errorreporting;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.*;
 
 /**
  * This class quotes objects for the use in error messages.
  */
 class Quoter {
+    static final long UNKNOWN_SIZE = -1;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final int MAX_RETAINED_SCRATCH_CAPACITY = 8 * 1024;
+    private static final ThreadLocal<StringBuilder> SCRATCH = new ThreadLocal<>();
 
     private Quoter() {
         // empty on purpose
@@ -20,30 +26,282 @@ class Quoter {
      * @return quoted object
      */
     static String quoteObject(final Object object, final Quoting quoting) {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            quoteObject(builder, object, quoting);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Append a quoted string representation of the object passed to a target.
+     * <p>
+     * The {@link ParameterRenderers} decide how the object is formatted and how it is quoted automatically. The text
+     * of single values is cut at the {@link RenderingLimits#getMaxParameterLength() maximum parameter length}, the
+     * quotes around it are kept.
+     * </p>
+     * <p>
+     * An error message is usually created while handling another error, so a failing renderer must not replace that
+     * error with a new exception. This includes containers whose iteration fails, for example because they were
+     * modified concurrently. In that case a placeholder text with the name of the object's class is appended instead.
+     * </p>
+     * <p>
+     * Text that a renderer wrote before it failed must not end up in the message. A {@link StringBuilder} target is
+     * cut back to where the value started. For other targets the value is rendered into a per-thread scratch buffer
+     * first and only copied to the target when it is complete.
+     * </p>
+     *
+     * @param target  target to append to
+     * @param object  object to quote
+     * @param quoting quoting style to be used
+     * @throws IOException if appending to the target fails
+     */
+    static void quoteObject(final Appendable target, final Object object, final Quoting quoting)
+            throws IOException {
         if (object == null) {
-            return "<null>";
-        } else if (object instanceof Collection) {
-            final Collection<?> collection = (Collection<?>) object;
-            return "[" + collection.stream().map(item -> quoteObject(item, quoting))
-                    .collect(Collectors.joining(", ")) + "]";
+            target.append("<null>");
+        } else if (target instanceof StringBuilder) {
+            renderRecoverably((StringBuilder) target, object, quoting);
         } else {
-            switch (quoting) {
-            case SINGLE_QUOTES:
-                return "'" + object + "'";
-            case DOUBLE_QUOTES:
-                return "\"" + object + "\"";
-            case UNQUOTED:
-                return object.toString();
-            default:
-                if (object instanceof String || object instanceof Character || object instanceof java.nio.file.Path
-                        || object instanceof java.io.File || object instanceof java.net.URL
-                        || object instanceof java.net.URI) {
-                    return "'" + object + "'";
-                }
-                else {
-                    return object.toString();
+            final StringBuilder scratch = acquireScratch();
+            try {
+                renderRecoverably(scratch, object, quoting);
+                target.append(scratch);
+            } finally {
+                releaseScratch(scratch);
+            }
+        }
+    }
+
+    private static void renderRecoverably(final StringBuilder target, final Object object, final Quoting quoting)
+            throws IOException {
+        final int start = target.length();
+        try {
+            ParameterRenderers.resolve(object.getClass()).render(target, object, quoting);
+        } catch (final RuntimeException exception) {
+            // Remove what was rendered before the failure, e.g. the first elements of a collection.
+            target.setLength(start);
+            target.append("<rendering failed: ").append(object.getClass().getName()).append('>');
+        }
+    }
+
+    // A nested render on the same thread finds no scratch buffer while the outer one is in use and creates its own.
+    private static StringBuilder acquireScratch() {
+        final StringBuilder scratch = SCRATCH.get();
+        if (scratch == null) {
+            return new StringBuilder();
+        } else {
+            SCRATCH.set(null);
+            return scratch;
+        }
+    }
+
+    private static void releaseScratch(final StringBuilder scratch) {
+        if (scratch.capacity() <= MAX_RETAINED_SCRATCH_CAPACITY) {
+            scratch.setLength(0);
+            SCRATCH.set(scratch);
+        }
+    }
+
+    /**
+     * Append a quoted representation of a {@code long} value to a target without boxing it.
+     *
+     * @param target  target to append to
+     * @param value   value to quote
+     * @param quoting quoting style to be used
+     * @throws IOException if appending to the target fails
+     */
+    static void quoteLong(final Appendable target, final long value, final Quoting quoting) throws IOException {
+        switch (quoting) {
+        case SINGLE_QUOTES:
+            target.append('\'');
+            appendLong(target, value);
+            target.append('\'');
+            break;
+        case DOUBLE_QUOTES:
+            target.append('"');
+            appendLong(target, value);
+            target.append('"');
+            break;
+        default:
+            appendLong(target, value);
+        }
+    }
+
+    /**
+     * Append the elements of a collection or iterable, each quoted like a single value.
+     *
+     * @param target   target to append to
+     * @param iterator iterator over the elements
+     * @param size     number of elements or {@link #UNKNOWN_SIZE}
+     * @param quoting  quoting style to be used for the elements
+     * @throws IOException if appending to the target fails
+     */
+    static void quoteElements(final StringBuilder target, final Iterator<?> iterator, final long size,
+            final Quoting quoting) throws IOException {
+        final CappedContainer container = new CappedContainer(target, '[');
+        while (iterator.hasNext() && container.hasRoom()) {
+            container.separate();
+            quoteObject(target, iterator.next(), quoting);
+        }
+        container.close(size, iterator.hasNext(), ']');
+    }
+
+    /**
+     * Append the elements of an array, each quoted like a single value.
+     *
+     * @param target  target to append to
+     * @param array   array of any component type
+     * @param quoting quoting style to be used for the elements
+     * @throws IOException if appending to the target fails
+     */
+    static void quoteArray(final StringBuilder target, final Object array, final Quoting quoting)
+            throws IOException {
+        final int length = Array.getLength(array);
+        final CappedContainer container = new CappedContainer(target, '[');
+        for (int i = 0; (i < length) && container.hasRoom(); ++i) {
+            container.separate();
+            quoteObject(target, Array.get(array, i), quoting);
+        }
+        container.close(length, container.written < length, ']');
+    }
+
+    /**
+     * Append the entries of a map, with keys and values quoted like single values.
+     *
+     * @param target  target to append to
+     * @param map     map to append
+     * @param quoting quoting style to be used for keys and values
+     * @throws IOException if appending to the target fails
+     */
+    static void quoteMap(final StringBuilder target, final Map<?, ?> map, final Quoting quoting)
+            throws IOException {
+        final Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator();
+        final CappedContainer container = new CappedContainer(target, '{');
+        while (iterator.hasNext() && container.hasRoom()) {
+            final Map.Entry<?, ?> entry = iterator.next();
+            container.separate();
+            quoteObject(target, entry.getKey(), quoting);
+            target.append('=');
+            quoteObject(target, entry.getValue(), quoting);
+        }
+        container.close(map.size(), iterator.hasNext(), '}');
+    }
+
+    /**
+     * Append the bytes of an array as hexadecimal number, capped at the maximum number of elements.
+     *
+     * @param target target to append to
+     * @param bytes  bytes to append
+     * @throws IOException if appending to the target fails
+     */
+    static void appendHex(final Appendable target, final byte[] bytes) throws IOException {
+        final int count = Math.min(bytes.length, RenderingLimits.getDefault().getMaxElements());
+        target.append("0x");
+        for (int i = 0; i < count; ++i) {
+            target.append(HEX_DIGITS[(bytes[i] >> 4) & 0xF]).append(HEX_DIGITS[bytes[i] & 0xF]);
+        }
+        if (count < bytes.length) {
+            target.append(String.format(Locale.ROOT, "... (%,d more bytes)", bytes.length - count));
+        }
+    }
+
+    /**
+     * Append the decimal digits of a {@code long} value.
+     * <p>
+     * {@link StringBuilder} writes the digits directly into its buffer. For other targets the digits are appended one
+     * by one, most significant first, so that no intermediate string or buffer is needed.
+     * </p>
+     */
+    static void appendLong(final Appendable target, final long value) throws IOException {
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(value);
+        } else if (value == Long.MIN_VALUE) {
+            target.append("-9223372036854775808");
+        } else {
+            long remaining = value;
+            if (remaining < 0) {
+                target.append('-');
+                remaining = -remaining;
+            }
+            long divisor = 1;
+            while ((remaining / divisor) >= 10) {
+                divisor *= 10;
+            }
+            while (divisor > 0) {
+                target.append((char) ('0' + ((remaining / divisor) % 10)));
+                divisor /= 10;
+            }
+        }
+    }
+
+    static void appendDouble(final Appendable target, final double value) throws IOException {
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(value);
+        } else {
+            target.append(Double.toString(value));
+        }
+    }
+
+    static void appendFloat(final Appendable target, final float value) throws IOException {
+        if (target instanceof StringBuilder) {
+            ((StringBuilder) target).append(value);
+        } else {
+            target.append(Float.toString(value));
+        }
+    }
+
+    /**
+     * Get the text that replaces the elements of a container that are not rendered.
+     *
+     * @param size    number of elements or {@link #UNKNOWN_SIZE}
+     * @param written number of elements that were rendered
+     * @return truncation note, for example {@code ... (499,997 more)}
+     */
+    static String getTruncationNote(final long size, final int written) {
+        return (size == UNKNOWN_SIZE) ? "..." : String.format(Locale.ROOT, "... (%,d more)", size - written);
+    }
+
+    /**
+     * Container that is rendered until the {@link RenderingLimits} are reached.
+     */
+    private static final class CappedContainer {
+        private final StringBuilder target;
+        private final int start;
+        private final int maxElements;
+        private final int maxLength;
+        private int written = 0;
+
+        private CappedContainer(final StringBuilder target, final char opening) {
+            final RenderingLimits limits = RenderingLimits.getDefault();
+            this.target = target;
+            this.start = target.length();
+            this.maxElements = limits.getMaxElements();
+            this.maxLength = limits.getMaxContainerLength();
+            this.target.append(opening);
+        }
+
+        private boolean hasRoom() {
+            return (this.written < this.maxElements) && ((this.target.length() - this.start) < this.maxLength);
+        }
+
+        private void separate() {
+            if (this.written > 0) {
+                this.target.append(", ");
+            }
+            ++this.written;
+        }
+
+        private void close(final long size, final boolean truncated, final char closing) {
+            if (truncated) {
+                if (this.written > 0) {
+                    this.target.append(", ");
                 }
+                this.target.append(getTruncationNote(size, this.written));
             }
+            this.target.append(closing);
         }
     }
 }
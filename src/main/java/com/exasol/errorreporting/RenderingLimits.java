@@ -0,0 +1,180 @@
+package com.exasol.errorreporting;
+
+/**
+ * Limits for rendering parameter values that can grow without bounds, like collections, arrays and maps.
+ * <p>
+ * Containers are rendered element by element until either the maximum number of elements is reached or the rendered
+ * text of the container reaches the maximum length. The remaining elements are summarized, for example
+ * {@code [1, 2, 3, ... (499,997 more)]}. The length is checked between elements, so a single element is never cut.
+ * </p>
+ * <p>
+ * In addition, the rendered text of each single value, including each element of a container, can be limited to a
+ * maximum length. This keeps huge texts, for example from a {@link Object#toString()} that dumps a whole result set,
+ * out of the message. The limit applies to the text between the quotes, so that quotes stay balanced. By default the
+ * parameter length is unlimited.
+ * </p>
+ * <p>
+ * The limits bound the size of the message, not the cost of rendering it. Values without a dedicated renderer are
+ * rendered with {@link Object#toString()}, which builds the complete text before it is cut. For types whose
+ * {@code toString()} is slow or huge, register a {@link ParameterRenderer} that writes a short summary instead.
+ * </p>
+ * <p>
+ * The limits apply to all rendered messages. Use {@link #setDefault(RenderingLimits)} to change them, for example at
+ * application start. Containers are capped by default; set {@link Builder#maxElements(int)} and
+ * {@link Builder#maxContainerLength(int)} to {@link #UNLIMITED} to render them completely.
+ * </p>
+ */
+public final class RenderingLimits {
+    /** Default maximum number of elements rendered per container. */
+    public static final int DEFAULT_MAX_ELEMENTS = 100;
+    /** Default maximum length of the rendered text of a container. */
+    public static final int DEFAULT_MAX_CONTAINER_LENGTH = 2000;
+    /** Value for limits that do not restrict the length. */
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+    private static volatile RenderingLimits defaultLimits = builder().build();
+    private final int maxElements;
+    private final int maxContainerLength;
+    private final int maxParameterLength;
+
+    private RenderingLimits(final Builder builder) {
+        this.maxElements = builder.maxElements;
+        this.maxContainerLength = builder.maxContainerLength;
+        this.maxParameterLength = builder.maxParameterLength;
+    }
+
+    /**
+     * Create a new builder for {@link RenderingLimits} that starts with the default values.
+     *
+     * @return new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the limits that are currently used for rendering.
+     *
+     * @return current limits
+     */
+    public static RenderingLimits getDefault() {
+        return defaultLimits;
+    }
+
+    /**
+     * Set the limits that are used for rendering from now on.
+     *
+     * @param limits new limits
+     */
+    public static void setDefault(final RenderingLimits limits) {
+        if (limits == null) {
+            throw new IllegalArgumentException("Rendering limits must not be null.");
+        }
+        defaultLimits = limits;
+    }
+
+    /**
+     * Get the maximum number of elements rendered per container.
+     *
+     * @return maximum number of elements
+     */
+    public int getMaxElements() {
+        return this.maxElements;
+    }
+
+    /**
+     * Get the length of the rendered text of a container after which no more elements are rendered.
+     *
+     * @return maximum container length in characters
+     */
+    public int getMaxContainerLength() {
+        return this.maxContainerLength;
+    }
+
+    /**
+     * Get the maximum length of the rendered text of a single value, not counting the quotes around it.
+     * <p>
+     * Longer texts are cut and end with {@code ...}. Containers are limited by {@link #getMaxElements()} and
+         * {@link #getMaxContainerLength()} instead, but each of their elements is cut at this length.
+     * </p>
+     * <p>
+     * The limit does not make rendering cheaper: a value rendered with {@link Object#toString()} is still converted to
+     * its complete text first.
+     * </p>
+     *
+     * @return maximum parameter length in characters or {@link #UNLIMITED}
+     */
+    public int getMaxParameterLength() {
+        return this.maxParameterLength;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderingLimits [maxElements=" + this.maxElements + ", maxContainerLength=" + this.maxContainerLength
+                + ", maxParameterLength=" + this.maxParameterLength + "]";
+    }
+
+    /**
+     * Builder for {@link RenderingLimits}.
+     */
+    public static final class Builder {
+        private int maxElements = DEFAULT_MAX_ELEMENTS;
+        private int maxContainerLength = DEFAULT_MAX_CONTAINER_LENGTH;
+        private int maxParameterLength = UNLIMITED;
+
+        private Builder() {
+            // use RenderingLimits.builder()
+        }
+
+        /**
+         * Set the maximum number of elements rendered per container.
+         *
+         * @param maxElements maximum number of elements, at least one
+         * @return self for fluent programming
+         * @throws IllegalArgumentException if the value is less than one
+         */
+        public Builder maxElements(final int maxElements) {
+            this.maxElements = requirePositive("maxElements", maxElements);
+            return this;
+        }
+
+        /**
+         * Set the length of the rendered text of a container after which no more elements are rendered.
+         *
+         * @param maxContainerLength maximum container length in characters, at least one
+         * @return self for fluent programming
+         * @throws IllegalArgumentException if the value is less than one
+         */
+        public Builder maxContainerLength(final int maxContainerLength) {
+            this.maxContainerLength = requirePositive("maxContainerLength", maxContainerLength);
+            return this;
+        }
+
+        /**
+         * Set the maximum length of the rendered text of a parameter.
+         *
+         * @param maxParameterLength maximum parameter length in characters, at least one, or {@link #UNLIMITED}
+         * @return self for fluent programming
+         * @throws IllegalArgumentException if the value is less than one
+         */
+        public Builder maxParameterLength(final int maxParameterLength) {
+            this.maxParameterLength = requirePositive("maxParameterLength", maxParameterLength);
+            return this;
+        }
+
+        /**
+         * Build new {@link RenderingLimits}.
+         *
+         * @return new limits
+         */
+        public RenderingLimits build() {
+            return new RenderingLimits(this);
+        }
+
+        private static int requirePositive(final String name, final int value) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " must be at least 1, but was " + value + ".");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Name of a database object like a schema, table or column, to be rendered as quoted SQL identifier.
+ * <p>
+ * In error messages, identifiers are enclosed in double quotes and double quotes inside the name are doubled, so that
+ * users can copy the identifier into an SQL statement:
+ * </p>
+ *
+ * <pre>
+ * ExaError.messageBuilder("E-TEST-1").message("Table {{table}} not found.", SqlIdentifier.of("MY \"TABLE\""))
+ * // E-TEST-1: Table "MY ""TABLE""" not found.
+ * </pre>
+ */
+public final class SqlIdentifier {
+    private final String name;
+
+    private SqlIdentifier(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * Create an identifier.
+     *
+     * @param name name of the database object, not quoted
+     * @return identifier
+     */
+    public static SqlIdentifier of(final String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("The name of an SQL identifier must not be null.");
+        }
+        return new SqlIdentifier(name);
+    }
+
+    /**
+     * Get the name of the database object.
+     *
+     * @return name, not quoted
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Append the identifier in double quotes with embedded double quotes doubled.
+     *
+     * @param target target to append to
+     * @throws IOException if appending to the target fails
+     */
+    void appendQuoted(final Appendable target) throws IOException {
+        target.append('"');
+        int start = 0;
+        int quote = this.name.indexOf('"');
+        while (quote >= 0) {
+            target.append(this.name, start, quote + 1).append('"');
+            start = quote + 1;
+            quote = this.name.indexOf('"', start);
+        }
+        target.append(this.name, start, this.name.length()).append('"');
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            appendQuoted(builder);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException("StringBuilder does not throw I/O exceptions.", exception);
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return (this == other) || ((other instanceof SqlIdentifier) && this.name.equals(((SqlIdentifier) other).name));
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode();
+    }
+}
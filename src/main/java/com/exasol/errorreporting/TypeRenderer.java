@@ -0,0 +1,27 @@
+package com.exasol.errorreporting;
+
+import java.io.IOException;
+
+/**
+ * Renders values of one type, including the quoting.
+ * <p>
+ * This is the resolved form of a {@link ParameterRenderer} together with its automatic quoting, and of the built-in
+ * renderers for containers whose elements are quoted individually.
+ * </p>
+ * <p>
+ * The target is always a {@link StringBuilder}, so that text written by a renderer that fails half-way can be removed
+ * again.
+ * </p>
+ */
+@FunctionalInterface
+interface TypeRenderer {
+    /**
+     * Render a value.
+     *
+     * @param target  target to append the rendered value to
+     * @param value   value to render, never {@code null}
+     * @param quoting quoting style requested by the placeholder
+     * @throws IOException if appending to the target fails
+     */
+    void render(StringBuilder target, Object value, Quoting quoting) throws IOException;
+}
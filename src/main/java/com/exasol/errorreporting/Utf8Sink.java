@@ -0,0 +1,190 @@
+package com.exasol.errorreporting;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link Appendable} that encodes characters as UTF-8 directly into a {@link ByteBuffer}.
+ * <p>
+ * The sink never throws on overflow. Instead it keeps counting the bytes that would have been written, so that the
+ * caller learns the required size in a single pass. What happens to the buffer on overflow depends on the
+ * {@link OverflowHandling}: the position is either reset to where it was before, leaving the bytes that were written
+ * behind it, or the output is cut at a character boundary and ends with {@link #TRUNCATION_MARKER}.
+ * </p>
+ * <p>
+ * Unpaired surrogates are encoded as {@code '?'}, like {@link String#getBytes(java.nio.charset.Charset)} does.
+ * </p>
+ */
+final class Utf8Sink implements Appendable {
+    /** Marker that ends truncated output */
+    static final String TRUNCATION_MARKER = "...";
+    private static final byte[] TRUNCATION_MARKER_BYTES = TRUNCATION_MARKER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte REPLACEMENT = '?';
+    private final ByteBuffer target;
+    private final OverflowHandling overflowHandling;
+    private final int startPosition;
+    private int requiredBytes = 0;
+    private boolean overflow = false;
+    private char pendingHighSurrogate = 0;
+
+    /**
+     * Create a new sink that writes at the current position of a buffer and rejects output that does not fit.
+     *
+     * @param target buffer to write to
+     */
+    Utf8Sink(final ByteBuffer target) {
+        this(target, OverflowHandling.REJECT);
+    }
+
+    /**
+     * Create a new sink that writes at the current position of a buffer.
+     *
+     * @param target           buffer to write to
+     * @param overflowHandling what to do if the output does not fit
+     */
+    Utf8Sink(final ByteBuffer target, final OverflowHandling overflowHandling) {
+        this.target = target;
+        this.overflowHandling = overflowHandling;
+        this.startPosition = target.position();
+    }
+
+    @Override
+    public Utf8Sink append(final CharSequence sequence) {
+        final CharSequence text = (sequence == null) ? "null" : sequence;
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public Utf8Sink append(final CharSequence sequence, final int start, final int end) {
+        final CharSequence text = (sequence == null) ? "null" : sequence;
+        for (int i = start; i < end; ++i) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Utf8Sink append(final char character) {
+        if (this.pendingHighSurrogate != 0) {
+            final char highSurrogate = this.pendingHighSurrogate;
+            this.pendingHighSurrogate = 0;
+            if (Character.isLowSurrogate(character)) {
+                writeCodePoint(Character.toCodePoint(highSurrogate, character));
+                return this;
+            } else {
+                writeByte(REPLACEMENT);
+            }
+        }
+        if (character < 0x80) {
+            writeByte((byte) character);
+        } else if (character < 0x800) {
+            if (reserve(2)) {
+                this.target.put((byte) (0xC0 | (character >> 6)));
+                this.target.put((byte) (0x80 | (character & 0x3F)));
+            }
+        } else if (Character.isHighSurrogate(character)) {
+            this.pendingHighSurrogate = character;
+        } else if (Character.isLowSurrogate(character)) {
+            writeByte(REPLACEMENT);
+        } else if (reserve(3)) {
+            this.target.put((byte) (0xE0 | (character >> 12)));
+            this.target.put((byte) (0x80 | ((character >> 6) & 0x3F)));
+            this.target.put((byte) (0x80 | (character & 0x3F)));
+        }
+        return this;
+    }
+
+    private void writeCodePoint(final int codePoint) {
+        if (reserve(4)) {
+            this.target.put((byte) (0xF0 | (codePoint >> 18)));
+            this.target.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            this.target.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            this.target.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    private void writeByte(final byte value) {
+        if (reserve(1)) {
+            this.target.put(value);
+        }
+    }
+
+    /**
+     * Write bytes that are already UTF-8 encoded.
+     * <p>
+     * If the bytes do not fit completely, the sink writes as many complete characters as fit, like it does for
+     * characters appended one by one.
+     * </p>
+     *
+     * @param bytes encoded bytes
+     */
+    void writeEncoded(final byte[] bytes) {
+        flushPendingSurrogate();
+        final int fittingBytes = this.overflow ? 0 : Math.min(bytes.length, this.target.remaining());
+        if (reserve(bytes.length)) {
+            this.target.put(bytes);
+        } else if (fittingBytes > 0) {
+            int end = fittingBytes;
+            while ((end > 0) && isContinuationByte(bytes[end])) {
+                --end;
+            }
+            this.target.put(bytes, 0, end);
+        }
+    }
+
+    private boolean reserve(final int bytes) {
+        this.requiredBytes += bytes;
+        if (!this.overflow && (this.target.remaining() < bytes)) {
+            this.overflow = true;
+        }
+        return !this.overflow;
+    }
+
+    private void flushPendingSurrogate() {
+        if (this.pendingHighSurrogate != 0) {
+            this.pendingHighSurrogate = 0;
+            writeByte(REPLACEMENT);
+        }
+    }
+
+    /**
+     * Finish writing.
+     * <p>
+     * If the output did not fit, the buffer is rejected or truncated according to the {@link OverflowHandling}. If not
+     * even the truncation marker fits, the output is rejected.
+     * </p>
+     *
+     * @return number of bytes the complete output needs
+     */
+    int finish() {
+        flushPendingSurrogate();
+        if (this.overflow) {
+            if (this.overflowHandling == OverflowHandling.TRUNCATE) {
+                truncate();
+            } else {
+                this.target.position(this.startPosition);
+            }
+        }
+        return this.requiredBytes;
+    }
+
+    private void truncate() {
+        int position = this.target.position();
+        while ((position > this.startPosition) && ((this.target.limit() - position) < TRUNCATION_MARKER_BYTES.length)) {
+            --position;
+            while ((position > this.startPosition) && isContinuationByte(this.target.get(position))) {
+                --position;
+            }
+        }
+        if ((this.target.limit() - position) >= TRUNCATION_MARKER_BYTES.length) {
+            this.target.position(position);
+            this.target.put(TRUNCATION_MARKER_BYTES);
+        } else {
+            this.target.position(this.startPosition);
+        }
+    }
+
+    private static boolean isContinuationByte(final byte value) {
+        return (value & 0xC0) == 0x80;
+    }
+}
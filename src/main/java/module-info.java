@@ -2,5 +2,9 @@
  * This module provides a Java-Builder for Exasol error messages.
  */
 module error.reporting.java {
+    requires static java.management;
+
     exports com.exasol.errorreporting;
+
+    uses com.exasol.errorreporting.PrecompiledTemplateProvider;
 }
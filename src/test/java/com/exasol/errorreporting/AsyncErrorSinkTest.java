@@ -0,0 +1,259 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class AsyncErrorSinkTest {
+    @Test
+    void testWritesAllMessagesOnClose() throws InterruptedException {
+        final StringBuilder target = new StringBuilder();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).separator("\n").build();
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("First {{a}}.", 1));
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-2").message("Second."));
+        sink.close();
+        assertThat(target.toString(), equalTo("E-ERJ-TEST-1: First 1.\nE-ERJ-TEST-2: Second.\n"));
+    }
+
+    @Test
+    void testSubmitCapturesBuilderState() throws InterruptedException {
+        final StringBuilder target = new StringBuilder();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).separator("\n").build();
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("Before.");
+        sink.submit(builder);
+        builder.mitigation("Added later.");
+        sink.close();
+        assertThat(target.toString(), equalTo("E-ERJ-TEST-1: Before.\n"));
+    }
+
+    @Test
+    void testCloseFromBackgroundThreadDoesNotWaitForItself() throws InterruptedException {
+        final StringBuilder written = new StringBuilder();
+        final AsyncErrorSink[] sink = new AsyncErrorSink[1];
+        final CountDownLatch closedByTarget = new CountDownLatch(1);
+        final Appendable closingTarget = new Appendable() {
+            @Override
+            public Appendable append(final CharSequence text) {
+                written.append(text);
+                sink[0].close();
+                closedByTarget.countDown();
+                return this;
+            }
+
+            @Override
+            public Appendable append(final CharSequence text, final int start, final int end) {
+                return append(text.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(final char character) {
+                return append(String.valueOf(character));
+            }
+        };
+        sink[0] = AsyncErrorSink.builder(closingTarget).separator("\n").build();
+        sink[0].submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Closes the sink."));
+        assertAll(() -> assertThat(closedByTarget.await(10, TimeUnit.SECONDS), equalTo(true)),
+                () -> assertThat(sink[0].submit(ExaError.messageBuilder("E-ERJ-TEST-2").message("Late.")),
+                        equalTo(false)));
+        sink[0].close();
+        assertThat(written.toString(), equalTo("E-ERJ-TEST-1: Closes the sink.\n"));
+    }
+
+    @Test
+    void testRejectsAfterClose() throws InterruptedException {
+        final AsyncErrorSink sink = AsyncErrorSink.builder(new StringBuilder()).build();
+        sink.close();
+        assertThat(sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Late.")), equalTo(false));
+    }
+
+    @Test
+    void testBlockPolicyDeliversEverythingFromManyThreads() throws InterruptedException {
+        final StringBuilder target = new StringBuilder();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).separator("\n").capacity(4).batchSize(3)
+                .policy(BackpressurePolicy.BLOCK).build();
+        final List<Thread> producers = new ArrayList<>();
+        for (int producer = 0; producer < 4; ++producer) {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; ++i) {
+                    sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Message."));
+                }
+            });
+            producers.add(thread);
+            thread.start();
+        }
+        for (final Thread thread : producers) {
+            thread.join();
+        }
+        sink.close();
+        assertAll(() -> assertThat(target.toString().split("\n").length, equalTo(2000)),
+                () -> assertThat(sink.getDroppedCount(), equalTo(0L)));
+    }
+
+    @Test
+    void testDropPolicyCountsAndReportsDroppedMessages() throws InterruptedException {
+        final BlockingTarget target = new BlockingTarget();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).separator("\n").capacity(2).batchSize(1).build();
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Blocks the writer."));
+        target.awaitFirstWrite();
+        int accepted = 0;
+        for (int i = 0; i < 10; ++i) {
+            if (sink.submit(ExaError.messageBuilder("E-ERJ-TEST-2").message("Queued."))) {
+                ++accepted;
+            }
+        }
+        target.release();
+        sink.close();
+        final int acceptedMessages = accepted;
+        assertAll(() -> assertThat(acceptedMessages, equalTo(2)),
+                () -> assertThat(sink.getDroppedCount(), equalTo(8L)),
+                () -> assertThat(target.toString(), containsString("8 error messages were dropped")));
+    }
+
+    @Test
+    void testSamplePolicyKeepsShareOfMessagesUnderPressure() throws InterruptedException {
+        final BlockingTarget target = new BlockingTarget();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).capacity(64).batchSize(1)
+                .policy(BackpressurePolicy.SAMPLE).sampleRate(4).build();
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Blocks the writer."));
+        target.awaitFirstWrite();
+        int accepted = 0;
+        for (int i = 0; i < 100; ++i) {
+            if (sink.submit(ExaError.messageBuilder("E-ERJ-TEST-2").message("Sampled."))) {
+                ++accepted;
+            }
+        }
+        target.release();
+        sink.close();
+        final int acceptedMessages = accepted;
+        // The first 32 messages fill half the queue, then one of four of the remaining 68 passes.
+        assertAll(() -> assertThat(acceptedMessages, equalTo(32 + 17)),
+                () -> assertThat(sink.getDroppedCount(), equalTo(100L - 32 - 17)));
+    }
+
+    @Test
+    void testCountsWriteFailures() throws InterruptedException {
+        final AsyncErrorSink sink = AsyncErrorSink.builder(new FailingTarget()).build();
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Lost."));
+        sink.close();
+        assertThat(sink.getWriteFailureCount(), greaterThan(0L));
+    }
+
+    @Test
+    void testKeepsWritingAfterMessageWithFailingParameter() throws InterruptedException {
+        final StringBuilder target = new StringBuilder();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).separator("\n").build();
+        final Iterable<String> failing = () -> {
+            throw new IllegalStateException("closed");
+        };
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Broken {{values}}.", failing));
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-2").message("Still written."));
+        sink.close();
+        assertAll(() -> assertThat(target.toString(), startsWith("E-ERJ-TEST-1: ")),
+                () -> assertThat(target.toString(), endsWith("\nE-ERJ-TEST-2: Still written.\n")));
+    }
+
+    @Test
+    void testKeepsWritingAfterCollectionWasModifiedAfterSubmit() throws InterruptedException {
+        final BlockingTarget target = new BlockingTarget();
+        final AsyncErrorSink sink = AsyncErrorSink.builder(target).separator("\n").batchSize(1).build();
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-1").message("Blocks the writer."));
+        target.awaitFirstWrite();
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-2").message("Values {{values}}.", new ModifyingList()));
+        sink.submit(ExaError.messageBuilder("E-ERJ-TEST-3").message("Still written."));
+        target.release();
+        sink.close();
+        assertThat(target.toString(), endsWith("\nE-ERJ-TEST-3: Still written.\n"));
+    }
+
+    /**
+     * List that changes while it is being iterated, like a collection that another thread modifies after submitting.
+     */
+    private static class ModifyingList extends ArrayList<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        ModifyingList() {
+            super(List.of(1, 2, 3));
+        }
+
+        @Override
+        public Iterator<Integer> iterator() {
+            final Iterator<Integer> iterator = super.iterator();
+            add(4);
+            return iterator;
+        }
+    }
+
+    /**
+     * Target whose first write blocks until it is released.
+     */
+    private static class BlockingTarget implements Appendable {
+        private final StringBuffer written = new StringBuffer();
+        private final CountDownLatch firstWrite = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        void awaitFirstWrite() throws InterruptedException {
+            this.firstWrite.await(10, TimeUnit.SECONDS);
+        }
+
+        void release() {
+            this.released.countDown();
+        }
+
+        @Override
+        public Appendable append(final CharSequence text) {
+            this.written.append(text);
+            this.firstWrite.countDown();
+            try {
+                this.released.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(final CharSequence text, final int start, final int end) {
+            return append(text.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(final char character) {
+            return append(String.valueOf(character));
+        }
+
+        @Override
+        public String toString() {
+            return this.written.toString();
+        }
+    }
+
+    private static class FailingTarget implements Appendable {
+        @Override
+        public Appendable append(final CharSequence text) throws IOException {
+            throw new IOException("disk full");
+        }
+
+        @Override
+        public Appendable append(final CharSequence text, final int start, final int end) throws IOException {
+            throw new IOException("disk full");
+        }
+
+        @Override
+        public Appendable append(final char character) throws IOException {
+            throw new IOException("disk full");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BatchMessageRendererTest {
+    private static final String MESSAGE = "Invalid value {{value}} in column {{column|u}} at row {{row}}.";
+
+    @Test
+    void testRenderMatchesBuilder() {
+        final Object[] values = { "abc", 42, null };
+        final Object[] columnNames = { "A", "B", "C" };
+        final Object[] rows = { 1, 2L, 3 };
+        final List<String> rendered = BatchMessageRenderer.of(ExaError.messageBuilder("E-ERJ-TEST-1").message(MESSAGE))
+                .render(values, columnNames, rows);
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < values.length; ++i) {
+            expected.add(ExaError.messageBuilder("E-ERJ-TEST-1")
+                    .message(MESSAGE, values[i], columnNames[i], rows[i]).toString());
+        }
+        assertThat(rendered, equalTo(expected));
+    }
+
+    @Test
+    void testRenderWithMitigationsAndFixedParameters() {
+        final BatchMessageRenderer renderer = BatchMessageRenderer.of(ExaError.messageBuilder("E-ERJ-TEST-2")
+                .message("Column {{column}} is missing.").parameter("table", "T")
+                .mitigation("Add {{column}} to {{table}}.").mitigation("Use {{other}}."));
+        assertThat(renderer.render(new Object[] { "A", "B" }), contains(
+                "E-ERJ-TEST-2: Column 'A' is missing. Known mitigations:\n* Add 'A' to 'T'.\n"
+                        + "* Use UNKNOWN PLACEHOLDER('other').",
+                "E-ERJ-TEST-2: Column 'B' is missing. Known mitigations:\n* Add 'B' to 'T'.\n"
+                        + "* Use UNKNOWN PLACEHOLDER('other')."));
+    }
+
+    @Test
+    void testColumnTakesPrecedenceOverFixedParameter() {
+        final BatchMessageRenderer renderer = BatchMessageRenderer
+                .of(ExaError.messageBuilder("E-ERJ-TEST-3").message("Value {{value}}.").parameter("value", "fixed"));
+        assertThat(renderer.render(new Object[] { "column" }), contains("E-ERJ-TEST-3: Value 'column'."));
+    }
+
+    @Test
+    void testMissingColumnFallsBackToFixedParameter() {
+        final BatchMessageRenderer renderer = BatchMessageRenderer.of(ExaError.messageBuilder("E-ERJ-TEST-4")
+                .message("{{first}} and {{second}} and {{third}}.").parameter("second", 2));
+        assertThat(renderer.render(new Object[] { 1 }),
+                contains("E-ERJ-TEST-4: 1 and 2 and UNKNOWN PLACEHOLDER('third')."));
+    }
+
+    @Test
+    void testRepeatedPlaceholderUsesFirstColumn() {
+        final BatchMessageRenderer renderer = BatchMessageRenderer
+                .of(ExaError.messageBuilder("E-ERJ-TEST-5").message("{{a}}, {{b}}, {{a}}"));
+        assertThat(renderer.render(new Object[] { "x" }, new Object[] { "y" }, new Object[] { "ignored" }),
+                contains("E-ERJ-TEST-5: 'x', 'y', 'x'"));
+    }
+
+    @Test
+    void testRenderToAppendsSeparatedMessages() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        BatchMessageRenderer.of(ExaError.messageBuilder("E-ERJ-TEST-6").message("Row {{row}}."))
+                .renderTo(target, "\n", new Object[] { 1, 2 });
+        assertThat(target.toString(), equalTo("E-ERJ-TEST-6: Row 1.\nE-ERJ-TEST-6: Row 2.\n"));
+    }
+
+    @Test
+    void testRenderParallelEqualsSequential() {
+        final int rowCount = 10_000;
+        final Object[] rows = new Object[rowCount];
+        final Object[] names = new Object[rowCount];
+        for (int i = 0; i < rowCount; ++i) {
+            rows[i] = i;
+            names[i] = "name-" + i;
+        }
+        final BatchMessageRenderer renderer = BatchMessageRenderer
+                .of(ExaError.messageBuilder("E-ERJ-TEST-7").message("Row {{row}} named {{name}}."));
+        assertThat(renderer.renderParallel(rows, names), equalTo(renderer.render(rows, names)));
+    }
+
+    @Test
+    void testRejectsColumnsOfDifferentLength() {
+        final BatchMessageRenderer renderer = BatchMessageRenderer
+                .of(ExaError.messageBuilder("E-ERJ-TEST-8").message("{{a}} {{b}}"));
+        final Object[] shortColumn = { 1 };
+        final Object[] longColumn = { 1, 2 };
+        assertThrows(IllegalArgumentException.class, () -> renderer.render(shortColumn, longColumn));
+    }
+
+    @Test
+    void testRejectsMissingColumns() {
+        final BatchMessageRenderer renderer = BatchMessageRenderer
+                .of(ExaError.messageBuilder("E-ERJ-TEST-9").message("{{a}}"));
+        assertThrows(IllegalArgumentException.class, renderer::render);
+    }
+}
@@ -0,0 +1,121 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Renders error messages from many threads at the same time and checks every result.
+ * <p>
+ * The workload touches all shared state of the library: the template cache (with more distinct texts than cache
+ * slots), the placeholder scanner, pooled builders, interned error codes, prototypes and the parameter renderer
+ * cache, which is replaced while other threads render.
+ * </p>
+ */
+class ConcurrencyStressTest {
+    private static final int TASKS = 64;
+    private static final int ITERATIONS = 2_000;
+    private static final int DISTINCT_TEXTS = 2_048;
+    private static final String[] TEXTS = new String[DISTINCT_TEXTS];
+    private static final ErrorMessagePrototype PROTOTYPE = ExaError.messageBuilder("E-ERJ-STRESS-1")
+            .message("Task {{task}} iteration {{iteration}}.").mitigation("Retry {{task}}.").freeze();
+
+    static {
+        for (int i = 0; i < DISTINCT_TEXTS; ++i) {
+            TEXTS[i] = "Text " + i + " for {{task}} and {{value|u}}.";
+        }
+    }
+
+    @Test
+    void testPlatformThreads() throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2);
+        try {
+            assertThat(runTasks(executor), empty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testVirtualThreads() throws Exception {
+        final ExecutorService executor = createVirtualThreadExecutor();
+        assumeTrue(executor != null, "Virtual threads are not available in this JVM.");
+        try {
+            assertThat(runTasks(executor), empty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Create an executor with one virtual thread per task if the JVM supports virtual threads.
+     * <p>
+     * The library targets Java 11, so the factory method is looked up by reflection.
+     * </p>
+     */
+    static ExecutorService createVirtualThreadExecutor() throws ReflectiveOperationException {
+        try {
+            final Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (final NoSuchMethodException exception) {
+            return null;
+        }
+    }
+
+    private static List<String> runTasks(final ExecutorService executor) throws InterruptedException {
+        final Queue<String> failures = new ConcurrentLinkedQueue<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int task = 0; task < TASKS; ++task) {
+            final int taskNumber = task;
+            futures.add(executor.submit(() -> {
+                start.await();
+                runTask(taskNumber, failures);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (final Future<?> future : futures) {
+            try {
+                future.get(2, TimeUnit.MINUTES);
+            } catch (final ExecutionException | TimeoutException exception) {
+                failures.add(exception.toString());
+            }
+        }
+        return new ArrayList<>(failures);
+    }
+
+    private static void runTask(final int task, final Queue<String> failures) {
+        for (int iteration = 0; iteration < ITERATIONS; ++iteration) {
+            final int textIndex = ((task * ITERATIONS) + iteration) % DISTINCT_TEXTS;
+            final String code = "E-ERJ-STRESS-" + (iteration % 50);
+            check(failures, ExaError.messageBuilder(code).message(TEXTS[textIndex], task, iteration).toString(),
+                    code + ": Text " + textIndex + " for " + task + " and " + iteration + ".");
+            check(failures,
+                    ExaError.pooledMessageBuilder(code).message(TEXTS[textIndex], "t" + task, null).render(),
+                    code + ": Text " + textIndex + " for 't" + task + "' and <null>.");
+            check(failures, PROTOTYPE.with(task, iteration), "E-ERJ-STRESS-1: Task " + task + " iteration "
+                    + iteration + ". Retry " + task + ".");
+            check(failures, Quoter.quoteObject(Optional.of(List.of(task)), Quoting.AUTOMATIC), "[" + task + "]");
+            if ((iteration % 500) == 0) {
+                ParameterRenderers.register(ConcurrencyStressTest.class, (target, value) -> target.append("stress"));
+                ParameterRenderers.unregister(ConcurrencyStressTest.class);
+            }
+            if (ErrorCode.tryParse(code).getNumber() != (iteration % 50)) {
+                failures.add("Wrong number for " + code);
+            }
+        }
+    }
+
+    private static void check(final Queue<String> failures, final String actual, final String expected) {
+        if (!expected.equals(actual)) {
+            failures.add("Expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+}
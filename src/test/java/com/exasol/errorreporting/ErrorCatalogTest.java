@@ -0,0 +1,182 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ErrorCatalogTest {
+    @TempDir
+    Path tempDir;
+
+    private static ErrorCatalog createCatalog() {
+        final byte[] bytes = new ErrorCatalogWriter() //
+                .add("E-ERJ-TEST-1", "Port {{port}} is closed.", List.of("Open the port.", "Use another port."),
+                        Map.of("port", "TCP port")) //
+                .add("E-ERJ-TEST-2", null, List.of(), Map.of()) //
+                .add("E-ERJ-T\u00c4ST-3", "Gr\u00fc\u00dfe.", List.of("Open the port."), Map.of()) //
+                .toByteArray();
+        return ErrorCatalog.load(ByteBuffer.wrap(bytes));
+    }
+
+    @Test
+    void testLookup() {
+        final ErrorCatalogEntry entry = createCatalog().lookup("E-ERJ-TEST-1");
+        assertAll(() -> assertThat(entry.getErrorCode(), equalTo("E-ERJ-TEST-1")),
+                () -> assertThat(entry.getMessage(), equalTo("Port {{port}} is closed.")),
+                () -> assertThat(entry.getMitigations(), contains("Open the port.", "Use another port.")),
+                () -> assertThat(entry.getParameterDescription("port"), equalTo("TCP port")),
+                () -> assertThat(entry.getParameterDescription("other"), nullValue()));
+    }
+
+    @Test
+    void testLookupEntryWithoutMessage() {
+        final ErrorCatalogEntry entry = createCatalog().lookup("E-ERJ-TEST-2");
+        assertAll(() -> assertThat(entry.getMessage(), nullValue()),
+                () -> assertThat(entry.getMitigations(), empty()),
+                () -> assertThat(entry.getParameterDescriptions(), equalTo(Map.of())));
+    }
+
+    @Test
+    void testLookupNonAsciiCode() {
+        final ErrorCatalogEntry entry = createCatalog().lookup("E-ERJ-T\u00c4ST-3");
+        assertAll(() -> assertThat(entry.getMessage(), equalTo("Gr\u00fc\u00dfe.")),
+                () -> assertThat(entry.getMitigations(), contains("Open the port.")));
+    }
+
+    @Test
+    void testLookupMissingCode() {
+        final ErrorCatalog catalog = createCatalog();
+        assertAll(() -> assertThat(catalog.lookup("E-ERJ-TEST-4"), nullValue()),
+                () -> assertThat(catalog.lookup("E-ERJ-TEST-"), nullValue()),
+                () -> assertThat(catalog.lookup(null), nullValue()),
+                () -> assertThat(catalog.contains("E-ERJ-TEST-2"), equalTo(true)),
+                () -> assertThat(catalog.size(), equalTo(3)));
+    }
+
+    @Test
+    void testLargeCatalog() {
+        final ErrorCatalogWriter writer = new ErrorCatalogWriter();
+        for (int i = 0; i < 20_000; ++i) {
+            writer.add("E-ERJ-TEST-" + i, "Message " + i + " {{p}}.", List.of("Mitigation " + (i % 10) + "."),
+                    Map.of("p", "Parameter"));
+        }
+        final ErrorCatalog catalog = ErrorCatalog.load(ByteBuffer.wrap(writer.toByteArray()));
+        for (int i = 0; i < 20_000; ++i) {
+            final ErrorCatalogEntry entry = catalog.lookup("E-ERJ-TEST-" + i);
+            assertThat(entry.getMessage(), equalTo("Message " + i + " {{p}}."));
+        }
+        assertThat(catalog.lookup("E-ERJ-TEST-20000"), nullValue());
+    }
+
+    @Test
+    void testEmptyCatalog() {
+        final ErrorCatalog catalog = ErrorCatalog.load(ByteBuffer.wrap(new ErrorCatalogWriter().toByteArray()));
+        assertAll(() -> assertThat(catalog.size(), equalTo(0)),
+                () -> assertThat(catalog.lookup("E-ERJ-TEST-1"), nullValue()),
+                () -> assertThat(ErrorCatalog.empty().lookup("E-ERJ-TEST-1"), nullValue()));
+    }
+
+    @Test
+    void testLoadFromFile() throws IOException {
+        final Path file = this.tempDir.resolve("catalog.bin");
+        try (final OutputStream stream = Files.newOutputStream(file)) {
+            new ErrorCatalogWriter().add("E-ERJ-TEST-1", "Text.", List.of(), Map.of()).write(stream);
+        }
+        assertThat(ErrorCatalog.load(file).lookup("E-ERJ-TEST-1").getMessage(), equalTo("Text."));
+    }
+
+    @Test
+    void testLoadFromStream() throws IOException {
+        final byte[] bytes = new ErrorCatalogWriter().add("E-ERJ-TEST-1", "Text.", List.of(), Map.of())
+                .toByteArray();
+        assertThat(ErrorCatalog.load(new ByteArrayInputStream(bytes)).lookup("E-ERJ-TEST-1").getMessage(),
+                equalTo("Text."));
+    }
+
+    @Test
+    void testLoadFromClassLoaderCombinesCatalogs() throws IOException {
+        final Path first = writeCatalogResource("first", new ErrorCatalogWriter()
+                .add("E-ERJ-TEST-1", "First.", List.of(), Map.of()).add("E-ERJ-TEST-2", "Two.", List.of(), Map.of()));
+        final Path second = writeCatalogResource("second",
+                new ErrorCatalogWriter().add("E-ERJ-TEST-1", "Second.", List.of(), Map.of()));
+        try (final URLClassLoader loader = new URLClassLoader(
+                new URL[] { first.toUri().toURL(), second.toUri().toURL() }, null)) {
+            final ErrorCatalog catalog = ErrorCatalog.load(loader);
+            assertAll(() -> assertThat(catalog.lookup("E-ERJ-TEST-1").getMessage(), equalTo("First.")),
+                    () -> assertThat(catalog.lookup("E-ERJ-TEST-2").getMessage(), equalTo("Two.")));
+        }
+    }
+
+    private Path writeCatalogResource(final String directory, final ErrorCatalogWriter writer) throws IOException {
+        final Path root = this.tempDir.resolve(directory);
+        final Path file = root.resolve(ErrorCatalog.RESOURCE_NAME);
+        Files.createDirectories(file.getParent());
+        Files.write(file, writer.toByteArray());
+        return root;
+    }
+
+    @Test
+    void testRejectsInvalidData() {
+        final ByteBuffer buffer = ByteBuffer.wrap(new byte[32]);
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> ErrorCatalog.load(buffer));
+        assertThat(exception.getMessage(), equalTo("Invalid error catalog: unknown file format."));
+    }
+
+    @Test
+    void testLookupInHashTableWithoutEmptySlotTerminates() {
+        final int otherHash = ErrorCatalogFormat.hash("E-ERJ-TEST-1") + 1;
+        final ByteBuffer buffer = createHeader(2).putInt(otherHash).putInt(16).putInt(otherHash).putInt(16);
+        assertThat(ErrorCatalog.load(buffer.flip()).lookup("E-ERJ-TEST-1"), nullValue());
+    }
+
+    @Test
+    void testLookupRejectsRecordOffsetOutsideOfCatalog() {
+        final int hash = ErrorCatalogFormat.hash("E-ERJ-TEST-1");
+        final ByteBuffer buffer = createHeader(2).putInt(hash).putInt(1000).putInt(hash).putInt(1000);
+        final ErrorCatalog catalog = ErrorCatalog.load(buffer.flip());
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> catalog.lookup("E-ERJ-TEST-1"));
+        assertThat(exception.getMessage(), startsWith("Invalid error catalog: offset 1000 is outside"));
+    }
+
+    @Test
+    void testLookupRejectsStringLengthOutsideOfCatalog() {
+        final int hash = ErrorCatalogFormat.hash("E-ERJ-TEST-1");
+        final ByteBuffer buffer = createHeader(2).putInt(hash).putInt(32).putInt(hash).putInt(32) //
+                .putInt(36).putInt(Integer.MAX_VALUE);
+        final ErrorCatalog catalog = ErrorCatalog.load(buffer.flip());
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> catalog.lookup("E-ERJ-TEST-1"));
+        assertThat(exception.getMessage(), startsWith("Invalid error catalog: string at offset 36"));
+    }
+
+    private static ByteBuffer createHeader(final int slotCount) {
+        return ByteBuffer.allocate(256).putInt(ErrorCatalogFormat.MAGIC).putInt(ErrorCatalogFormat.VERSION).putInt(0)
+                .putInt(slotCount);
+    }
+
+    @Test
+    void testWriterRejectsDuplicateCode() {
+        final ErrorCatalogWriter writer = new ErrorCatalogWriter().add("E-ERJ-TEST-1", "One.", List.of(), Map.of());
+        final List<String> mitigations = List.of();
+        final Map<String, String> descriptions = Map.of();
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.add("E-ERJ-TEST-1", "Two.", mitigations, descriptions));
+    }
+}
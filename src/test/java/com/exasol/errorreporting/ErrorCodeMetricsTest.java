@@ -0,0 +1,93 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import javax.management.*;
+import javax.management.openmbean.TabularData;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ErrorCodeMetricsTest {
+    @AfterEach
+    void afterEach() {
+        ErrorCodeMetrics.reset();
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        ExaError.messageBuilder("E-ERJ-TEST-1").message("Text.").toString();
+        assertAll(() -> assertThat(ErrorCodeMetrics.isEnabled(), equalTo(false)),
+                () -> assertThat(ErrorCodeMetrics.snapshot(), equalTo(Map.of())));
+    }
+
+    @Test
+    void testCountsPerErrorCode() {
+        ErrorCodeMetrics.recordConstruction("E-ERJ-TEST-2");
+        ErrorCodeMetrics.recordConstruction("E-ERJ-TEST-1");
+        ErrorCodeMetrics.recordRender("E-ERJ-TEST-1");
+        ErrorCodeMetrics.recordConstruction("E-ERJ-TEST-1");
+        final Map<String, ErrorCodeStatistics> snapshot = ErrorCodeMetrics.snapshot();
+        assertAll(() -> assertThat(snapshot.keySet(), contains("E-ERJ-TEST-1", "E-ERJ-TEST-2")),
+                () -> assertThat(snapshot.get("E-ERJ-TEST-1"),
+                        equalTo(new ErrorCodeStatistics("E-ERJ-TEST-1", 2, 1))),
+                () -> assertThat(snapshot.get("E-ERJ-TEST-2"),
+                        equalTo(new ErrorCodeStatistics("E-ERJ-TEST-2", 1, 0))));
+    }
+
+    @Test
+    void testSnapshotIsUnmodifiable() {
+        ErrorCodeMetrics.recordRender("E-ERJ-TEST-1");
+        final Map<String, ErrorCodeStatistics> snapshot = ErrorCodeMetrics.snapshot();
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.remove("E-ERJ-TEST-1"));
+    }
+
+    @Test
+    void testReset() {
+        ErrorCodeMetrics.recordRender("E-ERJ-TEST-1");
+        ErrorCodeMetrics.reset();
+        assertThat(ErrorCodeMetrics.snapshot(), equalTo(Map.of()));
+    }
+
+    @Test
+    void testNumberOfErrorCodesCountedByNameIsLimited() {
+        for (int i = 0; i < (ErrorCodeMetrics.MAX_ERROR_CODES + 10); ++i) {
+            ErrorCodeMetrics.recordRender("invalid code " + i);
+        }
+        final Map<String, ErrorCodeStatistics> snapshot = ErrorCodeMetrics.snapshot();
+        assertAll(() -> assertThat(snapshot.size(), equalTo(ErrorCodeMetrics.MAX_ERROR_CODES + 1)),
+                () -> assertThat(snapshot.get(ErrorCodeMetrics.OTHER_ERROR_CODES).getRenders(), equalTo(10L)));
+    }
+
+    @Test
+    void testCountsParsedAndStringCodesTogether() {
+        ErrorCodeMetrics.recordRender("E-ERJ-TEST-1");
+        ErrorCodeMetrics.recordRenders(ErrorCode.parse("E-ERJ-TEST-1"), 2);
+        ErrorCodeMetrics.recordRender("not a code");
+        final Map<String, ErrorCodeStatistics> snapshot = ErrorCodeMetrics.snapshot();
+        assertAll(() -> assertThat(snapshot.keySet(), contains("E-ERJ-TEST-1", "not a code")),
+                () -> assertThat(snapshot.get("E-ERJ-TEST-1").getRenders(), equalTo(3L)),
+                () -> assertThat(snapshot.get("not a code").getRenders(), equalTo(1L)));
+    }
+
+    @Test
+    void testMXBean() throws JMException {
+        ErrorCodeMetrics.recordConstruction("E-ERJ-TEST-1");
+        ErrorCodeMetrics.recordRender("E-ERJ-TEST-1");
+        ErrorCodeMetrics.recordRender("E-ERJ-TEST-2");
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final ObjectName name = new ObjectName(ErrorCodeMetrics.OBJECT_NAME);
+        server.registerMBean(new ErrorCodeMetricsBean(), name);
+        final TabularData renderCounts = (TabularData) server.getAttribute(name, "RenderCounts");
+        assertAll(() -> assertThat(server.getAttribute(name, "TotalConstructions"), equalTo(1L)),
+                () -> assertThat(server.getAttribute(name, "TotalRenders"), equalTo(2L)),
+                () -> assertThat(renderCounts.size(), equalTo(2)));
+        server.invoke(name, "reset", new Object[0], new String[0]);
+        assertThat(ErrorCodeMetrics.snapshot(), equalTo(Map.of()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ErrorCodeTest {
+    @Test
+    void testParse() {
+        final ErrorCode code = ErrorCode.parse("E-ERJ-TEST-12");
+        assertAll(() -> assertThat(code.getSeverity(), equalTo(ErrorSeverity.ERROR)),
+                () -> assertThat(code.getTag(), equalTo("ERJ-TEST")),
+                () -> assertThat(code.getNumber(), equalTo(12)),
+                () -> assertThat(code.toString(), equalTo("E-ERJ-TEST-12")),
+                () -> assertThat(code.isInterned(), equalTo(true)));
+    }
+
+    @Test
+    void testParseWarning() {
+        final ErrorCode code = ErrorCode.parse("W-A1-0");
+        assertAll(() -> assertThat(code.getSeverity(), equalTo(ErrorSeverity.WARNING)),
+                () -> assertThat(code.getTag(), equalTo("A1")), () -> assertThat(code.getNumber(), equalTo(0)));
+    }
+
+    @Test
+    void testInternsCodes() {
+        final ErrorCode first = ErrorCode.parse(new String("E-ERJ-TEST-13"));
+        final ErrorCode second = ErrorCode.parse(new String("E-ERJ-TEST-13"));
+        final ErrorCode other = ErrorCode.parse("E-ERJ-TEST-14");
+        assertAll(() -> assertThat(second, sameInstance(first)),
+                () -> assertThat(other.getId(), not(equalTo(first.getId()))));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "E", "E-1", "E-ABC", "E-ABC-", "X-ABC-1", "e-ABC-1", "E-abc-1", "E-1ABC-1",
+            "E--ABC-1", "E-ABC--1", "E-ABC-1A", "E-ABC-1234567890", "E_ABC_1", "E-ABC-SUB-" })
+    void testRejectsInvalidCodes(final String code) {
+        assertAll(() -> assertThat(ErrorCode.isValid(code), equalTo(false)),
+                () -> assertThat(ErrorCode.tryParse(code), nullValue()),
+                () -> assertThrows(IllegalArgumentException.class, () -> ErrorCode.parse(code)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "E-A-1", "W-ABC-123", "E-ABC-SUB-4", "E-A1B2-C3-999999999" })
+    void testAcceptsValidCodes(final String code) {
+        assertThat(ErrorCode.isValid(code), equalTo(true));
+    }
+
+    @Test
+    void testCanonicalizeReturnsSharedInstance() {
+        final String canonical = ErrorCode.canonicalize("E-ERJ-TEST-15");
+        assertAll(() -> assertThat(ErrorCode.canonicalize(new String("E-ERJ-TEST-15")), sameInstance(canonical)),
+                () -> assertThat(ErrorCode.canonicalize("invalid"), equalTo("invalid")),
+                () -> assertThat(ErrorCode.canonicalize(null), nullValue()));
+    }
+
+    @Test
+    void testBuiltMessageUsesCanonicalCode() {
+        final String canonical = ErrorCode.parse("E-ERJ-TEST-16").toString();
+        final ErrorMessageBuilder builder = ExaError.messageBuilder(new String("E-ERJ-TEST-16"));
+        assertThat(builder.build().getErrorCode(), sameInstance(canonical));
+    }
+
+    @Test
+    void testPrototypeUsesCanonicalCode() {
+        final String canonical = ErrorCode.parse("E-ERJ-TEST-17").toString();
+        final ErrorMessagePrototype prototype = ExaError.messageBuilder(new String("E-ERJ-TEST-17")).freeze();
+        assertThat(prototype.getErrorCode(), sameInstance(canonical));
+    }
+
+    @Test
+    void testParseRejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> ErrorCode.parse(null));
+    }
+}
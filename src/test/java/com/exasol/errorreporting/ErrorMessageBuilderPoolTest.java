@@ -0,0 +1,62 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class ErrorMessageBuilderPoolTest {
+    @Test
+    void testReusesReleasedBuilder() {
+        final ErrorMessageBuilderPool pool = new ErrorMessageBuilderPool(4);
+        final ErrorMessageBuilder first = pool.acquire("E-ERJ-TEST-1");
+        first.render();
+        assertThat(pool.acquire("E-ERJ-TEST-2"), sameInstance(first));
+    }
+
+    @Test
+    void testReusedBuilderStartsEmpty() {
+        final ErrorMessageBuilderPool pool = new ErrorMessageBuilderPool(4);
+        final String first = pool.acquire("E-ERJ-TEST-1").message("First {{value}}.", 1).mitigation("Fix it.")
+                .render();
+        final String second = pool.acquire("E-ERJ-TEST-2").message("Second {{value}}.").render();
+        assertAll(() -> assertThat(first, equalTo("E-ERJ-TEST-1: First 1. Fix it.")),
+                () -> assertThat(second, equalTo("E-ERJ-TEST-2: Second UNKNOWN PLACEHOLDER('value').")));
+    }
+
+    @Test
+    void testCreatesNewBuilderWhenSlotIsEmpty() {
+        final ErrorMessageBuilderPool pool = new ErrorMessageBuilderPool(4);
+        final ErrorMessageBuilder first = pool.acquire("E-ERJ-TEST-1");
+        assertThat(pool.acquire("E-ERJ-TEST-2"), not(sameInstance(first)));
+    }
+
+    @Test
+    void testDoesNotRetainBuilderWithLargeBuffer() {
+        final ErrorMessageBuilderPool pool = new ErrorMessageBuilderPool(4);
+        final ErrorMessageBuilder builder = pool.acquire("E-ERJ-TEST-1");
+        builder.message("{{value}}", "x".repeat(10_000)).render();
+        assertThat(pool.acquire("E-ERJ-TEST-1"), not(sameInstance(builder)));
+    }
+
+    @Test
+    void testUnpooledRenderEqualsToString() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("Message {{a}}.", "b");
+        assertThat(builder.render(), equalTo(builder.toString()));
+    }
+
+    @Test
+    void testSharedPool() {
+        assertThat(ExaError.pooledMessageBuilder("E-ERJ-TEST-1").message("Pooled {{a|u}}.", "b").render(),
+                equalTo("E-ERJ-TEST-1: Pooled b."));
+    }
+
+    @ParameterizedTest
+    @CsvSource({ "1, 2", "2, 4", "3, 8", "4, 8", "5, 16", "1000, 256" })
+    void testGetStripesFor(final int processors, final int expectedStripes) {
+        assertThat(ErrorMessageBuilderPool.getStripesFor(processors), equalTo(expectedStripes));
+    }
+}
@@ -3,6 +3,14 @@ package com.exasol.errorreporting;
 import static org.hamcrest.CoreMatchers.endsWith;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -233,4 +241,182 @@ class ErrorMessageBuilderTest {
                 .message("The answer is {{number|d}}").parameter("number", 42);
         assertThat(messageBuilder.toString(), endsWith("The answer is \"42\""));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testPlaceholderSpanningTwoMessageCalls() {
+        final ErrorMessageBuilder messageBuilder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Split {{param")
+                .message("eter}} placeholder.").parameter("parameter", "value");
+        assertThat(messageBuilder.toString(), equalTo("E-ERJ-TEST-1: Split 'value' placeholder."));
+    }
+
+    @Test
+    void testRepeatedMessageUsesSameParameters() {
+        final String text = "Repeated {{value}}.";
+        final String first = new ErrorMessageBuilder("E-ERJ-TEST-1").message(text, 1).toString();
+        final String second = new ErrorMessageBuilder("E-ERJ-TEST-1").message(text, 2).toString();
+        assertThat(first + second, equalTo("E-ERJ-TEST-1: Repeated 1.E-ERJ-TEST-1: Repeated 2."));
+    }
+
+    @Test
+    void testRenderToStringBuilderAppends() {
+        final StringBuilder target = new StringBuilder("prefix ");
+        new ErrorMessageBuilder("E-ERJ-TEST-1").message("Value {{value}}.", List.of(1, "a")).mitigation("Fix it.")
+                .renderTo(target);
+        assertThat(target.toString(), equalTo("prefix E-ERJ-TEST-1: Value [1, 'a']. Fix it."));
+    }
+
+    @Test
+    void testRenderToAppendable() throws IOException {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Value {{value|d}}.", 2)
+                .mitigation("Fix it.").mitigation("Or not.");
+        final StringWriter writer = new StringWriter();
+        builder.renderTo(writer);
+        assertThat(writer.toString(), equalTo(builder.toString()));
+    }
+
+    @Test
+    void testRenderToPropagatesIOException() {
+        final Appendable failingTarget = new Appendable() {
+            @Override
+            public Appendable append(final CharSequence csq) throws IOException {
+                throw new IOException("expected");
+            }
+
+            @Override
+            public Appendable append(final CharSequence csq, final int start, final int end) throws IOException {
+                throw new IOException("expected");
+            }
+
+            @Override
+            public Appendable append(final char c) throws IOException {
+                throw new IOException("expected");
+            }
+        };
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Message.");
+        assertThrows(IOException.class, () -> builder.renderTo(failingTarget));
+    }
+
+    @Test
+    void testPrimitiveParameters() {
+        final String message = new ErrorMessageBuilder("E-ERJ-TEST-1")
+                .message("{{long}} {{int|q}} {{char}} {{short|d}} {{described}}") //
+                .parameter("long", 12345678901L) //
+                .parameter("int", -1) //
+                .parameter("char", 'c') //
+                .parameter("short", (short) 7) //
+                .parameter("described", 3, "a described int") //
+                .toString();
+        assertThat(message, equalTo("E-ERJ-TEST-1: 12345678901 '-1' 'c' \"7\" 3"));
+    }
+
+    @Test
+    void testRenderUtf8MatchesToString() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1") //
+                .message("Gr\u00fc\u00dfe {{name}} f\u00fcr {{count}} \u20ac.", "\ud83d\ude00", 42L) //
+                .mitigation("Eins {{name}}.") //
+                .mitigation("Zwei.");
+        final ByteBuffer buffer = ByteBuffer.allocate(256);
+        final int size = builder.renderUtf8(buffer);
+        final byte[] expected = builder.toString().getBytes(StandardCharsets.UTF_8);
+        assertAll(() -> assertThat(size, equalTo(expected.length)),
+                () -> assertThat(Arrays.copyOf(buffer.array(), buffer.position()), equalTo(expected)));
+    }
+
+    @Test
+    void testRenderUtf8RejectsIfTooSmall() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Text {{a}}.", 1);
+        final ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.position(2);
+        final int size = builder.renderUtf8(buffer);
+        assertAll(() -> assertThat(size, equalTo(21)), () -> assertThat(buffer.position(), equalTo(2)));
+    }
+
+    @Test
+    void testRenderUtf8Truncates() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Text {{a}}.", 1);
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        final int size = builder.renderUtf8(buffer, OverflowHandling.TRUNCATE);
+        final String written = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        assertAll(() -> assertThat(size, equalTo(21)), () -> assertThat(written, equalTo("E-ERJ-TEST-1:...")));
+    }
+
+    @Test
+    void testPositionalArgumentsWithDuplicateNames() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1")
+                .message("{{a}} {{b}} {{a|u}} {{c}}", "first", "second", "ignored");
+        assertAll(() -> assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: 'first' 'second' first "
+                + "UNKNOWN PLACEHOLDER('c')")),
+                () -> assertThat(builder.build().toString(), equalTo(builder.toString())));
+    }
+
+    @Test
+    void testPositionalArgumentsTakePrecedenceOverLaterParameters() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("{{a}} {{b}}", "arg")
+                .parameter("a", "parameter").parameter("b", "fallback");
+        assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: 'arg' 'fallback'"));
+    }
+
+    @Test
+    void testEarlierParametersTakePrecedenceOverArguments() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").parameter("a", "parameter")
+                .message("{{a}}", "arg");
+        assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: 'parameter'"));
+    }
+
+    @Test
+    void testPositionalArgumentsWithMitigationPlaceholders() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Missing {{table}}.", "T")
+                .mitigation("Create {{table}} in {{schema}}.", "ignored").parameter("schema", "S");
+        assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: Missing 'T'. Create 'T' in 'S'."));
+    }
+
+    @Test
+    void testPositionalArgumentsAreCopied() {
+        final Object[] arguments = { "before" };
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("{{a}}", arguments);
+        arguments[0] = "after";
+        assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: 'before'"));
+    }
+
+    @Test
+    void testPositionalArgumentsAreMappedForStructuredMessage() {
+        final ErrorMessage message = new ErrorMessageBuilder("E-ERJ-TEST-1").message("{{a}} {{b}}", 1, null)
+                .parameter("c", 3).build();
+        assertThat(message.getParameters().stream().map(ParameterDefinition::getName).toArray(),
+                equalTo(new Object[] { "a", "b", "c" }));
+    }
+
+    @Test
+    void testSecondMessageAfterPositionalArguments() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("{{a}}", 1)
+                .message(" {{b}} {{a}}", 2, 3);
+        assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: 1 2 1"));
+    }
+
+    @Test
+    void testPositionalNullArguments() {
+        final ErrorMessageBuilder builder = new ErrorMessageBuilder("E-ERJ-TEST-1").message("{{a}} {{b}}",
+                (Object[]) null);
+        assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: <null> UNKNOWN PLACEHOLDER('b')"));
+    }
+
+    // Since 1.0.2 maps are rendered entry by entry instead of with Map.toString(). This pins the new format on purpose.
+    @Test
+    void testMapParameterFormat() {
+        final String message = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Invalid options {{options}}.")
+                .parameter("options", new TreeMap<>(Map.of("a", 1, "b", "x"))).toString();
+        assertThat(message, equalTo("E-ERJ-TEST-1: Invalid options {'a'=1, 'b'='x'}."));
+    }
+
+    // Since 1.0.2 containers are capped by default. This pins the default cap on purpose.
+    @Test
+    void testCollectionParameterIsCappedByDefault() {
+        final List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < (RenderingLimits.DEFAULT_MAX_ELEMENTS + 5); ++i) {
+            ids.add(i);
+        }
+        final String message = new ErrorMessageBuilder("E-ERJ-TEST-1").message("Unknown ids {{ids}}.")
+                .parameter("ids", ids).toString();
+        assertThat(message, endsWith(", 99, ... (5 more)]."));
+    }
+}
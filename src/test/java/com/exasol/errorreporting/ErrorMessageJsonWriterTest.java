@@ -0,0 +1,161 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ErrorMessageJsonWriterTest {
+    private static String toJson(final ErrorMessageBuilder builder) throws IOException {
+        final StringBuilder json = new StringBuilder();
+        ErrorMessageJsonWriter.write(builder, json);
+        return json.toString();
+    }
+
+    @Test
+    void testWriteCompleteMessage() throws IOException {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1")
+                .message("Table {{table}} has {{rows}} rows.", "T") //
+                .parameter("rows", 3, "number of rows") //
+                .mitigation("Check {{table}}.");
+        assertThat(toJson(builder), equalTo("{\"errorCode\":\"E-ERJ-TEST-1\"," //
+                + "\"message\":\"Table 'T' has 3 rows.\"," //
+                + "\"messageTemplate\":\"Table {{table}} has {{rows}} rows.\"," //
+                + "\"parameters\":[{\"name\":\"table\",\"value\":\"T\"}," //
+                + "{\"name\":\"rows\",\"value\":3,\"description\":\"number of rows\"}]," //
+                + "\"mitigations\":[\"Check 'T'.\"]}"));
+    }
+
+    @Test
+    void testWriteMessageWithoutParts() throws IOException {
+        assertThat(toJson(ExaError.messageBuilder("E-ERJ-TEST-1")), equalTo("{\"errorCode\":\"E-ERJ-TEST-1\","
+                + "\"message\":\"\",\"messageTemplate\":\"\",\"parameters\":[],\"mitigations\":[]}"));
+    }
+
+    @Test
+    void testEscaping() throws IOException {
+        final String json = toJson(ExaError.messageBuilder("E-ERJ-TEST-1").message("\"quoted\" {{a|u}}",
+                "back\\slash\nnew line\ttab\u0001"));
+        assertThat(json, containsString(
+                "\"message\":\"\\\"quoted\\\" back\\\\slash\\nnew line\\ttab\\u0001\""));
+    }
+
+    @Test
+    void testTypedValues() throws IOException {
+        final String json = toJson(ExaError.messageBuilder("E-ERJ-TEST-1") //
+                .parameter("null", null) //
+                .parameter("boolean", true) //
+                .parameter("double", 1.5) //
+                .parameter("nan", Double.NaN) //
+                .parameter("long", 7L) //
+                .parameter("list", List.of(1, "a")) //
+                .parameter("object", new StringBuilder("sb")));
+        assertThat(json, containsString("\"parameters\":[{\"name\":\"null\",\"value\":null}," //
+                + "{\"name\":\"boolean\",\"value\":true},{\"name\":\"double\",\"value\":1.5}," //
+                + "{\"name\":\"nan\",\"value\":\"NaN\"},{\"name\":\"long\",\"value\":7}," //
+                + "{\"name\":\"list\",\"value\":[1,\"a\"]},{\"name\":\"object\",\"value\":\"sb\"}]"));
+    }
+
+    @Test
+    void testNumbersAndBooleansIgnoreCustomRenderers() throws IOException {
+        ParameterRenderers.register(Double.class, (target, value) -> target.append("approx ").append(value.toString()));
+        ParameterRenderers.register(Boolean.class, (target, value) -> target.append(value ? "yes" : "no"));
+        try {
+            final String json = toJson(ExaError.messageBuilder("E-ERJ-TEST-1") //
+                    .parameter("double", 1.5) //
+                    .parameter("boolean", false) //
+                    .parameter("decimal", new BigDecimal("12345.678")));
+            assertThat(json, containsString("\"parameters\":[{\"name\":\"double\",\"value\":1.5}," //
+                    + "{\"name\":\"boolean\",\"value\":false},{\"name\":\"decimal\",\"value\":12345.678}]"));
+        } finally {
+            ParameterRenderers.unregister(Double.class);
+            ParameterRenderers.unregister(Boolean.class);
+        }
+    }
+
+    @Test
+    void testContainersAreCapped() throws IOException {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxElements(3).build());
+        try {
+            final List<Integer> list = new ArrayList<>();
+            for (int i = 0; i < 1000; ++i) {
+                list.add(i);
+            }
+            final Iterable<Integer> iterable = list::iterator;
+            final String json = toJson(ExaError.messageBuilder("E-ERJ-TEST-1") //
+                    .parameter("list", list) //
+                    .parameter("iterable", iterable) //
+                    .parameter("array", new int[] { 1, 2, 3, 4, 5 }) //
+                    .parameter("short", new String[] { "a" }));
+            assertThat(json, containsString("\"parameters\":[" //
+                    + "{\"name\":\"list\",\"value\":[0,1,2,\"... (997 more)\"]}," //
+                    + "{\"name\":\"iterable\",\"value\":[0,1,2,\"...\"]}," //
+                    + "{\"name\":\"array\",\"value\":[1,2,3,\"... (2 more)\"]}," //
+                    + "{\"name\":\"short\",\"value\":[\"a\"]}]"));
+        } finally {
+            RenderingLimits.setDefault(RenderingLimits.builder().build());
+        }
+    }
+
+    @Test
+    void testContainerLengthIsCapped() throws IOException {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxContainerLength(10).build());
+        try {
+            final String json = toJson(ExaError.messageBuilder("E-ERJ-TEST-1") //
+                    .parameter("list", List.of("abcd", "efgh", "ijkl")));
+            assertThat(json, containsString("{\"name\":\"list\",\"value\":[\"abcd\",\"efgh\",\"... (1 more)\"]}"));
+        } finally {
+            RenderingLimits.setDefault(RenderingLimits.builder().build());
+        }
+    }
+
+    @Test
+    void testFailingIterationKeepsJsonValid() throws IOException {
+        final Iterable<Integer> failing = () -> {
+            throw new IllegalStateException("closed");
+        };
+        final String json = toJson(ExaError.messageBuilder("E-ERJ-TEST-1").parameter("values", failing));
+        assertThat(json, containsString("{\"name\":\"values\",\"value\":[\"<rendering failed: "
+                + failing.getClass().getName() + ">\"]}"));
+    }
+
+    @Test
+    void testWriteErrorMessageEqualsBuilder() throws IOException {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("{{a}}", 1)
+                .mitigation("x").mitigation("y");
+        final StringBuilder json = new StringBuilder();
+        ErrorMessageJsonWriter.write(builder.build(), json);
+        assertThat(json.toString(), equalTo(toJson(builder)));
+    }
+
+    @Test
+    void testWriteToByteBuffer() throws IOException {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("Grüße {{a}}",
+                "😀");
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        final int size = ErrorMessageJsonWriter.write(builder.build(), buffer);
+        final byte[] expected = toJson(builder).getBytes(StandardCharsets.UTF_8);
+        assertAll(() -> assertThat(size, equalTo(expected.length)),
+                () -> assertThat(buffer.position(), equalTo(expected.length)),
+                () -> assertThat(Arrays.copyOf(buffer.array(), size), equalTo(expected)));
+    }
+
+    @Test
+    void testWriteToTooSmallByteBuffer() throws IOException {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("Some text.");
+        final ByteBuffer buffer = ByteBuffer.allocate(20);
+        buffer.position(3);
+        final int size = ErrorMessageJsonWriter.write(builder, buffer);
+        assertAll(() -> assertThat(size, equalTo(toJson(builder).length())),
+                () -> assertThat(buffer.position(), equalTo(3)));
+    }
+}
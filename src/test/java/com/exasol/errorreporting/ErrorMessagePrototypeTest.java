@@ -0,0 +1,79 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.junit.jupiter.api.Test;
+
+class ErrorMessagePrototypeTest {
+    private static final ErrorMessagePrototype CONNECTION_FAILED = ExaError.messageBuilder("E-ERJ-TEST-1")
+            .message("Connection to {{host}} on port {{port}} failed.")
+            .mitigation("Check that {{host}} is reachable.")
+            .mitigation("Check the {{setting|u}} setting.")
+            .parameter("setting", "proxy")
+            .freeze();
+
+    @Test
+    void testWithRendersValues() {
+        assertThat(CONNECTION_FAILED.with("db1", 8563),
+                equalTo("E-ERJ-TEST-1: Connection to 'db1' on port 8563 failed. Known mitigations:\n"
+                        + "* Check that 'db1' is reachable.\n* Check the proxy setting."));
+    }
+
+    @Test
+    void testWithMatchesBuilder() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-2").message("{{a}} {{b|q}} {{a}}")
+                .mitigation("Fix {{b}}.");
+        final ErrorMessagePrototype prototype = builder.freeze();
+        assertThat(prototype.with(1, null), equalTo(ExaError.messageBuilder("E-ERJ-TEST-2")
+                .message("{{a}} {{b|q}} {{a}}", 1, null).mitigation("Fix {{b}}.").toString()));
+    }
+
+    @Test
+    void testValuesTakePrecedenceOverFixedParameters() {
+        final ErrorMessagePrototype prototype = ExaError.messageBuilder("E-ERJ-TEST-3").parameter("a", "fixed")
+                .message("{{a}} {{b}}").parameter("b", "fallback").freeze();
+        assertAll(() -> assertThat(prototype.with("value"), equalTo("E-ERJ-TEST-3: 'value' 'fallback'")),
+                () -> assertThat(prototype.with(), equalTo("E-ERJ-TEST-3: 'fixed' 'fallback'")));
+    }
+
+    @Test
+    void testMissingValues() {
+        final ErrorMessagePrototype prototype = ExaError.messageBuilder("E-ERJ-TEST-4").message("{{a}} {{b}}")
+                .freeze();
+        assertAll(() -> assertThat(prototype.with("x"), equalTo("E-ERJ-TEST-4: 'x' UNKNOWN PLACEHOLDER('b')")),
+                () -> assertThat(prototype.with((Object[]) null),
+                        equalTo("E-ERJ-TEST-4: <null> UNKNOWN PLACEHOLDER('b')")));
+    }
+
+    @Test
+    void testLaterBuilderChangesDoNotAffectPrototype() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-5").message("Value {{a}}.");
+        final ErrorMessagePrototype prototype = builder.freeze();
+        builder.mitigation("Added later.");
+        assertThat(prototype.with(1), equalTo("E-ERJ-TEST-5: Value 1."));
+    }
+
+    @Test
+    void testRenderToAppendable() throws IOException {
+        final StringWriter writer = new StringWriter();
+        ExaError.messageBuilder("E-ERJ-TEST-6").message("Value {{a}}.").freeze().renderTo(writer, "v");
+        assertThat(writer.toString(), equalTo("E-ERJ-TEST-6: Value 'v'."));
+    }
+
+    @Test
+    void testBatchRendererForPrototype() {
+        assertThat(BatchMessageRenderer.of(CONNECTION_FAILED).render(new Object[] { "db1" }, new Object[] { 1 }),
+                contains(CONNECTION_FAILED.with("db1", 1)));
+    }
+
+    @Test
+    void testGetErrorCode() {
+        assertThat(CONNECTION_FAILED.getErrorCode(), equalTo("E-ERJ-TEST-1"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ErrorMessageRegistryTest {
+    private static ErrorCatalog createCatalog(final String message) {
+        return ErrorCatalog.load(ByteBuffer.wrap(new ErrorCatalogWriter() //
+                .add("E-ERJ-TEST-1", message, List.of("Check {{host|u}}.", "Retry."), Map.of()) //
+                .add("E-ERJ-TEST-2", null, List.of("Just a mitigation."), Map.of()) //
+                .toByteArray()));
+    }
+
+    @Test
+    void testFillsCatalogMessagePositionally() {
+        final ErrorMessageRegistry registry = new ErrorMessageRegistry(createCatalog("Host {{host}} port {{port}}."));
+        assertThat(registry.messageBuilder("E-ERJ-TEST-1", "db", 8563).toString(),
+                equalTo("E-ERJ-TEST-1: Host 'db' port 8563. Known mitigations:\n* Check db.\n* Retry."));
+    }
+
+    @Test
+    void testBuilderCanBeExtended() {
+        final ErrorMessageRegistry registry = new ErrorMessageRegistry(createCatalog("Host {{host}}."));
+        assertThat(registry.messageBuilder("E-ERJ-TEST-1", "db").message(" More.").toString(),
+                equalTo("E-ERJ-TEST-1: Host 'db'. More. Known mitigations:\n* Check db.\n* Retry."));
+    }
+
+    @Test
+    void testEntryWithoutMessage() {
+        final ErrorMessageRegistry registry = new ErrorMessageRegistry(createCatalog("Text."));
+        assertThat(registry.messageBuilder("E-ERJ-TEST-2").toString(), equalTo("E-ERJ-TEST-2 Just a mitigation."));
+    }
+
+    @Test
+    void testUnknownErrorCode() {
+        final ErrorMessageRegistry registry = new ErrorMessageRegistry(ErrorCatalog.empty());
+        assertAll(() -> assertThat(registry.contains("E-ERJ-TEST-3"), equalTo(false)),
+                () -> assertThat(registry.messageBuilder("E-ERJ-TEST-3", "a", 1).toString(),
+                        equalTo("E-ERJ-TEST-3: UNKNOWN ERROR CODE, arguments: 'a', 1")),
+                () -> assertThat(registry.messageBuilder("E-ERJ-TEST-3").toString(),
+                        equalTo("E-ERJ-TEST-3: UNKNOWN ERROR CODE")));
+    }
+
+    @Test
+    void testReloadReplacesCatalog() {
+        final ErrorMessageRegistry registry = new ErrorMessageRegistry(createCatalog("Old {{a}}."));
+        final String before = registry.messageBuilder("E-ERJ-TEST-1", 1).toString();
+        registry.reload(createCatalog("New {{a}}."));
+        final String after = registry.messageBuilder("E-ERJ-TEST-1", 1).toString();
+        assertAll(() -> assertThat(before, startsWith("E-ERJ-TEST-1: Old 1. ")),
+                () -> assertThat(after, startsWith("E-ERJ-TEST-1: New 1. ")));
+    }
+
+    @Test
+    void testExaErrorFromCatalogUsesDefaultRegistry() {
+        assertThat(ExaError.fromCatalog("E-ERJ-TEST-NOT-IN-CATALOG", 1).toString(),
+                equalTo("E-ERJ-TEST-NOT-IN-CATALOG: UNKNOWN ERROR CODE, arguments: 1"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class ErrorMessageTest {
+    @Test
+    void testFields() {
+        final ErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1")
+                .message("Table {{table}} has {{rows}} rows.", "T1") //
+                .parameter("rows", 3, "number of rows") //
+                .mitigation("Check {{table}}.") //
+                .build();
+        assertAll(() -> assertThat(message.getErrorCode(), equalTo("E-ERJ-TEST-1")),
+                () -> assertThat(message.getMessageTemplate(), equalTo("Table {{table}} has {{rows}} rows.")),
+                () -> assertThat(message.getParameters().stream().map(ParameterDefinition::getName)
+                        .collect(Collectors.toList()), contains("table", "rows")),
+                () -> assertThat(message.getMitigations(), contains("Check {{table}}.")));
+    }
+
+    @Test
+    void testWithoutMessage() {
+        final ErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").build();
+        assertAll(() -> assertThat(message.getMessageTemplate(), equalTo("")),
+                () -> assertThat(message.getParameters(), empty()),
+                () -> assertThat(message.getMitigations(), empty()),
+                () -> assertThat(message.toString(), equalTo("E-ERJ-TEST-1")));
+    }
+
+    @Test
+    void testRendersLikeBuilder() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("{{a}} {{b|u}}", "x", "y")
+                .mitigation("One.").mitigation("Two {{a}}.");
+        assertThat(builder.build().toString(), equalTo(builder.toString()));
+    }
+
+    @Test
+    void testRendersLazilyAndOnlyOnce() {
+        final LazyErrorMessageTest.CountingValue value = new LazyErrorMessageTest.CountingValue();
+        final ErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").message("{{value}}", value).build();
+        final boolean renderedBeforeAccess = message.isRendered();
+        final String first = message.toString();
+        assertAll(() -> assertThat(renderedBeforeAccess, equalTo(false)),
+                () -> assertThat(message.toString(), sameInstance(first)),
+                () -> assertThat(value.toStringCalls, equalTo(1)));
+    }
+
+    @Test
+    void testRenderTo() throws IOException {
+        final ErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").message("Text {{a}}.", 1).build();
+        final StringWriter writer = new StringWriter();
+        message.renderTo(writer);
+        final StringBuilder builder = new StringBuilder();
+        message.renderTo(builder);
+        assertAll(() -> assertThat(writer.toString(), equalTo("E-ERJ-TEST-1: Text 1.")),
+                () -> assertThat(builder.toString(), equalTo("E-ERJ-TEST-1: Text 1.")));
+    }
+
+    @Test
+    void testRenderUtf8() {
+        final ErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").message("Text {{a}}.", "\u00e4").build();
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+        final int size = message.renderUtf8(buffer);
+        final byte[] expected = message.toString().getBytes(StandardCharsets.UTF_8);
+        assertAll(() -> assertThat(size, equalTo(expected.length)),
+                () -> assertThat(Arrays.copyOf(buffer.array(), buffer.position()), equalTo(expected)));
+    }
+
+    @Test
+    void testIsImmutable() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("{{a}}");
+        final ErrorMessage message = builder.build();
+        builder.parameter("a", 1).mitigation("Later.");
+        final List<ParameterDefinition> parameters = message.getParameters();
+        assertAll(() -> assertThat(parameters, empty()),
+                () -> assertThat(message.toString(), equalTo("E-ERJ-TEST-1: UNKNOWN PLACEHOLDER('a')")));
+    }
+}
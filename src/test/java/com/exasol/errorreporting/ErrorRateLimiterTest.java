@@ -0,0 +1,136 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class ErrorRateLimiterTest {
+    private final AtomicLong now = new AtomicLong(-5_000);
+
+    private ErrorRateLimiter createLimiter(final int permits, final long periodNanos) {
+        return new ErrorRateLimiter(permits, Duration.ofNanos(periodNanos), this.now::get);
+    }
+
+    @Test
+    void testAllowsBurstThenSuppresses() {
+        final ErrorRateLimiter limiter = createLimiter(3, 3_000);
+        assertAll(() -> assertThat(limiter.tryAcquire("E-ERJ-TEST-1"), equalTo(true)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-1"), equalTo(true)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-1"), equalTo(true)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-1"), equalTo(false)),
+                () -> assertThat(limiter.getSuppressedCount("E-ERJ-TEST-1"), equalTo(1L)));
+    }
+
+    @Test
+    void testRefillsOverTime() {
+        final ErrorRateLimiter limiter = createLimiter(2, 2_000);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        final boolean beforeRefill = limiter.tryAcquire("E-ERJ-TEST-1");
+        this.now.addAndGet(1_000);
+        final boolean afterRefill = limiter.tryAcquire("E-ERJ-TEST-1");
+        final boolean afterSecondAttempt = limiter.tryAcquire("E-ERJ-TEST-1");
+        assertAll(() -> assertThat(beforeRefill, equalTo(false)), () -> assertThat(afterRefill, equalTo(true)),
+                () -> assertThat(afterSecondAttempt, equalTo(false)));
+    }
+
+    @Test
+    void testLimitsErrorCodesIndependently() {
+        final ErrorRateLimiter limiter = createLimiter(1, 1_000);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        assertAll(() -> assertThat(limiter.tryAcquire("E-ERJ-TEST-1"), equalTo(false)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-2"), equalTo(true)));
+    }
+
+    @Test
+    void testRenderReportsRepetitions() {
+        final ErrorRateLimiter limiter = createLimiter(1, 1_000);
+        final Optional<String> first = limiter.render(createBuilder());
+        final Optional<String> second = limiter.render(createBuilder());
+        final Optional<String> third = limiter.render(createBuilder());
+        this.now.addAndGet(1_000);
+        final Optional<String> afterRefill = limiter.render(createBuilder());
+        assertAll(() -> assertThat(first, equalTo(Optional.of("E-ERJ-TEST-1: Connection refused."))),
+                () -> assertThat(second, equalTo(Optional.empty())),
+                () -> assertThat(third, equalTo(Optional.empty())),
+                () -> assertThat(afterRefill,
+                        equalTo(Optional.of("E-ERJ-TEST-1: Connection refused. (repeated 2 times)"))),
+                () -> assertThat(limiter.getSuppressedCount("E-ERJ-TEST-1"), equalTo(0L)));
+    }
+
+    @Test
+    void testSuppressedMessageIsNotRendered() {
+        final ErrorRateLimiter limiter = createLimiter(1, 1_000);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        final LazyErrorMessageTest.CountingValue value = new LazyErrorMessageTest.CountingValue();
+        limiter.render(ExaError.messageBuilder("E-ERJ-TEST-1").message("{{value}}", value));
+        assertThat(value.toStringCalls, equalTo(0));
+    }
+
+    @Test
+    void testRepetitionsFollowMessageTextBeforeMitigations() {
+        final ErrorRateLimiter limiter = createLimiter(1, 1_000);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        this.now.addAndGet(1_000);
+        final Optional<String> rendered = limiter
+                .render(createBuilder().mitigation("Check the host.").mitigation("Check the port."));
+        assertThat(rendered, equalTo(Optional.of("E-ERJ-TEST-1: Connection refused. (repeated 1 time) "
+                + "Known mitigations:\n* Check the host.\n* Check the port.")));
+    }
+
+    @Test
+    void testForgetsIdleErrorCodesWhenLimitIsReached() {
+        final ErrorRateLimiter limiter = new ErrorRateLimiter(1, Duration.ofNanos(1_000), this.now::get, 2);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-2");
+        this.now.addAndGet(1_000);
+        assertAll(() -> assertThat(limiter.tryAcquire("E-ERJ-TEST-3"), equalTo(true)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-4"), equalTo(true)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-4"), equalTo(false)));
+    }
+
+    @Test
+    void testActiveErrorCodesBeyondLimitShareOneBucket() {
+        final ErrorRateLimiter limiter = new ErrorRateLimiter(1, Duration.ofNanos(1_000), this.now::get, 2);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-2");
+        limiter.tryAcquire("E-ERJ-TEST-2");
+        assertAll(() -> assertThat(limiter.tryAcquire("E-ERJ-TEST-3"), equalTo(true)),
+                () -> assertThat(limiter.tryAcquire("E-ERJ-TEST-4"), equalTo(false)),
+                () -> assertThat(limiter.getSuppressedCount("E-ERJ-TEST-1"), equalTo(1L)),
+                () -> assertThat(limiter.getSuppressedCount("E-ERJ-TEST-4"), equalTo(0L)),
+                () -> assertThat(limiter.getSuppressedCount(ErrorRateLimiter.OTHER_ERROR_CODES), equalTo(1L)));
+    }
+
+    @Test
+    void testSharedBucketGetsNoRepetitionSummary() {
+        final ErrorRateLimiter limiter = new ErrorRateLimiter(1, Duration.ofNanos(1_000), this.now::get, 1);
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-1");
+        limiter.tryAcquire("E-ERJ-TEST-2");
+        limiter.tryAcquire("E-ERJ-TEST-3");
+        this.now.addAndGet(1_000);
+        final Optional<String> rendered = limiter
+                .render(ExaError.messageBuilder("E-ERJ-TEST-2").message("Connection refused."));
+        assertAll(() -> assertThat(rendered, equalTo(Optional.of("E-ERJ-TEST-2: Connection refused."))),
+                () -> assertThat(limiter.getSuppressedCount(ErrorRateLimiter.OTHER_ERROR_CODES), equalTo(1L)));
+    }
+
+    @Test
+    void testRejectsInvalidPermits() {
+        assertThrows(IllegalArgumentException.class, () -> new ErrorRateLimiter(0, Duration.ofSeconds(1)));
+    }
+
+    private static ErrorMessageBuilder createBuilder() {
+        return ExaError.messageBuilder("E-ERJ-TEST-1").message("Connection refused.");
+    }
+}
@@ -0,0 +1,62 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import org.junit.jupiter.api.Test;
+
+class LazyErrorMessageTest {
+    @Test
+    void testRendersLikeBuilder() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("Value {{value}}.", 42)
+                .mitigation("Fix {{value}}.").mitigation("Or ignore it.");
+        assertThat(builder.lazy().get(), equalTo(builder.toString()));
+    }
+
+    @Test
+    void testDoesNotRenderBeforeAccess() {
+        final CountingValue value = new CountingValue();
+        final LazyErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").message("Value {{value}}.", value)
+                .lazy();
+        assertAll(() -> assertThat(value.toStringCalls, equalTo(0)),
+                () -> assertThat(message.isRendered(), equalTo(false)));
+    }
+
+    @Test
+    void testRendersOnlyOnce() {
+        final CountingValue value = new CountingValue();
+        final LazyErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").message("Value {{value}}.", value)
+                .lazy();
+        final String first = message.get();
+        assertAll(() -> assertThat(message.toString(), sameInstance(first)),
+                () -> assertThat(value.toStringCalls, equalTo(1)),
+                () -> assertThat(message.isRendered(), equalTo(true)));
+    }
+
+    @Test
+    void testIgnoresLaterBuilderChanges() {
+        final ErrorMessageBuilder builder = ExaError.messageBuilder("E-ERJ-TEST-1").message("Value {{value}}.");
+        final LazyErrorMessage message = builder.lazy();
+        builder.parameter("value", 1).mitigation("Do something.");
+        assertThat(message.get(), equalTo("E-ERJ-TEST-1: Value UNKNOWN PLACEHOLDER('value')."));
+    }
+
+    @Test
+    void testCharSequence() {
+        final LazyErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").message("Text.").lazy();
+        assertAll(() -> assertThat(message.length(), equalTo(19)),
+                () -> assertThat(message.charAt(0), equalTo('E')),
+                () -> assertThat(message.subSequence(14, 19).toString(), equalTo("Text.")));
+    }
+
+    static class CountingValue {
+        int toStringCalls = 0;
+
+        @Override
+        public String toString() {
+            ++this.toStringCalls;
+            return "counted";
+        }
+    }
+}
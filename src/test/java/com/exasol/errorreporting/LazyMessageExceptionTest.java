@@ -0,0 +1,57 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.*;
+
+import org.junit.jupiter.api.Test;
+
+class LazyMessageExceptionTest {
+    @Test
+    void testGetMessage() {
+        final LazyMessageException exception = new LazyMessageException(
+                ExaError.messageBuilder("E-ERJ-TEST-1").message("Failed with {{value}}.", 3));
+        assertThat(exception.getMessage(), equalTo("E-ERJ-TEST-1: Failed with 3."));
+    }
+
+    @Test
+    void testCause() {
+        final IllegalStateException cause = new IllegalStateException("cause");
+        final LazyMessageException exception = new LazyMessageException(
+                ExaError.messageBuilder("E-ERJ-TEST-1").message("Failed."), cause);
+        assertAll(() -> assertThat(exception.getCause(), sameInstance(cause)),
+                () -> assertThat(exception.getMessage(), equalTo("E-ERJ-TEST-1: Failed.")));
+    }
+
+    @Test
+    void testDiscardedExceptionIsNotRendered() {
+        final LazyErrorMessageTest.CountingValue value = new LazyErrorMessageTest.CountingValue();
+        try {
+            throw new LazyMessageException(ExaError.messageBuilder("E-ERJ-TEST-1").message("{{value}}", value));
+        } catch (final LazyMessageException exception) {
+            // handled without reading the message
+        }
+        assertThat(value.toStringCalls, equalTo(0));
+    }
+
+    @Test
+    void testSerializationKeepsMessage() throws IOException, ClassNotFoundException {
+        final LazyMessageException exception = new LazyMessageException(
+                ExaError.messageBuilder("E-ERJ-TEST-1").message("Failed with {{value}}.", new Object() {
+                    @Override
+                    public String toString() {
+                        return "not serializable";
+                    }
+                }));
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(exception);
+        }
+        try (final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final Throwable copy = (Throwable) input.readObject();
+            assertThat(copy.getMessage(), equalTo("E-ERJ-TEST-1: Failed with not serializable."));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+class LengthCappingAppendableTest {
+    @Test
+    void testPassesTextWithinBudget() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        final LengthCappingAppendable capping = new LengthCappingAppendable(target, 5);
+        capping.append("ab").append('c').append("xdex", 1, 3);
+        assertAll(() -> assertThat(target.toString(), equalTo("abcde")),
+                () -> assertThat(capping.isTruncated(), equalTo(false)));
+    }
+
+    @Test
+    void testCutsTextBeyondBudget() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        final LengthCappingAppendable capping = new LengthCappingAppendable(target, 5);
+        capping.append("abc").append("defgh").append("ignored").append('!');
+        assertAll(() -> assertThat(target.toString(), equalTo("abcde...")),
+                () -> assertThat(capping.isTruncated(), equalTo(true)));
+    }
+
+    @Test
+    void testCutsCharacterBeyondBudget() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        new LengthCappingAppendable(target, 2).append('a').append('b').append('c').append('d');
+        assertThat(target.toString(), equalTo("ab..."));
+    }
+
+    @Test
+    void testDoesNotSplitSurrogatePair() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        new LengthCappingAppendable(target, 2).append("a😀b");
+        assertThat(target.toString(), equalTo("a..."));
+    }
+
+    @Test
+    void testDoesNotSplitSurrogatePairOfSingleCharacters() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        final String emoji = "😀";
+        new LengthCappingAppendable(target, 2).append('a').append(emoji.charAt(0)).append(emoji.charAt(1));
+        assertThat(target.toString(), equalTo("a..."));
+    }
+
+    @Test
+    void testDoesNotSplitSurrogatePairAcrossAppends() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        final String emoji = "😀";
+        new LengthCappingAppendable(target, 2).append("a" + emoji.charAt(0)).append(emoji.substring(1));
+        assertThat(target.toString(), equalTo("a..."));
+    }
+
+    @Test
+    void testKeepsEmojiThatEndsExactlyAtBudget() throws IOException {
+        final StringBuilder target = new StringBuilder();
+        final LengthCappingAppendable capping = new LengthCappingAppendable(target, 3);
+        capping.append('a').append("😀");
+        assertAll(() -> assertThat(target.toString(), equalTo("a😀")),
+                () -> assertThat(capping.isTruncated(), equalTo(false)));
+    }
+}
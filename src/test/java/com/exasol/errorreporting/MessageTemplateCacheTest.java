@@ -0,0 +1,22 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateCacheTest {
+    @Test
+    void testSameTextInstanceReturnsCachedTemplate() {
+        final String text = "cached {{a}}";
+        assertThat(MessageTemplateCache.get(text), sameInstance(MessageTemplateCache.get(text)));
+    }
+
+    @Test
+    void testEqualTextInstanceReturnsEquivalentTemplate() {
+        final String text = "cached {{a}}";
+        final String copy = new String(text);
+        final MessageTemplate template = MessageTemplateCache.get(copy);
+        assertThat(template.getText(), equalTo(MessageTemplateCache.get(text).getText()));
+    }
+}
@@ -0,0 +1,45 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest {
+    @Test
+    void testCompileTextWithoutPlaceholders() {
+        final MessageTemplate template = MessageTemplate.compile("no placeholders");
+        assertAll(() -> assertThat(template.getPlaceholders(), empty()),
+                () -> assertThat(template.getLiterals(), contains("no placeholders")));
+    }
+
+    @Test
+    void testCompileSplitsLiteralsAndPlaceholders() {
+        final MessageTemplate template = MessageTemplate.compile("{{a}} and {{b|u}}.");
+        assertAll(
+                () -> assertThat(template.getPlaceholders().stream().map(Placeholder::getReference)
+                        .collect(Collectors.toList()), contains("a", "b")),
+                () -> assertThat(template.getPlaceholders().get(1).getQuoting(), equalTo(Quoting.UNQUOTED)),
+                () -> assertThat(template.getLiterals(), contains("", " and ", ".")));
+    }
+
+    @Test
+    void testGetText() {
+        assertThat(MessageTemplate.compile("text {{a}}").getText(), equalTo("text {{a}}"));
+    }
+
+    @Test
+    void testIsEmpty() {
+        assertAll(() -> assertThat(MessageTemplate.compile("").isEmpty(), equalTo(true)),
+                () -> assertThat(MessageTemplate.compile(" ").isEmpty(), equalTo(false)));
+    }
+
+    @Test
+    void testConcatParsesPlaceholdersAcrossBorder() {
+        final MessageTemplate template = MessageTemplate.compile("a {{b").concat(MessageTemplate.compile("}} c"));
+        assertThat(template.getPlaceholders().get(0).getReference(), equalTo("b"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class MpscQueueTest {
+    @Test
+    void testCapacityIsRoundedUpToPowerOfTwo() {
+        assertAll(() -> assertThat(new MpscQueue<String>(1).capacity(), equalTo(1)),
+                () -> assertThat(new MpscQueue<String>(5).capacity(), equalTo(8)),
+                () -> assertThat(new MpscQueue<String>(8).capacity(), equalTo(8)));
+    }
+
+    @Test
+    void testRejectsInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new MpscQueue<String>(0));
+    }
+
+    @Test
+    void testFirstInFirstOut() {
+        final MpscQueue<String> queue = new MpscQueue<>(4);
+        queue.offer("a");
+        queue.offer("b");
+        assertAll(() -> assertThat(queue.size(), equalTo(2)), () -> assertThat(queue.poll(), equalTo("a")),
+                () -> assertThat(queue.poll(), equalTo("b")), () -> assertThat(queue.poll(), nullValue()),
+                () -> assertThat(queue.isEmpty(), equalTo(true)));
+    }
+
+    @Test
+    void testOfferFailsWhenFull() {
+        final MpscQueue<Integer> queue = new MpscQueue<>(2);
+        final boolean first = queue.offer(1);
+        final boolean second = queue.offer(2);
+        final boolean third = queue.offer(3);
+        queue.poll();
+        final boolean afterPoll = queue.offer(4);
+        assertAll(() -> assertThat(first && second, equalTo(true)), () -> assertThat(third, equalTo(false)),
+                () -> assertThat(afterPoll, equalTo(true)), () -> assertThat(queue.poll(), equalTo(2)),
+                () -> assertThat(queue.poll(), equalTo(4)));
+    }
+
+    @Test
+    void testManyProducers() throws InterruptedException {
+        final int producers = 8;
+        final int perProducer = 10_000;
+        final MpscQueue<Integer> queue = new MpscQueue<>(64);
+        final List<Thread> threads = new ArrayList<>();
+        for (int producer = 0; producer < producers; ++producer) {
+            final int offset = producer * perProducer;
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; ++i) {
+                    while (!queue.offer(offset + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        final Set<Integer> received = new HashSet<>();
+        while (received.size() < (producers * perProducer)) {
+            final Integer element = queue.poll();
+            if (element != null) {
+                received.add(element);
+            }
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertAll(() -> assertThat(received.size(), equalTo(producers * perProducer)),
+                () -> assertThat(queue.isEmpty(), equalTo(true)));
+    }
+}
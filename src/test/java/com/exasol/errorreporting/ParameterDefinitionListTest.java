@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertAll;
 
@@ -31,4 +32,49 @@ class ParameterDefinitionListTest {
                 ()-> assertThat(list.containsKey("NOT THERE"), equalTo(false))
         );
     }
+
+    @Test
+    void testLookupMissReturnsNull() {
+        ParameterDefinitionList list = new ParameterDefinitionList();
+        list.add(ParameterDefinition.builder("A").build());
+        assertAll(
+                () -> assertThat(list.lookup("B"), nullValue()),
+                () -> assertThat(list.lookup(null), nullValue()),
+                () -> assertThat(list.get("B"), sameInstance(ParameterDefinition.UNDEFINED_PARAMETER))
+        );
+    }
+
+    @Test
+    void testFirstDefinitionWinsInSmallList() {
+        ParameterDefinitionList list = new ParameterDefinitionList();
+        final ParameterDefinition first = ParameterDefinition.builder("A").value(1).build();
+        list.add(first);
+        list.add(ParameterDefinition.builder("A").value(2).build());
+        assertThat(list.lookup("A"), sameInstance(first));
+    }
+
+    @Test
+    void testFirstDefinitionWinsInIndexedList() {
+        ParameterDefinitionList list = new ParameterDefinitionList();
+        for (int i = 0; i < 20; ++i) {
+            list.add(ParameterDefinition.builder("P" + i).value(i).build());
+        }
+        list.add(ParameterDefinition.builder("LATE").value("first").build());
+        list.add(ParameterDefinition.builder("LATE").value("second").build());
+        assertAll(
+                () -> assertThat(list.lookup("P3").getValue(), equalTo(3)),
+                () -> assertThat(list.lookup("P19").getValue(), equalTo(19)),
+                () -> assertThat(list.lookup("LATE").getValue(), equalTo("first")),
+                () -> assertThat(list.lookup("MISSING"), nullValue()),
+                () -> assertThat(list.containsKey("P0"), equalTo(true))
+        );
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        ParameterDefinitionList list = new ParameterDefinitionList();
+        final ParameterDefinitionList copy = list.copy();
+        list.add(ParameterDefinition.builder("A").build());
+        assertThat(copy.containsKey("A"), equalTo(false));
+    }
 }
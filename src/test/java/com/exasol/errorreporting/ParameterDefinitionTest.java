@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
 
 class ParameterDefinitionTest {
     @Test
@@ -62,4 +63,37 @@ class ParameterDefinitionTest {
         final ParameterDefinition parameter = ParameterDefinition.builder("irrelevant").build();
         assertThat(parameter.toString(), equalTo("<null>"));
     }
+
+    @Test
+    void testLongValue() {
+        final ParameterDefinition parameter = ParameterDefinition.builder("irrelevant").longValue(-5).build();
+        assertAll(
+                () -> assertThat(parameter.hasValue(), equalTo(true)),
+                () -> assertThat(parameter.hasLongValue(), equalTo(true)),
+                () -> assertThat(parameter.getLongValue(), equalTo(-5L)),
+                () -> assertThat(parameter.getValue(), equalTo(-5L)),
+                () -> assertThat(parameter.toString(), equalTo("-5"))
+        );
+    }
+
+    @Test
+    void testIntValueKeepsIntegerType() {
+        final ParameterDefinition parameter = ParameterDefinition.builder("irrelevant").intValue(-5).build();
+        assertAll(
+                () -> assertThat(parameter.hasLongValue(), equalTo(true)),
+                () -> assertThat(parameter.getLongValue(), equalTo(-5L)),
+                () -> assertThat(parameter.getValue(), equalTo(-5)),
+                () -> assertThat(parameter.toString(), equalTo("-5"))
+        );
+    }
+
+    @Test
+    void testBuilderIntParameterKeepsIntegerType() {
+        final ErrorMessage message = ExaError.messageBuilder("E-ERJ-TEST-1").parameter("count", 3)
+                .parameter("total", 3L).build();
+        assertAll(
+                () -> assertThat(message.getParameters().get(0).getValue(), equalTo(3)),
+                () -> assertThat(message.getParameters().get(1).getValue(), equalTo(3L))
+        );
+    }
 }
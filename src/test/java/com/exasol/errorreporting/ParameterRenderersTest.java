@@ -0,0 +1,304 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class ParameterRenderersTest {
+    @AfterEach
+    void unregisterRenderers() {
+        ParameterRenderers.unregister(ResultSet.class);
+        ParameterRenderers.unregister(Named.class);
+        ParameterRenderers.unregister(Boolean.class);
+        RenderingLimits.setDefault(RenderingLimits.builder().build());
+    }
+
+    @Test
+    void testRegisteredRendererReplacesToString() {
+        ParameterRenderers.register(ResultSet.class, (target, value) -> target.append("result set with ")
+                .append(String.valueOf(value.rows)).append(" rows"));
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-1").message("Got {{result}}.", new ResultSet(3)).toString(),
+                equalTo("E-ERJ-TEST-1: Got result set with 3 rows."));
+    }
+
+    @Test
+    void testRendererAppliesToSubclasses() {
+        ParameterRenderers.register(ResultSet.class, (target, value) -> target.append("rows: " + value.rows));
+        assertThat(Quoter.quoteObject(new ResultSet(2) {
+        }, Quoting.AUTOMATIC), equalTo("rows: 2"));
+    }
+
+    @Test
+    void testFailingRendererIsReplacedByFallback() {
+        ParameterRenderers.register(ResultSet.class, (target, value) -> {
+            throw new IllegalStateException("closed");
+        });
+        assertThat(Quoter.quoteObject(new ResultSet(1), Quoting.AUTOMATIC),
+                equalTo("<rendering failed: " + ResultSet.class.getName() + ">"));
+    }
+
+    @Test
+    void testFailingToStringIsReplacedByFallback() {
+        final Object value = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-2").message("Value {{value}}.", value).toString(),
+                equalTo("E-ERJ-TEST-2: Value <toString failed: " + value.getClass().getName() + ">."));
+    }
+
+    @Test
+    void testParameterLengthIsCapped() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxParameterLength(5).build());
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-3").message("Value {{value|u}}.", "abcdefghij").toString(),
+                equalTo("E-ERJ-TEST-3: Value abcde...."));
+    }
+
+    @Test
+    void testParameterLengthCapKeepsQuotes() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxParameterLength(5).build());
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-3").message("Value {{value}}.", "abcdefghij").toString(),
+                equalTo("E-ERJ-TEST-3: Value 'abcde...'."));
+    }
+
+    @Test
+    void testParameterLengthCapAppliesToEachElement() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxParameterLength(3).build());
+        assertThat(
+                ExaError.messageBuilder("E-ERJ-TEST-3").message("Values {{values}}.", List.of("abcdef", "gh"))
+                        .toString(),
+                equalTo("E-ERJ-TEST-3: Values ['abc...', 'gh']."));
+    }
+
+    @Test
+    void testParameterLengthCapDoesNotApplyToJsonNumbers() throws IOException {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxParameterLength(3).build());
+        final StringBuilder json = new StringBuilder();
+        ErrorMessageJsonWriter.write(
+                ExaError.messageBuilder("E-ERJ-TEST-3").parameter("value", new BigDecimal("12345.678")), json);
+        assertThat(json.toString(), containsString("{\"name\":\"value\",\"value\":12345.678}"));
+    }
+
+    @Test
+    void testFailingIteratorIsGuarded() {
+        final Iterable<String> failing = () -> {
+            throw new IllegalStateException("closed");
+        };
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-4").message("Values {{values}}.", failing).toString(),
+                equalTo("E-ERJ-TEST-4: Values <rendering failed: " + failing.getClass().getName() + ">."));
+    }
+
+    @Test
+    void testConcurrentlyModifiedCollectionIsGuarded() {
+        final List<Integer> values = new ArrayList<>(List.of(1, 2, 3)) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Iterator<Integer> iterator() {
+                final Iterator<Integer> iterator = super.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Integer next() {
+                        final Integer next = iterator.next();
+                        if (next == 2) {
+                            throw new ConcurrentModificationException();
+                        }
+                        return next;
+                    }
+                };
+            }
+        };
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-4").message("Values {{values}}.", values).toString(),
+                equalTo("E-ERJ-TEST-4: Values <rendering failed: " + values.getClass().getName() + ">."));
+    }
+
+    @Test
+    void testFailingMapIsGuarded() {
+        final Map<String, String> map = new HashMap<>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Set<Map.Entry<String, String>> entrySet() {
+                throw new UnsupportedOperationException("entrySet");
+            }
+        };
+        assertThat(ExaError.messageBuilder("E-ERJ-TEST-4").message("Map {{map}}.", map).toString(),
+                equalTo("E-ERJ-TEST-4: Map <rendering failed: " + map.getClass().getName() + ">."));
+    }
+
+    @Test
+    void testPartialOutputOfFailingRendererIsRemovedFromWriter() throws IOException {
+        ParameterRenderers.register(ResultSet.class, Quoting.SINGLE_QUOTES, (target, value) -> {
+            target.append("abc");
+            throw new IllegalStateException("closed");
+        });
+        final StringWriter writer = new StringWriter();
+        ExaError.messageBuilder("E-ERJ-TEST-5").message("Got {{result}}.", new ResultSet(1)).renderTo(writer);
+        assertThat(writer.toString(),
+                equalTo("E-ERJ-TEST-5: Got '<rendering failed: " + ResultSet.class.getName() + ">'."));
+    }
+
+    @Test
+    void testPartialOutputOfFailingRendererIsRemovedBehindLengthCap() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxParameterLength(10).build());
+        ParameterRenderers.register(ResultSet.class, Quoting.SINGLE_QUOTES, (target, value) -> {
+            target.append("abc");
+            throw new IllegalStateException("closed");
+        });
+        assertThat(Quoter.quoteObject(new ResultSet(1), Quoting.AUTOMATIC),
+                equalTo("'<rendering failed: " + ResultSet.class.getName() + ">'"));
+    }
+
+    @Test
+    void testPartialOutputOfFailingCollectionIsRemovedFromWriter() throws IOException {
+        final Iterable<Integer> values = () -> new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                if (this.next == 2) {
+                    throw new ConcurrentModificationException();
+                }
+                return this.next++;
+            }
+        };
+        final StringWriter writer = new StringWriter();
+        ExaError.messageBuilder("E-ERJ-TEST-5").message("Values {{values}}.", values).renderTo(writer);
+        assertThat(writer.toString(),
+                equalTo("E-ERJ-TEST-5: Values <rendering failed: " + values.getClass().getName() + ">."));
+    }
+
+    @Test
+    void testParameterDefinitionToStringIsGuarded() {
+        final Object value = new Object() {
+            @Override
+            public String toString() {
+                throw new IllegalStateException("broken");
+            }
+        };
+        assertThat(ParameterDefinition.builder("value").value(value).build().toString(),
+                equalTo("<toString failed: " + value.getClass().getName() + ">"));
+    }
+
+    static Stream<Arguments> getBuiltInExamples() {
+        return Stream.of(//
+                Arguments.of(new byte[] { 0x0A, (byte) 0xFF, 0 }, "0x0aff00"), //
+                Arguments.of(Instant.parse("2024-01-02T03:04:05Z"), "2024-01-02T03:04:05Z"), //
+                Arguments.of(Duration.ofSeconds(90), "PT1M30S"), //
+                Arguments.of(Optional.of("a"), "'a'"), //
+                Arguments.of(Optional.empty(), "<empty>"), //
+                Arguments.of(SqlIdentifier.of("MY \"TABLE\""), "\"MY \"\"TABLE\"\"\""), //
+                Arguments.of(new StringBuilder("builder"), "builder"), //
+                Arguments.of(new ChainedException("failed"), ChainedException.class.getName() + ": failed") //
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("getBuiltInExamples")
+    void testBuiltInRenderers(final Object input, final String expectedOutput) {
+        assertThat(Quoter.quoteObject(input, Quoting.AUTOMATIC), equalTo(expectedOutput));
+    }
+
+    @Test
+    void testHexIsCapped() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxElements(2).build());
+        assertThat(Quoter.quoteObject(new byte[1000], Quoting.AUTOMATIC), equalTo("0x0000... (998 more bytes)"));
+    }
+
+    @Test
+    void testExplicitQuotingOverridesRendererQuoting() {
+        assertThat(Quoter.quoteObject(Duration.ofSeconds(1), Quoting.SINGLE_QUOTES), equalTo("'PT1S'"));
+    }
+
+    @Test
+    void testRegisteredQuotingIsUsedAutomatically() {
+        ParameterRenderers.register(ResultSet.class, Quoting.DOUBLE_QUOTES,
+                (target, value) -> target.append("rows"));
+        assertThat(Quoter.quoteObject(new ResultSet(1), Quoting.AUTOMATIC), equalTo("\"rows\""));
+    }
+
+    @Test
+    void testRendererForInterface() {
+        ParameterRenderers.register(Named.class, Quoting.SINGLE_QUOTES,
+                (target, value) -> target.append(value.getName()));
+        final Named named = () -> "schema";
+        assertThat(Quoter.quoteObject(List.of(named), Quoting.AUTOMATIC), equalTo("['schema']"));
+    }
+
+    @Test
+    void testRegistrationReplacesCachedRenderer() {
+        final String before = Quoter.quoteObject(true, Quoting.AUTOMATIC);
+        ParameterRenderers.register(Boolean.class, (target, value) -> target.append(value ? "yes" : "no"));
+        final String registered = Quoter.quoteObject(true, Quoting.AUTOMATIC);
+        ParameterRenderers.unregister(Boolean.class);
+        final String after = Quoter.quoteObject(true, Quoting.AUTOMATIC);
+        assertThat(List.of(before, registered, after), equalTo(List.of("true", "yes", "true")));
+    }
+
+    /**
+     * Iterable exception like {@code SQLException}.
+     */
+    private static class ChainedException extends Exception implements Iterable<Throwable> {
+        private static final long serialVersionUID = 1L;
+
+        private ChainedException(final String message) {
+            super(message);
+        }
+
+        @Override
+        public Iterator<Throwable> iterator() {
+            return List.<Throwable>of(this).iterator();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Named {
+        String getName();
+    }
+
+    private static class ResultSet {
+        private final int rows;
+
+        private ResultSet(final int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public String toString() {
+            throw new UnsupportedOperationException("too expensive");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Differential test that compares the scanner with the regular expression it replaced.
+ */
+class PlaceholderScannerTest {
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("\\{\\{([^}]*)}+");
+
+    static Stream<String> getCorpus() {
+        return Stream.of("", //
+                "no placeholder", //
+                "{{a}}", //
+                "{{a}} {{b}}", //
+                "{{a}}{{b}}", //
+                "prefix {{a}} suffix", //
+                "{{}}", //
+                "{{|}}", //
+                "{{|u}}", //
+                "{{a|}}", //
+                "{{a|u}}", //
+                "{{a|q}}", //
+                "{{a|d}}", //
+                "{{a|uq}}", //
+                "{{a|qu}}", //
+                "{{a|dq}}", //
+                "{{a|x}}", //
+                "{{a|b|u}}", //
+                "{{a}", //
+                "{{a}}}", //
+                "{{a}}}}} tail", //
+                "{{a", //
+                "{{", //
+                "{", //
+                "}}", //
+                "{a}}", //
+                "{{{a}}", //
+                "{{{{a}}", //
+                "{ {a}}", //
+                "{{a{{b}}", //
+                "{{a}}{{", //
+                "{{a}} {{b", //
+                "{{a\nb}}", //
+                "{{a}}\n{{b}}", //
+                "{{ a }}", //
+                "{{a} }}", //
+                "Message with {{parameterName1|uq}} and {{parameterName2|uq}}.", //
+                "{{\u00e4\u00f6\u00fc|q}} \ud83d\ude00 {{x}}");
+    }
+
+    @ParameterizedTest
+    @MethodSource("getCorpus")
+    void testScannerMatchesRegularExpression(final String text) {
+        assertThat(scan(text), equalTo(scanWithRegularExpression(text)));
+    }
+
+    @Test
+    void testRandomCorpusMatchesRegularExpression() {
+        final char[] alphabet = { '{', '{', '}', '}', '|', 'a', 'b', 'u', 'q', 'd', ' ', '\n' };
+        final Random random = new Random(4711);
+        for (int i = 0; i < 20_000; ++i) {
+            final StringBuilder builder = new StringBuilder();
+            final int length = random.nextInt(24);
+            for (int j = 0; j < length; ++j) {
+                builder.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            final String text = builder.toString();
+            assertThat(text, scan(text), equalTo(scanWithRegularExpression(text)));
+        }
+    }
+
+    @Test
+    void testRanges() {
+        final PlaceholderScanner scanner = new PlaceholderScanner("x {{ref|uq}}} y");
+        scanner.find();
+        assertAll(() -> assertThat(scanner.getStartIndex(), equalTo(2)),
+                () -> assertThat(scanner.getEndIndex(), equalTo(13)),
+                () -> assertThat(scanner.getReferenceStartIndex(), equalTo(4)),
+                () -> assertThat(scanner.getReferenceEndIndex(), equalTo(7)),
+                () -> assertThat(scanner.getSwitchesStartIndex(), equalTo(8)),
+                () -> assertThat(scanner.getSwitchesEndIndex(), equalTo(10)),
+                () -> assertThat(scanner.getQuoting(), equalTo(Quoting.UNQUOTED)));
+    }
+
+    @Test
+    void testRangesWithoutSwitches() {
+        final PlaceholderScanner scanner = new PlaceholderScanner("{{ref}}");
+        scanner.find();
+        assertAll(() -> assertThat(scanner.hasSwitches(), equalTo(false)),
+                () -> assertThat(scanner.getSwitchesStartIndex(), equalTo(-1)),
+                () -> assertThat(scanner.getSwitchesEndIndex(), equalTo(-1)),
+                () -> assertThat(scanner.getReference(), equalTo("ref")));
+    }
+
+    private static List<String> scan(final String text) {
+        final List<String> results = new ArrayList<>();
+        final PlaceholderScanner scanner = new PlaceholderScanner(text);
+        while (scanner.find()) {
+            results.add(describe(scanner.getStartIndex(), scanner.getEndIndex(), scanner.getReference(),
+                    scanner.getQuoting()));
+        }
+        return results;
+    }
+
+    private static List<String> scanWithRegularExpression(final String text) {
+        final List<String> results = new ArrayList<>();
+        final Matcher matcher = REFERENCE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            final Placeholder placeholder = Placeholder.parse(matcher.group(1)).build();
+            results.add(describe(matcher.start(), matcher.end(), placeholder.getReference(),
+                    placeholder.getQuoting()));
+        }
+        return results;
+    }
+
+    private static String describe(final int start, final int end, final String reference, final Quoting quoting) {
+        return start + "-" + end + ":" + reference + ":" + quoting;
+    }
+}
@@ -0,0 +1,58 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class PrecompiledTemplatesTest {
+    private final PrecompiledTemplates templates = new PrecompiledTemplates(List.of(new TestTemplateProvider()));
+
+    @Test
+    void testFindsTemplateByErrorCodeAndText() {
+        final MessageTemplate template = this.templates.lookup(TestTemplateProvider.ERROR_CODE,
+                TestTemplateProvider.MESSAGE);
+        assertThat(template.getLiterals(), contains("Pre-parsed ", "!"));
+    }
+
+    @Test
+    void testReturnsNullForOtherErrorCode() {
+        assertThat(this.templates.lookup("E-ERJ-TEST-1", TestTemplateProvider.MESSAGE), nullValue());
+    }
+
+    @Test
+    void testReturnsNullForOtherText() {
+        assertThat(this.templates.lookup(TestTemplateProvider.ERROR_CODE, "Other."), nullValue());
+    }
+
+    @Test
+    void testReturnsNullWithoutErrorCode() {
+        assertThat(PrecompiledTemplates.find(null, TestTemplateProvider.MESSAGE), nullValue());
+    }
+
+    @Test
+    void testMergesTemplatesOfProviders() {
+        final PrecompiledTemplateProvider otherProvider = () -> Map.of(TestTemplateProvider.ERROR_CODE,
+                List.of(MessageTemplate.compile("Other.")));
+        final PrecompiledTemplates merged = new PrecompiledTemplates(
+                List.of(new TestTemplateProvider(), otherProvider));
+        assertAll(() -> assertThat(merged.lookup(TestTemplateProvider.ERROR_CODE, "Other."), notNullValue()),
+                () -> assertThat(merged.lookup(TestTemplateProvider.ERROR_CODE, TestTemplateProvider.MITIGATION),
+                        notNullValue()));
+    }
+
+    @Test
+    void testFromPartsRejectsMismatchingParts() {
+        final List<String> literals = List.of("a", "b");
+        final List<Placeholder> placeholders = List.of();
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> MessageTemplate.fromParts("ab", literals, placeholders));
+        assertAll(() -> assertThat(exception.getMessage(),
+                equalTo("Expected 1 literal segments for 0 placeholders, but got 2.")));
+    }
+}
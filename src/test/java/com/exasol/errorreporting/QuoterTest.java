@@ -2,8 +2,11 @@ package com.exasol.errorreporting;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -12,6 +15,8 @@ import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Stream;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -119,6 +124,124 @@ class QuoterTest {
         assertThat(Quoter.quoteObject(input, Quoting.DOUBLE_QUOTES), equalTo(expectedOutput));
     }
 
+    static Stream<Arguments> getNumberExamples() {
+        return Stream.of(//
+                Arguments.of(0, "0"), //
+                Arguments.of(-7, "-7"), //
+                Arguments.of((short) 12, "12"), //
+                Arguments.of((byte) -3, "-3"), //
+                Arguments.of(Long.MAX_VALUE, "9223372036854775807"), //
+                Arguments.of(Long.MIN_VALUE, "-9223372036854775808"), //
+                Arguments.of(1_000_000_000_000L, "1000000000000"), //
+                Arguments.of(-0.5d, "-0.5"), //
+                Arguments.of(0.1f, "0.1"), //
+                Arguments.of(true, "true") //
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("getNumberExamples")
+    void testNumbersIntoStringBuilder(final Object input, final String expectedOutput) {
+        assertThat(Quoter.quoteObject(input, Quoting.AUTOMATIC), equalTo(expectedOutput));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getNumberExamples")
+    void testNumbersIntoWriter(final Object input, final String expectedOutput) throws IOException {
+        final StringWriter writer = new StringWriter();
+        Quoter.quoteObject(writer, input, Quoting.AUTOMATIC);
+        assertThat(writer.toString(), equalTo(expectedOutput));
+    }
+
+    static Stream<Arguments> getLongExamples() {
+        return Stream.of(//
+                Arguments.of(42L, Quoting.AUTOMATIC, "42"), //
+                Arguments.of(42L, Quoting.UNQUOTED, "42"), //
+                Arguments.of(-42L, Quoting.SINGLE_QUOTES, "'-42'"), //
+                Arguments.of(Long.MIN_VALUE, Quoting.DOUBLE_QUOTES, "\"-9223372036854775808\"") //
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("getLongExamples")
+    void testQuoteLong(final long input, final Quoting quoting, final String expectedOutput) throws IOException {
+        final StringWriter writer = new StringWriter();
+        Quoter.quoteLong(writer, input, quoting);
+        assertThat(writer.toString(), equalTo(expectedOutput));
+    }
+
+    @AfterEach
+    void restoreRenderingLimits() {
+        RenderingLimits.setDefault(RenderingLimits.builder().build());
+    }
+
+    static Stream<Arguments> getContainerExamples() {
+        return Stream.of(//
+                Arguments.of(new int[] { 1, 2, 3 }, "[1, 2, 3]"), //
+                Arguments.of(new String[] { "a", null }, "['a', <null>]"), //
+                Arguments.of(new TreeMap<>(Map.of("a", 1, "b", 2)), "{'a'=1, 'b'=2}"), //
+                Arguments.of(new ArrayDeque<>(List.of(1, 2)), "[1, 2]"), //
+                Arguments.of((Iterable<Integer>) () -> List.of(1, 2).iterator(), "[1, 2]"), //
+                Arguments.of(List.of(List.of(1), Set.of()), "[[1], []]"), //
+                Arguments.of(Path.of("a", "b"), "'" + Path.of("a", "b") + "'") //
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("getContainerExamples")
+    void testContainers(final Object input, final String expectedOutput) {
+        assertThat(Quoter.quoteObject(input, Quoting.AUTOMATIC), equalTo(expectedOutput));
+    }
+
+    @Test
+    void testHugeCollectionIsCappedByElementCount() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxElements(3).build());
+        final List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 500_000; ++i) {
+            ids.add(i);
+        }
+        assertThat(Quoter.quoteObject(ids, Quoting.AUTOMATIC), equalTo("[0, 1, 2, ... (499,997 more)]"));
+    }
+
+    @Test
+    void testArrayIsCappedByLength() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxContainerLength(10).build());
+        assertThat(Quoter.quoteObject(new long[] { 1111, 2222, 3333, 4444 }, Quoting.AUTOMATIC),
+                equalTo("[1111, 2222, ... (2 more)]"));
+    }
+
+    @Test
+    void testMapIsCapped() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxElements(1).build());
+        assertThat(Quoter.quoteObject(new TreeMap<>(Map.of("a", 1, "b", 2)), Quoting.UNQUOTED),
+                equalTo("{a=1, ... (1 more)}"));
+    }
+
+    @Test
+    void testIterableOfUnknownSizeIsCapped() {
+        RenderingLimits.setDefault(RenderingLimits.builder().maxElements(2).build());
+        final Iterable<Integer> endless = () -> new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return this.next++;
+            }
+        };
+        assertThat(Quoter.quoteObject(endless, Quoting.AUTOMATIC), equalTo("[0, 1, ...]"));
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        final RenderingLimits.Builder builder = RenderingLimits.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.maxElements(0));
+    }
+
     private static class CustomObject {
         @Override
         public String toString() {
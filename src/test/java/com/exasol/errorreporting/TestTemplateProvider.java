@@ -0,0 +1,26 @@
+package com.exasol.errorreporting;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provider of pre-parsed templates for the tests.
+ * <p>
+ * The literal segments deliberately differ from the text, so that tests can tell a pre-parsed template from one that
+ * was parsed at runtime.
+ * </p>
+ */
+class TestTemplateProvider implements PrecompiledTemplateProvider {
+    static final String ERROR_CODE = "E-ERJ-TEST-PRE-1";
+    static final String MESSAGE = "Precompiled message {{a}}.";
+    static final String MITIGATION = "Precompiled mitigation.";
+
+    @Override
+    public Map<String, List<MessageTemplate>> getTemplates() {
+        final Placeholder placeholder = new Placeholder.Builder("a").quoting(Quoting.UNQUOTED).startIndex(20)
+                .endIndex(25).build();
+        return Map.of(ERROR_CODE, List.of(MessageTemplate.fromParts(MESSAGE, List.of("Pre-parsed ", "!"),
+                List.of(placeholder)), MessageTemplate.fromParts(MITIGATION, List.of("Pre-parsed mitigation."),
+                        List.of())));
+    }
+}
@@ -0,0 +1,108 @@
+package com.exasol.errorreporting;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertAll;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Utf8SinkTest {
+    @ParameterizedTest
+    @ValueSource(strings = { "", "ascii", "äöü", "€", "😀", "lone \ud83d high",
+            "lone \ude00 low", "trailing \ud83d", "\ud83d😀" })
+    void testEncodingMatchesString(final String text) {
+        assertEncodedLikeString(text);
+    }
+
+    @Test
+    void testRandomTextMatchesString() {
+        final Random random = new Random(1234);
+        for (int i = 0; i < 2_000; ++i) {
+            final char[] characters = new char[random.nextInt(16)];
+            for (int j = 0; j < characters.length; ++j) {
+                characters[j] = (char) random.nextInt(0x10000);
+            }
+            assertEncodedLikeString(new String(characters));
+        }
+    }
+
+    private static void assertEncodedLikeString(final String text) {
+        final ByteBuffer buffer = ByteBuffer.allocate(128);
+        final Utf8Sink sink = new Utf8Sink(buffer);
+        sink.append(text);
+        final int size = sink.finish();
+        final byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+        assertAll(() -> assertThat(size, equalTo(expected.length)),
+                () -> assertThat(Arrays.copyOf(buffer.array(), buffer.position()), equalTo(expected)));
+    }
+
+    @Test
+    void testOverflowResetsPositionAndReportsRequiredSize() {
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        final Utf8Sink sink = new Utf8Sink(buffer);
+        sink.append("äbcdef");
+        assertAll(() -> assertThat(sink.finish(), equalTo(7)), () -> assertThat(buffer.position(), equalTo(0)));
+    }
+
+    @Test
+    void testTruncateEndsWithMarker() {
+        final ByteBuffer buffer = ByteBuffer.allocate(6);
+        final Utf8Sink sink = new Utf8Sink(buffer, OverflowHandling.TRUNCATE);
+        sink.append("abcdefgh");
+        final int size = sink.finish();
+        assertAll(() -> assertThat(size, equalTo(8)),
+                () -> assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                        equalTo("abc...")));
+    }
+
+    @Test
+    void testTruncateCutsAtCharacterBoundary() {
+        final ByteBuffer buffer = ByteBuffer.allocate(7);
+        final Utf8Sink sink = new Utf8Sink(buffer, OverflowHandling.TRUNCATE);
+        sink.append("a\u20ac\u20acb");
+        final int size = sink.finish();
+        assertAll(() -> assertThat(size, equalTo(8)),
+                () -> assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                        equalTo("a\u20ac...")));
+    }
+
+    @Test
+    void testTruncateWritesFittingPrefixOfEncodedSegment() {
+        final ByteBuffer buffer = ByteBuffer.allocate(10);
+        final Utf8Sink sink = new Utf8Sink(buffer, OverflowHandling.TRUNCATE);
+        sink.writeEncoded("ab".getBytes(StandardCharsets.UTF_8));
+        sink.writeEncoded("cdefghijkl".getBytes(StandardCharsets.UTF_8));
+        sink.writeEncoded("mn".getBytes(StandardCharsets.UTF_8));
+        final int size = sink.finish();
+        assertAll(() -> assertThat(size, equalTo(14)),
+                () -> assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                        equalTo("abcdefg...")));
+    }
+
+    @Test
+    void testEncodedSegmentIsCutAtCharacterBoundary() {
+        final ByteBuffer buffer = ByteBuffer.allocate(12);
+        final Utf8Sink sink = new Utf8Sink(buffer, OverflowHandling.TRUNCATE);
+        sink.writeEncoded("abcdefgh\u20ac\u20ac".getBytes(StandardCharsets.UTF_8));
+        final int size = sink.finish();
+        assertAll(() -> assertThat(size, equalTo(14)),
+                () -> assertThat(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8),
+                        equalTo("abcdefgh...")));
+    }
+
+    @Test
+    void testTruncateRejectsIfMarkerDoesNotFit() {
+        final ByteBuffer buffer = ByteBuffer.allocate(4);
+        buffer.position(2);
+        final Utf8Sink sink = new Utf8Sink(buffer, OverflowHandling.TRUNCATE);
+        sink.append("abc");
+        assertAll(() -> assertThat(sink.finish(), equalTo(3)), () -> assertThat(buffer.position(), equalTo(2)));
+    }
+}